@@ -0,0 +1,356 @@
+package com.outforce.desafio.audit;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.enums.CupomEventType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de eventos do ciclo de vida dos cupons, só de acréscimo. Quem publica apenas coloca o evento em uma
+ * {@link EventRingBuffer}; uma thread própria esvazia o buffer em lotes, grava os registros no segmento atual e
+ * agrupa os fsyncs: no máximo um a cada {@code cupom.audit.fsync-interval-ms}, cobrindo todos os lotes gravados
+ * no intervalo. A leitura só enxerga eventos já sincronizados, então um offset lido nunca muda após uma queda.
+ * O evento é publicado depois da alteração no banco, então um evento gravado sempre corresponde a uma alteração
+ * feita; numa queda, os eventos ainda não sincronizados se perdem.
+ * <p>
+ * Os segmentos ficam em {@code cupom.audit.dir}, com o offset do primeiro evento no nome. Os registros têm
+ * tamanho fixo, então a leitura a partir de um offset é um acesso direto à posição no arquivo.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.audit.enabled", havingValue = "true")
+public class CupomAuditLog implements MeterBinder {
+
+	public enum Backpressure {
+		/** espera por espaço no buffer até {@code cupom.audit.block-timeout-ms}, depois descarta */
+		BLOCK,
+		/** descarta na hora */
+		DROP
+	}
+
+	static final int TAMANHO_REGISTRO = 45;
+
+	private static final Logger log = LoggerFactory.getLogger(CupomAuditLog.class);
+	private static final String EXTENSAO = ".log";
+	private static final long SEM_CODIGO = -1;
+	private static final long ESPERA_OCIOSA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long ESPERA_BUFFER_CHEIO_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final CupomEventType[] TIPOS = CupomEventType.values();
+
+	private final Path diretorio;
+	private final EventRingBuffer<CupomEvent> buffer;
+	private final int tamanhoLote;
+	private final long eventosPorSegmento;
+	private final boolean fsync;
+	private final long intervaloFsyncNanos;
+	private final Backpressure politica;
+	private final long bloqueioNanos;
+	private final ConcurrentSkipListMap<Long, Path> segmentos = new ConcurrentSkipListMap<>();
+	private final Thread escritor;
+	private final LongAdder descartados = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private volatile Timer gravacoes;
+
+	private FileChannel segmentoAtual;
+	private long baseSegmentoAtual;
+	private long proximoOffset;
+	private long ultimoFsync;
+	private volatile long gravados;
+	private volatile boolean ativo = true;
+
+	public CupomAuditLog(@Value("${cupom.audit.dir:${cupom.data-dir:./data}/audit}") String diretorio,
+						 @Value("${cupom.audit.buffer-size:65536}") int capacidadeBuffer,
+						 @Value("${cupom.audit.batch-size:4096}") int tamanhoLote,
+						 @Value("${cupom.audit.segment-events:1000000}") long eventosPorSegmento,
+						 @Value("${cupom.audit.fsync:true}") boolean fsync,
+						 @Value("${cupom.audit.fsync-interval-ms:5}") long intervaloFsyncMs,
+						 @Value("${cupom.audit.backpressure:BLOCK}") Backpressure politica,
+						 @Value("${cupom.audit.block-timeout-ms:100}") long bloqueioMs) throws IOException {
+		this.diretorio = Path.of(diretorio);
+		this.buffer = new EventRingBuffer<>(capacidadeBuffer);
+		this.tamanhoLote = tamanhoLote;
+		this.eventosPorSegmento = eventosPorSegmento;
+		this.fsync = fsync;
+		this.intervaloFsyncNanos = TimeUnit.MILLISECONDS.toNanos(intervaloFsyncMs);
+		this.politica = politica;
+		this.bloqueioNanos = TimeUnit.MILLISECONDS.toNanos(bloqueioMs);
+		recuperar();
+		this.escritor = new Thread(this::escrever, "audit-log-writer");
+		this.escritor.setDaemon(true);
+		this.escritor.start();
+	}
+
+	/**
+	 * Publica um evento sem esperar pela gravação. Devolve {@code false} se o evento foi descartado pela
+	 * política de contrapressão.
+	 */
+	public boolean append(CupomEventType tipo, UUID couponId, String code) {
+		CupomEvent evento = new CupomEvent(-1, tipo, couponId, code, Instant.now().truncatedTo(ChronoUnit.MICROS));
+		if (buffer.offer(evento)) {
+			return true;
+		}
+		if (politica == Backpressure.BLOCK) {
+			long limite = System.nanoTime() + bloqueioNanos;
+			while (System.nanoTime() < limite) {
+				LockSupport.parkNanos(ESPERA_BUFFER_CHEIO_NANOS);
+				if (buffer.offer(evento)) {
+					return true;
+				}
+			}
+		}
+		descartados.increment();
+		return false;
+	}
+
+	/**
+	 * Lê até {@code limite} eventos já gravados a partir de {@code offset}, em ordem.
+	 */
+	public List<CupomEvent> read(long offset, int limite) {
+		long fim = Math.min(gravados, offset + limite);
+		List<CupomEvent> eventos = new ArrayList<>((int) Math.max(0, fim - offset));
+		long posicao = offset;
+		while (posicao < fim) {
+			Map.Entry<Long, Path> segmento = segmentos.floorEntry(posicao);
+			if (segmento == null) {
+				break;
+			}
+			long fimSegmento = Math.min(fim, segmento.getKey() + eventosPorSegmento);
+			lerSegmento(segmento.getValue(), segmento.getKey(), posicao, fimSegmento, eventos);
+			posicao = fimSegmento;
+		}
+		return eventos;
+	}
+
+	/**
+	 * Offset que o próximo evento gravado vai receber.
+	 */
+	public long endOffset() {
+		return gravados;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		gravacoes = Timer.builder("cupom.audit.flush")
+				.description("Gravação e fsync de um lote de eventos")
+				.register(registry);
+		FunctionCounter.builder("cupom.audit.events", this, CupomAuditLog::endOffset)
+				.description("Eventos gravados no log")
+				.register(registry);
+		FunctionCounter.builder("cupom.audit.dropped", descartados, LongAdder::sum)
+				.description("Eventos descartados com o buffer cheio")
+				.register(registry);
+		FunctionCounter.builder("cupom.audit.failures", falhas, LongAdder::sum)
+				.description("Eventos perdidos por falha de gravação")
+				.register(registry);
+		Gauge.builder("cupom.audit.backlog", buffer, EventRingBuffer::size)
+				.description("Eventos no buffer aguardando gravação")
+				.register(registry);
+	}
+
+	@PreDestroy
+	public void encerrar() throws InterruptedException, IOException {
+		ativo = false;
+		LockSupport.unpark(escritor);
+		escritor.join(TimeUnit.SECONDS.toMillis(10));
+		segmentoAtual.close();
+	}
+
+	private void recuperar() throws IOException {
+		Files.createDirectories(diretorio);
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(EXTENSAO))
+					.forEach(arquivo -> segmentos.put(baseDoNome(arquivo), arquivo));
+		}
+		if (segmentos.isEmpty()) {
+			abrirSegmento(0);
+			return;
+		}
+		baseSegmentoAtual = segmentos.lastKey();
+		segmentoAtual = FileChannel.open(segmentos.lastEntry().getValue(), StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		// uma queda no meio de uma gravação pode deixar um registro pela metade ou corrompido no final
+		long registros = segmentoAtual.size() / TAMANHO_REGISTRO;
+		ByteBuffer registro = ByteBuffer.allocate(TAMANHO_REGISTRO);
+		while (registros > 0) {
+			registro.clear();
+			segmentoAtual.read(registro, (registros - 1) * TAMANHO_REGISTRO);
+			if (registroValido(registro.flip())) {
+				break;
+			}
+			registros--;
+		}
+		if (segmentoAtual.size() != registros * TAMANHO_REGISTRO) {
+			log.warn("Truncando o segmento {} em {} registros", segmentos.lastEntry().getValue(), registros);
+			segmentoAtual.truncate(registros * TAMANHO_REGISTRO);
+		}
+		segmentoAtual.position(registros * TAMANHO_REGISTRO);
+		proximoOffset = baseSegmentoAtual + registros;
+		gravados = proximoOffset;
+	}
+
+	private void abrirSegmento(long base) throws IOException {
+		Path arquivo = diretorio.resolve(String.format("%020d%s", base, EXTENSAO));
+		segmentoAtual = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		baseSegmentoAtual = base;
+		segmentos.put(base, arquivo);
+	}
+
+	private void escrever() {
+		List<CupomEvent> lote = new ArrayList<>(tamanhoLote);
+		ByteBuffer bytes = ByteBuffer.allocateDirect(tamanhoLote * TAMANHO_REGISTRO);
+		while (true) {
+			long inicio = System.nanoTime();
+			int lidos = buffer.drainTo(lote, tamanhoLote);
+			try {
+				if (lidos > 0) {
+					gravar(lote, bytes);
+					lote.clear();
+				}
+				boolean pendente = proximoOffset > gravados;
+				if (pendente && (!ativo || System.nanoTime() - ultimoFsync >= intervaloFsyncNanos)) {
+					sincronizar();
+				}
+				if (pendente && gravacoes != null) {
+					gravacoes.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+				}
+			} catch (IOException | UncheckedIOException ex) {
+				log.error("Falha ao gravar {} eventos de auditoria", proximoOffset - gravados, ex);
+				falhas.add(proximoOffset - gravados);
+				lote.clear();
+				descartarNaoGravados();
+			}
+			if (lidos == 0) {
+				if (!ativo && buffer.size() == 0 && proximoOffset == gravados) {
+					return;
+				}
+				LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+			}
+		}
+	}
+
+	private void gravar(List<CupomEvent> lote, ByteBuffer bytes) throws IOException {
+		bytes.clear();
+		for (CupomEvent evento : lote) {
+			if (proximoOffset - baseSegmentoAtual == eventosPorSegmento) {
+				descarregar(bytes);
+				sincronizar();
+				segmentoAtual.close();
+				abrirSegmento(proximoOffset);
+			}
+			codificar(evento, proximoOffset++, bytes);
+		}
+		descarregar(bytes);
+	}
+
+	private void descarregar(ByteBuffer bytes) throws IOException {
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			segmentoAtual.write(bytes);
+		}
+		bytes.clear();
+	}
+
+	private void sincronizar() throws IOException {
+		if (fsync) {
+			segmentoAtual.force(false);
+		}
+		ultimoFsync = System.nanoTime();
+		gravados = proximoOffset;
+	}
+
+	private void descartarNaoGravados() {
+		proximoOffset = gravados;
+		try {
+			segmentoAtual.truncate((gravados - baseSegmentoAtual) * TAMANHO_REGISTRO);
+			segmentoAtual.position((gravados - baseSegmentoAtual) * TAMANHO_REGISTRO);
+		} catch (IOException ex) {
+			log.error("Falha ao desfazer gravação parcial do segmento", ex);
+		}
+	}
+
+	private void lerSegmento(Path arquivo, long base, long inicio, long fim, List<CupomEvent> eventos) {
+		ByteBuffer bytes = ByteBuffer.allocate((int) (fim - inicio) * TAMANHO_REGISTRO);
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			long posicao = (inicio - base) * TAMANHO_REGISTRO;
+			while (bytes.hasRemaining() && canal.read(bytes, posicao + bytes.position()) >= 0) {
+				// lê até completar o intervalo pedido
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		bytes.flip();
+		while (bytes.remaining() >= TAMANHO_REGISTRO) {
+			ByteBuffer registro = bytes.slice(bytes.position(), TAMANHO_REGISTRO);
+			if (!registroValido(registro)) {
+				throw new IllegalStateException("Registro corrompido no segmento " + arquivo);
+			}
+			eventos.add(decodificar(registro));
+			bytes.position(bytes.position() + TAMANHO_REGISTRO);
+		}
+	}
+
+	private static void codificar(CupomEvent evento, long offset, ByteBuffer bytes) {
+		int inicio = bytes.position();
+		Instant instante = evento.occurredAt();
+		bytes.putLong(offset)
+				.putLong(TimeUnit.SECONDS.toMicros(instante.getEpochSecond()) + instante.getNano() / 1_000)
+				.put((byte) evento.type().ordinal())
+				.putLong(evento.couponId().getMostSignificantBits())
+				.putLong(evento.couponId().getLeastSignificantBits())
+				.putLong(evento.code() != null ? CupomCodeCodec.encode(evento.code()) : SEM_CODIGO);
+		CRC32C crc = new CRC32C();
+		crc.update(bytes.duplicate().position(inicio).limit(bytes.position()));
+		bytes.putInt((int) crc.getValue());
+	}
+
+	private static CupomEvent decodificar(ByteBuffer registro) {
+		long offset = registro.getLong(0);
+		long micros = registro.getLong(8);
+		CupomEventType tipo = TIPOS[registro.get(16)];
+		UUID id = new UUID(registro.getLong(17), registro.getLong(25));
+		long chave = registro.getLong(33);
+		return new CupomEvent(offset, tipo, id, chave == SEM_CODIGO ? null : CupomCodeCodec.decode(chave),
+				Instant.EPOCH.plus(micros, ChronoUnit.MICROS));
+	}
+
+	private static boolean registroValido(ByteBuffer registro) {
+		CRC32C crc = new CRC32C();
+		crc.update(registro.duplicate().position(0).limit(TAMANHO_REGISTRO - 4));
+		return (int) crc.getValue() == registro.getInt(TAMANHO_REGISTRO - 4)
+				&& registro.get(16) >= 0 && registro.get(16) < TIPOS.length;
+	}
+
+	private static long baseDoNome(Path arquivo) {
+		String nome = arquivo.getFileName().toString();
+		return Long.parseLong(nome.substring(0, nome.length() - EXTENSAO.length()));
+	}
+}
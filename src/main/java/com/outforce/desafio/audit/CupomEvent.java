@@ -0,0 +1,19 @@
+package com.outforce.desafio.audit;
+
+import com.outforce.desafio.enums.CupomEventType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento do ciclo de vida de um cupom. O {@code offset} é a posição no log, atribuída na gravação; o
+ * {@code code} fica nulo quando a operação não o conhece (deleções).
+ */
+public record CupomEvent(
+		long offset,
+		CupomEventType type,
+		UUID couponId,
+		String code,
+		Instant occurredAt
+) {
+}
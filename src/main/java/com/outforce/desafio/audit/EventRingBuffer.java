@@ -0,0 +1,85 @@
+package com.outforce.desafio.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular limitada, sem locks, para vários produtores e um único consumidor. Cada posição tem um
+ * número de sequência: o produtor reserva a posição com um CAS na cauda e publica o elemento avançando a
+ * sequência; o consumidor só lê posições publicadas e as devolve avançando a sequência uma volta inteira.
+ */
+final class EventRingBuffer<E> {
+
+	private final Object[] elementos;
+	private final AtomicLongArray sequencias;
+	private final int mascara;
+	private final AtomicLong cauda = new AtomicLong();
+	private final AtomicLong cabeca = new AtomicLong();
+
+	EventRingBuffer(int capacidade) {
+		if (capacidade < 2 || capacidade > 1 << 30) {
+			throw new IllegalArgumentException("Capacidade inválida: " + capacidade);
+		}
+		int tamanho = Integer.highestOneBit(capacidade - 1) << 1;
+		this.elementos = new Object[tamanho];
+		this.sequencias = new AtomicLongArray(tamanho);
+		this.mascara = tamanho - 1;
+		for (int i = 0; i < tamanho; i++) {
+			sequencias.set(i, i);
+		}
+	}
+
+	boolean offer(E elemento) {
+		long posicao = cauda.get();
+		while (true) {
+			int indice = (int) (posicao & mascara);
+			long diferenca = sequencias.getAcquire(indice) - posicao;
+			if (diferenca == 0) {
+				long atual = cauda.compareAndExchange(posicao, posicao + 1);
+				if (atual == posicao) {
+					elementos[indice] = elemento;
+					sequencias.setRelease(indice, posicao + 1);
+					return true;
+				}
+				posicao = atual;
+			} else if (diferenca < 0) {
+				// a posição ainda guarda um elemento da volta anterior: fila cheia
+				return false;
+			} else {
+				posicao = cauda.get();
+			}
+		}
+	}
+
+	/**
+	 * Só pode ser chamado pela thread consumidora.
+	 */
+	@SuppressWarnings("unchecked")
+	int drainTo(Collection<? super E> destino, int maximo) {
+		long posicao = cabeca.get();
+		int lidos = 0;
+		while (lidos < maximo) {
+			int indice = (int) (posicao & mascara);
+			if (sequencias.getAcquire(indice) != posicao + 1) {
+				break;
+			}
+			destino.add((E) elementos[indice]);
+			elementos[indice] = null;
+			sequencias.setRelease(indice, posicao + elementos.length);
+			posicao++;
+			lidos++;
+		}
+		cabeca.lazySet(posicao);
+		return lidos;
+	}
+
+	int size() {
+		long tamanho = cauda.get() - cabeca.get();
+		return (int) Math.max(0, Math.min(tamanho, elementos.length));
+	}
+
+	int capacity() {
+		return elementos.length;
+	}
+}
@@ -0,0 +1,139 @@
+package com.outforce.desafio.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Cache de leitura em dois níveis: chave do código → id e id → cupom. O código de um cupom nunca muda
+ * nem é reaproveitado, então só o nível por id precisa ser invalidado quando o cupom é alterado.
+ * Ausências não são guardadas.
+ * <p>
+ * Um valor carregado fora do cache só é guardado se nenhuma invalidação aconteceu desde antes da consulta ao banco
+ * ({@link Leitura#generation()}); senão ele pode ser anterior à escrita que invalidou e ficaria até expirar.
+ * <p>
+ * Guarda também o motivo de rejeição de resgate dos cupons em estado final (resgatado ou deletado),
+ * que nunca volta atrás e por isso não precisa de invalidação.
+ */
+@Component
+public class CupomCache implements MeterBinder {
+
+	/** Geração de uma leitura que não se sabe quando começou: nunca é guardada. */
+	public static final long SEM_GERACAO = -1;
+
+	private final Cache<UUID, CupomResponseDTO> porId;
+	private final Cache<Long, UUID> idPorCodigo;
+	private final Cache<Long, String> rejeicoesResgate;
+	private final AtomicLong geracao = new AtomicLong();
+
+	public CupomCache(@Value("${cupom.cache.maximum-size:100000}") long tamanhoMaximo,
+					  @Value("${cupom.cache.expire-after-write-seconds:300}") long expiracaoSegundos) {
+		this.porId = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(Duration.ofSeconds(expiracaoSegundos))
+				.recordStats()
+				.build();
+		this.idPorCodigo = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(Duration.ofSeconds(expiracaoSegundos))
+				.recordStats()
+				.build();
+		this.rejeicoesResgate = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, porId, "cupom.by-id");
+		CaffeineCacheMetrics.monitor(registry, idPorCodigo, "cupom.id-by-code");
+		CaffeineCacheMetrics.monitor(registry, rejeicoesResgate, "cupom.redeem-rejections");
+	}
+
+	public CupomResponseDTO getById(UUID id, Function<UUID, CupomResponseDTO> carregar) {
+		CupomResponseDTO cupom = porId.getIfPresent(id);
+		if (cupom != null) {
+			return cupom;
+		}
+		// fora do cache: o invalidateAll do Caffeine não alcança carregamentos em andamento
+		long geracaoLida = geracao.get();
+		cupom = carregar.apply(id);
+		if (cupom != null) {
+			guardar(cupom, geracaoLida);
+		}
+		return cupom;
+	}
+
+	/**
+	 * Busca pelo código. {@code carregar} devolve o cupom junto com a {@link #generation()} lida antes de a consulta
+	 * ao banco começar, que pode ser de outra requisição quando a consulta é compartilhada.
+	 */
+	public CupomResponseDTO getByCodeKey(long codeKey, LongFunction<Leitura> carregar) {
+		UUID id = idPorCodigo.getIfPresent(codeKey);
+		if (id != null) {
+			CupomResponseDTO cupom = porId.getIfPresent(id);
+			if (cupom != null) {
+				return cupom;
+			}
+		}
+		Leitura leitura = carregar.apply(codeKey);
+		CupomResponseDTO cupom = leitura.cupom();
+		if (cupom != null) {
+			idPorCodigo.put(codeKey, cupom.id());
+			guardar(cupom, leitura.generation());
+		}
+		return cupom;
+	}
+
+	public long generation() {
+		return geracao.get();
+	}
+
+	public void invalidate(UUID id) {
+		geracao.incrementAndGet();
+		porId.invalidate(id);
+	}
+
+	public void invalidateAll() {
+		geracao.incrementAndGet();
+		porId.invalidateAll();
+	}
+
+	public void invalidateCode(String code) {
+		idPorCodigo.invalidate(CupomCodeCodec.encode(code));
+	}
+
+	public String getRedemptionRejection(long codeKey) {
+		return rejeicoesResgate.getIfPresent(codeKey);
+	}
+
+	public void putRedemptionRejection(long codeKey, String errorCode) {
+		rejeicoesResgate.put(codeKey, errorCode);
+	}
+
+	private void guardar(CupomResponseDTO cupom, long geracaoLida) {
+		porId.asMap().compute(cupom.id(), (chave, atual) ->
+				atual != null ? atual : geracao.get() == geracaoLida ? cupom : null);
+	}
+
+	public long size() {
+		porId.cleanUp();
+		return porId.estimatedSize();
+	}
+
+	public record Leitura(CupomResponseDTO cupom, long generation) {
+	}
+}
@@ -0,0 +1,62 @@
+package com.outforce.desafio.code;
+
+import java.util.Arrays;
+
+public final class CupomCodeCodec {
+
+	public static final int TAMANHO = 6;
+	public static final int BASE = 36;
+	public static final long TOTAL_CODIGOS = 2_176_782_336L;
+
+	private static final byte[] VALORES = new byte[128];
+
+	static {
+		Arrays.fill(VALORES, (byte) -1);
+		for (int i = 0; i < 10; i++) {
+			VALORES['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 26; i++) {
+			VALORES['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	private CupomCodeCodec() {
+	}
+
+	public static long encode(CharSequence code) {
+		if (code == null || code.length() != TAMANHO) {
+			throw new IllegalArgumentException("Código deve ter " + TAMANHO + " caracteres: " + code);
+		}
+		long chave = 0;
+		for (int i = 0; i < TAMANHO; i++) {
+			char c = code.charAt(i);
+			int valor = c < 128 ? VALORES[c] : -1;
+			if (valor < 0) {
+				throw new IllegalArgumentException("Caractere inválido no código: " + c);
+			}
+			chave = chave * BASE + valor;
+		}
+		return chave;
+	}
+
+	public static String decode(long chave) {
+		if (chave < 0 || chave >= TOTAL_CODIGOS) {
+			throw new IllegalArgumentException("Chave fora do intervalo de códigos: " + chave);
+		}
+		char[] caracteres = new char[TAMANHO];
+		for (int i = TAMANHO - 1; i >= 0; i--) {
+			int valor = (int) (chave % BASE);
+			caracteres[i] = (char) (valor < 10 ? '0' + valor : 'A' + valor - 10);
+			chave /= BASE;
+		}
+		return new String(caracteres);
+	}
+
+	public static int pack(long chave) {
+		return (int) chave;
+	}
+
+	public static long unpack(int compactado) {
+		return Integer.toUnsignedLong(compactado);
+	}
+}
@@ -0,0 +1,47 @@
+package com.outforce.desafio.code;
+
+import java.util.Arrays;
+
+public final class CupomCodeNormalizer {
+
+	public static final long INVALIDO = -1;
+
+	private static final byte[] VALORES = new byte[128];
+
+	static {
+		Arrays.fill(VALORES, (byte) -1);
+		for (int i = 0; i < 10; i++) {
+			VALORES['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 26; i++) {
+			VALORES['A' + i] = (byte) (10 + i);
+			VALORES['a' + i] = (byte) (10 + i);
+		}
+	}
+
+	private CupomCodeNormalizer() {
+	}
+
+	public static String normalize(CharSequence code) {
+		long chave = normalizeToKey(code);
+		return chave == INVALIDO ? null : CupomCodeCodec.decode(chave);
+	}
+
+	public static long normalizeToKey(CharSequence code) {
+		long chave = 0;
+		int validos = 0;
+		for (int i = 0, n = code.length(); i < n; i++) {
+			char c = code.charAt(i);
+			int valor = c < 128 ? VALORES[c] : -1;
+			if (valor < 0) {
+				continue;
+			}
+			if (validos == CupomCodeCodec.TAMANHO) {
+				return INVALIDO;
+			}
+			chave = chave * CupomCodeCodec.BASE + valor;
+			validos++;
+		}
+		return validos == CupomCodeCodec.TAMANHO ? chave : INVALIDO;
+	}
+}
@@ -0,0 +1,44 @@
+package com.outforce.desafio.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Espera por uma execução compartilhada que outra thread está fazendo (a primeira requisição de uma
+ * {@code Idempotency-Key}, a consulta de um código já em andamento). A espera tem prazo: uma execução presa não
+ * pode segurar para sempre a thread de cada repetição, seja do Tomcat ou do pool assíncrono.
+ */
+public final class InFlight {
+
+	private InFlight() {
+	}
+
+	/**
+	 * Resultado da execução, ou a mesma exceção com que ela falhou. Passado {@code esperaMaximaMs} (ou com a thread
+	 * interrompida), lança o que {@code aoEsgotar} devolver; a execução continua e o resultado dela não se perde
+	 * para quem chegar depois.
+	 */
+	public static <T> T await(CompletableFuture<T> execucao, long esperaMaximaMs,
+							  Supplier<? extends RuntimeException> aoEsgotar) {
+		try {
+			return execucao.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			if (ex.getCause() instanceof Error causa) {
+				throw causa;
+			}
+			throw new CompletionException(ex.getCause());
+		} catch (TimeoutException ex) {
+			throw aoEsgotar.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw aoEsgotar.get();
+		}
+	}
+}
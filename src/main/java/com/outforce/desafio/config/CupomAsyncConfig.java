@@ -0,0 +1,28 @@
+package com.outforce.desafio.config;
+
+import com.outforce.desafio.controller.CupomAsyncHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Rotas funcionais do modo assíncrono. O mapeamento de rotas funcionais é consultado antes dos
+ * {@code @RequestMapping}, então estas duas rotas substituem as do {@code CupomController} e as demais seguem
+ * para ele.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cupom.async.enabled", havingValue = "true")
+public class CupomAsyncConfig {
+
+	@Bean
+	public RouterFunction<ServerResponse> cupomAsyncRoutes(CupomAsyncHandler handler) {
+		return RouterFunctions.route()
+				.POST("/coupons", handler::create)
+				.DELETE("/coupons/{id}", handler::delete)
+				.onError(Exception.class, handler::erro)
+				.build();
+	}
+}
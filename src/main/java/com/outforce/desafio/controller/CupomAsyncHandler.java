@@ -0,0 +1,137 @@
+package com.outforce.desafio.controller;
+
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.exception.ErrorResponse;
+import com.outforce.desafio.exception.GlobalExceptionHandler;
+import com.outforce.desafio.idempotency.CupomIdempotencyStore;
+import com.outforce.desafio.service.CupomService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code POST /coupons} e {@code DELETE /coupons/{id}} sem prender uma thread do Tomcat por requisição em
+ * andamento. A requisição vira assíncrona (Servlet 3.1) logo depois de ler o corpo, e o trabalho bloqueante de
+ * JPA roda em um pool de {@code cupom.async.threads} threads, do tamanho do pool de conexões: mais threads só
+ * esperariam por conexão. Requisições além disso aguardam na fila do pool, custando só o contexto assíncrono.
+ * <p>
+ * As regras e os erros são os do {@link CupomController}: o mesmo {@link CupomService}, o mesmo
+ * {@code Idempotency-Key} e o mesmo {@link GlobalExceptionHandler}, que o {@code @RestControllerAdvice} não
+ * alcança em rotas funcionais e por isso é chamado aqui. Fila cheia responde 503.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.async.enabled", havingValue = "true")
+public class CupomAsyncHandler implements MeterBinder {
+
+	private final ThreadPoolExecutor executor;
+	private final ExceptionHandlerMethodResolver tratadores =
+			new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomIdempotencyStore idempotencyStore;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private GlobalExceptionHandler exceptionHandler;
+
+	public CupomAsyncHandler(@Value("${cupom.async.threads:10}") int threads,
+							 @Value("${cupom.async.queue-capacity:10000}") int capacidadeFila) {
+		AtomicInteger sequencia = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacidadeFila),
+				tarefa -> new Thread(tarefa, "cupom-async-" + sequencia.incrementAndGet()));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		new ExecutorServiceMetrics(executor, "cupom.async", List.of()).bindTo(registry);
+	}
+
+	public ServerResponse create(ServerRequest request) throws ServletException, IOException {
+		CupomRequestDTO cupomRequestDTO = request.body(CupomRequestDTO.class);
+		validar(cupomRequestDTO);
+		String idempotencyKey = request.headers().firstHeader("Idempotency-Key");
+		CompletableFuture<ServerResponse> resposta = CompletableFuture.supplyAsync(() -> {
+			CupomResponseDTO response = idempotencyKey == null
+					? cupomService.create(cupomRequestDTO)
+					: idempotencyStore.execute(idempotencyKey, cupomRequestDTO, () -> cupomService.create(cupomRequestDTO));
+			return ServerResponse.status(HttpStatus.CREATED).body(response);
+		}, executor).exceptionally(ex -> erro(ex, request));
+		return ServerResponse.async(resposta);
+	}
+
+	public ServerResponse delete(ServerRequest request) {
+		UUID id;
+		try {
+			id = UUID.fromString(request.pathVariable("id"));
+		} catch (IllegalArgumentException ex) {
+			return ServerResponse.badRequest().body(new ErrorResponse("INVALID_PARAMETER", "Parâmetro inválido: id"));
+		}
+		CompletableFuture<ServerResponse> resposta = CompletableFuture.runAsync(() -> cupomService.delete(id), executor)
+				.thenApply(ignorado -> ServerResponse.noContent().build())
+				.exceptionally(ex -> erro(ex, request));
+		return ServerResponse.async(resposta);
+	}
+
+	/** Resposta do {@link GlobalExceptionHandler} para a exceção, inclusive as que encerram a etapa assíncrona. */
+	public ServerResponse erro(Throwable ex, ServerRequest request) {
+		Throwable causa = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+		Method tratador = tratadores.resolveMethodByThrowable(causa);
+		if (tratador == null) {
+			if (causa instanceof Error erro) {
+				throw erro;
+			}
+			throw new IllegalStateException(causa);
+		}
+		ResponseEntity<?> resposta = (ResponseEntity<?>) ReflectionUtils.invokeMethod(tratador, exceptionHandler, causa);
+		return ServerResponse.status(resposta.getStatusCode()).body(resposta.getBody());
+	}
+
+	@PreDestroy
+	public void encerrar() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	private void validar(CupomRequestDTO cupomRequestDTO) {
+		// mesmo código e formato de mensagem do @Valid no CupomController
+		Set<ConstraintViolation<CupomRequestDTO>> violacoes = validator.validate(cupomRequestDTO);
+		if (!violacoes.isEmpty()) {
+			ConstraintViolation<CupomRequestDTO> violacao = violacoes.iterator().next();
+			throw new BusinessException("VALIDATION_ERROR", violacao.getPropertyPath() + ": " + violacao.getMessage());
+		}
+	}
+}
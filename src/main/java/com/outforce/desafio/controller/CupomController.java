@@ -1,15 +1,29 @@
 package com.outforce.desafio.controller;
 
 import com.outforce.desafio.document.CupomDocument;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.idempotency.CupomIdempotencyStore;
 import com.outforce.desafio.service.CupomService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,18 +33,90 @@ public class CupomController implements CupomDocument {
 	@Autowired
 	private CupomService cupomService;
 
+	@Autowired
+	private CupomIdempotencyStore idempotencyStore;
+
 	@Override
 	@PostMapping
-	public ResponseEntity<CupomResponseDTO> create(@RequestBody @Valid CupomRequestDTO cupomRequestDTO) {
-		CupomResponseDTO response = cupomService.create(cupomRequestDTO);
+	public ResponseEntity<CupomResponseDTO> create(
+			@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+			@RequestBody @Valid CupomRequestDTO cupomRequestDTO) {
+		CupomResponseDTO response = idempotencyKey == null
+				? cupomService.create(cupomRequestDTO)
+				: idempotencyStore.execute(idempotencyKey, cupomRequestDTO, () -> cupomService.create(cupomRequestDTO));
 		return ResponseEntity.status(HttpStatus.CREATED).body(response);
 	}
 
+	@Override
+	@PostMapping("/batch")
+	public ResponseEntity<CupomBatchResponseDTO> createBatch(@RequestBody List<CupomRequestDTO> cupomRequestDTOs) {
+		CupomBatchResponseDTO response = cupomService.createBatch(cupomRequestDTOs);
+		HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+		return ResponseEntity.status(status).body(response);
+	}
+
+	@Override
+	@GetMapping
+	public ResponseEntity<CupomPageDTO> list(
+			@RequestParam(required = false) CupomStatus status,
+			@RequestParam(required = false) Boolean published,
+			@RequestParam(required = false) Boolean redeemed,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationTo,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "50") int limit) {
+		CupomFilterDTO filtro = new CupomFilterDTO(status, published, redeemed, expirationFrom, expirationTo);
+		return ResponseEntity.ok(cupomService.list(filtro, cursor, limit));
+	}
+
+	@Override
+	@GetMapping("/export")
+	public void export(
+			@RequestParam(required = false) CupomStatus status,
+			@RequestParam(required = false) Boolean published,
+			@RequestParam(required = false) Boolean redeemed,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expirationTo,
+			@RequestParam(defaultValue = "NDJSON") CupomExportFormat format,
+			HttpServletResponse response) throws IOException {
+		// escrita síncrona na própria requisição: sem timeout de requisição assíncrona, e um cliente lento
+		// bloqueia a escrita, que por sua vez segura a leitura do cursor
+		CupomFilterDTO filtro = new CupomFilterDTO(status, published, redeemed, expirationFrom, expirationTo);
+		response.setContentType(format.getContentType());
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cupons." + format.getExtensao() + "\"");
+		cupomService.export(filtro, format, response.getOutputStream());
+	}
+
+	@Override
+	@GetMapping("/{id}")
+	public ResponseEntity<CupomResponseDTO> findById(@PathVariable UUID id) {
+		return ResponseEntity.ok(cupomService.findById(id));
+	}
+
+	@Override
+	@GetMapping("/code/{code}")
+	public ResponseEntity<CupomResponseDTO> findByCode(@PathVariable String code) {
+		return ResponseEntity.ok(cupomService.findByCode(code));
+	}
+
+	@Override
+	@PostMapping("/{code}/redeem")
+	public ResponseEntity<CupomResponseDTO> redeem(@PathVariable String code) {
+		return ResponseEntity.ok(cupomService.redeem(code));
+	}
+
 	@Override
 	@DeleteMapping("/{id}")
 	public ResponseEntity<Void> delete(@PathVariable UUID id) {
 		cupomService.delete(id);
 		return ResponseEntity.noContent().build();
 	}
+
+	@Override
+	@PostMapping("/batch/delete")
+	public ResponseEntity<CupomBulkDeleteResponseDTO> deleteBulk(@RequestBody CupomBulkDeleteRequestDTO request) {
+		return ResponseEntity.ok(cupomService.deleteBulk(request));
+	}
 }
 
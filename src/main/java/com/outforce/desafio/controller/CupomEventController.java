@@ -0,0 +1,41 @@
+package com.outforce.desafio.controller;
+
+import com.outforce.desafio.audit.CupomAuditLog;
+import com.outforce.desafio.audit.CupomEvent;
+import com.outforce.desafio.document.CupomEventDocument;
+import com.outforce.desafio.dto.CupomEventPageDTO;
+import com.outforce.desafio.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/coupons/events")
+@ConditionalOnProperty(name = "cupom.audit.enabled", havingValue = "true")
+public class CupomEventController implements CupomEventDocument {
+
+	private static final int LIMITE_MAXIMO = 1000;
+
+	@Autowired
+	private CupomAuditLog auditLog;
+
+	@Override
+	@GetMapping
+	public ResponseEntity<CupomEventPageDTO> read(@RequestParam(defaultValue = "0") long offset,
+												  @RequestParam(defaultValue = "100") int limit) {
+		if (offset < 0) {
+			throw new BusinessException("COUPON_EVENTS_OFFSET", "Offset dos eventos não pode ser negativo");
+		}
+		if (limit < 1 || limit > LIMITE_MAXIMO) {
+			throw new BusinessException("COUPON_EVENTS_LIMIT", "Limite de eventos deve estar entre 1 e " + LIMITE_MAXIMO);
+		}
+		List<CupomEvent> eventos = auditLog.read(offset, limit);
+		return ResponseEntity.ok(new CupomEventPageDTO(eventos, offset + eventos.size(), auditLog.endOffset()));
+	}
+}
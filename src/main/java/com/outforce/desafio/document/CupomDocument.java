@@ -1,18 +1,30 @@
 package com.outforce.desafio.document;
 
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
+import com.outforce.desafio.enums.CupomStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface CupomDocument {
@@ -22,14 +34,119 @@ public interface CupomDocument {
 			@ApiResponse(responseCode = "201", description = "Cupom criado com sucesso",
 					content = { @Content(mediaType = "application/json",
 							schema = @Schema(implementation = CupomResponseDTO.class)) }),
-			@ApiResponse(responseCode = "400", description = "Dados inválidos ou regra de negócio violada",
+			@ApiResponse(responseCode = "400", description = "Dados inválidos, regra de negócio violada ou Idempotency-Key inválida",
+					content = @Content),
+			@ApiResponse(responseCode = "409", description = "Idempotency-Key já usada com outros dados de cupom",
 					content = @Content)
 	})
 	ResponseEntity<CupomResponseDTO> create(
+			@Parameter(description = "Chave de idempotência: repetições com a mesma chave devolvem a primeira resposta")
+			@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
 			@Parameter(description = "Dados para criação do cupom")
 			@RequestBody @Valid CupomRequestDTO cupomRequestDTO
 	);
 
+	@Operation(summary = "Cria cupons em lote, com sucesso parcial por item")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "Todos os cupons foram criados",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomBatchResponseDTO.class)) }),
+			@ApiResponse(responseCode = "207", description = "Parte dos cupons foi rejeitada; os erros vêm por item",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomBatchResponseDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "JSON inválido ou malformado",
+					content = @Content)
+	})
+	ResponseEntity<CupomBatchResponseDTO> createBatch(
+			@Parameter(description = "Lista de cupons a serem criados")
+			@RequestBody List<CupomRequestDTO> cupomRequestDTOs
+	);
+
+	@Operation(summary = "Lista cupons com filtros e paginação por cursor (ordem de criação)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Página de cupons; nextCursor é nulo na última página",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomPageDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "Filtro, cursor ou limite inválido",
+					content = @Content)
+	})
+	ResponseEntity<CupomPageDTO> list(
+			@Parameter(description = "Status do cupom") @RequestParam(required = false) CupomStatus status,
+			@Parameter(description = "Cupom publicado") @RequestParam(required = false) Boolean published,
+			@Parameter(description = "Cupom resgatado") @RequestParam(required = false) Boolean redeemed,
+			@Parameter(description = "Expiração a partir de (yyyy-MM-dd, inclusivo)")
+			@RequestParam(required = false) LocalDate expirationFrom,
+			@Parameter(description = "Expiração até (yyyy-MM-dd, inclusivo)")
+			@RequestParam(required = false) LocalDate expirationTo,
+			@Parameter(description = "Cursor retornado em nextCursor pela página anterior")
+			@RequestParam(required = false) String cursor,
+			@Parameter(description = "Tamanho da página (1 a 500)") @RequestParam(defaultValue = "50") int limit
+	);
+
+	@Operation(summary = "Exporta todos os cupons que atendem ao filtro em NDJSON ou CSV, em streaming, na ordem de criação")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Um cupom por linha (NDJSON) ou cabeçalho e uma linha por cupom (CSV)",
+					content = { @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv") }),
+			@ApiResponse(responseCode = "400", description = "Filtro ou formato inválido",
+					content = @Content)
+	})
+	void export(
+			@Parameter(description = "Status do cupom") @RequestParam(required = false) CupomStatus status,
+			@Parameter(description = "Cupom publicado") @RequestParam(required = false) Boolean published,
+			@Parameter(description = "Cupom resgatado") @RequestParam(required = false) Boolean redeemed,
+			@Parameter(description = "Expiração a partir de (yyyy-MM-dd, inclusivo)")
+			@RequestParam(required = false) LocalDate expirationFrom,
+			@Parameter(description = "Expiração até (yyyy-MM-dd, inclusivo)")
+			@RequestParam(required = false) LocalDate expirationTo,
+			@Parameter(description = "Formato: NDJSON ou CSV") @RequestParam(defaultValue = "NDJSON") CupomExportFormat format,
+			@Parameter(hidden = true) HttpServletResponse response
+	) throws IOException;
+
+	@Operation(summary = "Busca um cupom pelo id")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Cupom encontrado",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomResponseDTO.class)) }),
+			@ApiResponse(responseCode = "404", description = "Cupom não encontrado",
+					content = @Content)
+	})
+	ResponseEntity<CupomResponseDTO> findById(
+			@Parameter(description = "ID do cupom")
+			@PathVariable UUID id
+	);
+
+	@Operation(summary = "Busca um cupom pelo código (normalizado como na criação)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Cupom encontrado",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomResponseDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "Código não tem 6 caracteres alfanuméricos",
+					content = @Content),
+			@ApiResponse(responseCode = "404", description = "Cupom não encontrado",
+					content = @Content)
+	})
+	ResponseEntity<CupomResponseDTO> findByCode(
+			@Parameter(description = "Código do cupom")
+			@PathVariable String code
+	);
+
+	@Operation(summary = "Resgata um cupom; com resgates simultâneos do mesmo código, apenas um vence")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Cupom resgatado",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomResponseDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "Cupom deletado, inativo, não publicado, expirado ou código inválido",
+					content = @Content),
+			@ApiResponse(responseCode = "404", description = "Cupom não encontrado",
+					content = @Content),
+			@ApiResponse(responseCode = "409", description = "Cupom já foi resgatado ou atingiu o limite de resgates",
+					content = @Content)
+	})
+	ResponseEntity<CupomResponseDTO> redeem(
+			@Parameter(description = "Código do cupom")
+			@PathVariable String code
+	);
+
 	@Operation(summary = "Deleta um cupom existente (soft delete)")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "204", description = "Cupom deletado com sucesso",
@@ -43,6 +160,17 @@ public interface CupomDocument {
 			@Parameter(description = "ID do cupom a ser deletado")
 			@PathVariable UUID id
 	);
-}
-
 
+	@Operation(summary = "Deleta cupons em lote (soft delete) por lista de ids ou por filtro, em um único UPDATE")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Quantidade de cupons efetivamente deletados; já deletados são ignorados",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomBulkDeleteResponseDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "Nenhum critério, ambos os critérios, filtro vazio ou ids demais",
+					content = @Content)
+	})
+	ResponseEntity<CupomBulkDeleteResponseDTO> deleteBulk(
+			@Parameter(description = "Lista de ids ou filtro (mesmos campos da listagem); exatamente um dos dois")
+			@RequestBody CupomBulkDeleteRequestDTO request
+	);
+}
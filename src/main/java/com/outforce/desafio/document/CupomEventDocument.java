@@ -0,0 +1,29 @@
+package com.outforce.desafio.document;
+
+import com.outforce.desafio.dto.CupomEventPageDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+
+public interface CupomEventDocument {
+
+	@Operation(summary = "Lê os eventos do ciclo de vida dos cupons a partir de um offset")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Eventos gravados a partir do offset, em ordem",
+					content = { @Content(mediaType = "application/json",
+							schema = @Schema(implementation = CupomEventPageDTO.class)) }),
+			@ApiResponse(responseCode = "400", description = "Offset negativo ou limite fora do intervalo",
+					content = @Content)
+	})
+	ResponseEntity<CupomEventPageDTO> read(
+			@Parameter(description = "Offset do primeiro evento; use o nextOffset da resposta anterior")
+			@RequestParam(defaultValue = "0") long offset,
+			@Parameter(description = "Quantidade máxima de eventos (1 a 1000)")
+			@RequestParam(defaultValue = "100") int limit
+	);
+}
@@ -0,0 +1,9 @@
+package com.outforce.desafio.dto;
+
+public record CupomBatchErrorDTO(
+		int index,
+		String code,
+		String errorCode,
+		String message
+) {
+}
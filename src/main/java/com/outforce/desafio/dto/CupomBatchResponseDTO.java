@@ -0,0 +1,12 @@
+package com.outforce.desafio.dto;
+
+import java.util.List;
+
+public record CupomBatchResponseDTO(
+		int total,
+		int created,
+		int failed,
+		List<CupomResponseDTO> cupons,
+		List<CupomBatchErrorDTO> errors
+) {
+}
@@ -0,0 +1,10 @@
+package com.outforce.desafio.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CupomBulkDeleteRequestDTO(
+		List<UUID> ids,
+		CupomFilterDTO filter
+) {
+}
@@ -0,0 +1,6 @@
+package com.outforce.desafio.dto;
+
+public record CupomBulkDeleteResponseDTO(
+		int deleted
+) {
+}
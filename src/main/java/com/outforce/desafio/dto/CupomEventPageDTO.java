@@ -0,0 +1,12 @@
+package com.outforce.desafio.dto;
+
+import com.outforce.desafio.audit.CupomEvent;
+
+import java.util.List;
+
+public record CupomEventPageDTO(
+		List<CupomEvent> events,
+		long nextOffset,
+		long endOffset
+) {
+}
@@ -0,0 +1,14 @@
+package com.outforce.desafio.dto;
+
+import com.outforce.desafio.enums.CupomStatus;
+
+import java.time.LocalDate;
+
+public record CupomFilterDTO(
+		CupomStatus status,
+		Boolean published,
+		Boolean redeemed,
+		LocalDate expirationFrom,
+		LocalDate expirationTo
+) {
+}
@@ -0,0 +1,9 @@
+package com.outforce.desafio.dto;
+
+import java.util.List;
+
+public record CupomPageDTO(
+		List<CupomResponseDTO> cupons,
+		String nextCursor
+) {
+}
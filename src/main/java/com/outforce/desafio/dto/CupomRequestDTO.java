@@ -1,14 +1,17 @@
 package com.outforce.desafio.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public record CupomRequestDTO(
-		@NotBlank(message = "Código do cupom é obrigatório")
+		// opcional: sem código, o servidor gera um
+		@Pattern(regexp = "(?s).*\\S.*", message = "Código do cupom não pode ser vazio")
 		String code,
 
 		@NotBlank(message = "Descrição do cupom é obrigatória")
@@ -21,7 +24,16 @@ public record CupomRequestDTO(
 		@NotNull(message = "Data de expiração é obrigatória")
 		LocalDate expirationDate,
 
-		Boolean published
+		Boolean published,
+
+		@Min(value = 1, message = "Limite de resgates deve ser no mínimo 1")
+		Integer maxRedemptions
 ) {
+
+	/** Cupom de uso único. */
+	public CupomRequestDTO(String code, String description, BigDecimal discountValue, LocalDate expirationDate,
+						   Boolean published) {
+		this(code, description, discountValue, expirationDate, published, null);
+	}
 }
 
@@ -14,7 +14,16 @@ public record CupomResponseDTO(
 		LocalDate expirationDate,
 		CupomStatus status,
 		Boolean published,
-		Boolean redeemed
+		Boolean redeemed,
+		Integer maxRedemptions,
+		Long redemptionCount
 ) {
+
+	/** Cupom de uso único. */
+	public CupomResponseDTO(UUID id, String code, String description, BigDecimal discountValue,
+							LocalDate expirationDate, CupomStatus status, Boolean published, Boolean redeemed) {
+		this(id, code, description, discountValue, expirationDate, status, published, redeemed, null,
+				Boolean.TRUE.equals(redeemed) ? 1L : 0L);
+	}
 }
 
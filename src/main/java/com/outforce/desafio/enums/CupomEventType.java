@@ -0,0 +1,7 @@
+package com.outforce.desafio.enums;
+
+public enum CupomEventType {
+	CREATED,
+	REDEEMED,
+	DELETED
+}
@@ -0,0 +1,22 @@
+package com.outforce.desafio.enums;
+
+public enum CupomExportFormat {
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+
+	private final String contentType;
+	private final String extensao;
+
+	CupomExportFormat(String contentType, String extensao) {
+		this.contentType = contentType;
+		this.extensao = extensao;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtensao() {
+		return extensao;
+	}
+}
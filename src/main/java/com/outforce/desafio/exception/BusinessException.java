@@ -12,5 +12,17 @@ public class BusinessException extends RuntimeException {
 		this.code = code;
 	}
 
-}
+	private BusinessException(String code, String message, boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+		this.code = code;
+	}
 
+	/**
+	 * Erro sem stack trace e sem exceções suprimidas, que pode ser criado uma vez e lançado sempre: a captura da
+	 * pilha é a parte cara de uma exceção, e para rejeições esperadas ela não diz nada.
+	 */
+	public static BusinessException stackless(String code, String message) {
+		return new BusinessException(code, message, false);
+	}
+
+}
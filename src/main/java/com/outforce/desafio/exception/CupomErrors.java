@@ -0,0 +1,52 @@
+package com.outforce.desafio.exception;
+
+/**
+ * Rejeições esperadas de cupons com mensagem fixa, pré-alocadas e sem stack trace. Tráfego abusivo é quase todo
+ * rejeição (códigos inválidos, inexistentes ou já usados), e criar uma exceção com a pilha custava mais que o
+ * resto da validação. Erros com mensagem variável continuam sendo criados na hora.
+ */
+public final class CupomErrors {
+
+	public static final BusinessException COUPON_CODE_REQUIRED =
+			BusinessException.stackless("COUPON_CODE_REQUIRED", "Código do cupom é obrigatório");
+	public static final BusinessException COUPON_DESCRIPTION_REQUIRED =
+			BusinessException.stackless("COUPON_DESCRIPTION_REQUIRED", "Descrição do cupom é obrigatória");
+	public static final BusinessException COUPON_DISCOUNT_REQUIRED =
+			BusinessException.stackless("COUPON_DISCOUNT_REQUIRED", "Valor de desconto é obrigatório");
+	public static final BusinessException COUPON_EXPIRATION_REQUIRED =
+			BusinessException.stackless("COUPON_EXPIRATION_REQUIRED", "Data de expiração é obrigatória");
+	public static final BusinessException COUPON_CODE_LENGTH =
+			BusinessException.stackless("COUPON_CODE_LENGTH", "Código do cupom deve ter 6 caracteres alfanuméricos");
+	public static final BusinessException COUPON_DISCOUNT_MIN =
+			BusinessException.stackless("COUPON_DISCOUNT_MIN", "Valor de desconto deve ser no mínimo 0.5");
+	public static final BusinessException COUPON_EXPIRATION_PAST =
+			BusinessException.stackless("COUPON_EXPIRATION_PAST", "Data de expiração não pode estar no passado");
+	public static final BusinessException COUPON_MAX_REDEMPTIONS_MIN =
+			BusinessException.stackless("COUPON_MAX_REDEMPTIONS_MIN", "Limite de resgates deve ser no mínimo 1");
+	public static final BusinessException COUPON_CODE_DELETED =
+			BusinessException.stackless("COUPON_CODE_DELETED", "Código do cupom com Status deletado");
+	public static final BusinessException COUPON_REQUIRED =
+			BusinessException.stackless("COUPON_REQUIRED", "Cupom é obrigatório");
+	public static final BusinessException COUPON_CODE_DUPLICATED_IN_BATCH =
+			BusinessException.stackless("COUPON_CODE_DUPLICATED_IN_BATCH", "Código do cupom repetido no lote");
+	public static final BusinessException COUPON_ALREADY_DELETED =
+			BusinessException.stackless("COUPON_ALREADY_DELETED", "Cupom já foi deletado");
+
+	public static final BusinessException COUPON_DELETED =
+			BusinessException.stackless("COUPON_DELETED", "Cupom foi deletado");
+	public static final BusinessException COUPON_INACTIVE =
+			BusinessException.stackless("COUPON_INACTIVE", "Cupom inativo");
+	public static final BusinessException COUPON_NOT_PUBLISHED =
+			BusinessException.stackless("COUPON_NOT_PUBLISHED", "Cupom não publicado");
+	public static final BusinessException COUPON_EXPIRED =
+			BusinessException.stackless("COUPON_EXPIRED", "Cupom expirado");
+	public static final BusinessException COUPON_REDEMPTION_LIMIT_REACHED =
+			BusinessException.stackless("COUPON_REDEMPTION_LIMIT_REACHED", "Cupom atingiu o limite de resgates");
+	public static final BusinessException COUPON_ALREADY_REDEEMED =
+			BusinessException.stackless("COUPON_ALREADY_REDEEMED", "Cupom já foi resgatado");
+
+	public static final NotFoundException COUPON_NOT_FOUND = NotFoundException.stackless("Cupom não encontrado");
+
+	private CupomErrors() {
+	}
+}
@@ -1,19 +1,37 @@
 package com.outforce.desafio.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	private static final Set<String> CONFLITOS = Set.of("COUPON_ALREADY_DELETED", "COUPON_ALREADY_REDEEMED",
+			"COUPON_REDEMPTION_LIMIT_REACHED", "IDEMPOTENCY_KEY_REUSED", "IDEMPOTENCY_KEY_IN_PROGRESS");
+
+	/** Falta temporária do servidor, não erro do cliente: 503 com {@code Retry-After}, como {@code SERVER_BUSY}. */
+	private static final Set<String> INDISPONIVEIS = Set.of("COUPON_CODE_POOL_EMPTY");
+
+	private static final String RETRY_AFTER_SEGUNDOS = "1";
+
 	@ExceptionHandler(BusinessException.class)
 	public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex) {
 		ErrorResponse error = new ErrorResponse(ex.getCode(), ex.getMessage());
-		HttpStatus status = "COUPON_ALREADY_DELETED".equals(ex.getCode())
+		if (INDISPONIVEIS.contains(ex.getCode())) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SEGUNDOS)
+					.body(error);
+		}
+		HttpStatus status = CONFLITOS.contains(ex.getCode())
 				? HttpStatus.CONFLICT
 				: HttpStatus.BAD_REQUEST;
 		return ResponseEntity.status(status).body(error);
@@ -41,6 +59,20 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
 	}
 
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+		ErrorResponse error = new ErrorResponse("INVALID_PARAMETER", "Parâmetro inválido: " + ex.getName());
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+	}
+
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex) {
+		ErrorResponse error = new ErrorResponse("SERVER_BUSY", "Servidor sobrecarregado, tente novamente");
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SEGUNDOS)
+				.body(error);
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
 		ErrorResponse error = new ErrorResponse("INTERNAL_ERROR", "Erro interno no servidor");
@@ -5,5 +5,13 @@ public class NotFoundException extends RuntimeException {
 	public NotFoundException(String message) {
 		super(message);
 	}
-}
 
+	private NotFoundException(String message, boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+	}
+
+	/** Como {@link BusinessException#stackless}. */
+	public static NotFoundException stackless(String message) {
+		return new NotFoundException(message, false);
+	}
+}
@@ -0,0 +1,112 @@
+package com.outforce.desafio.expiration;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.repository.CupomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move cupons {@code ACTIVE} com expiração no passado para {@code INACTIVE}, em lotes limitados.
+ * <p>
+ * Cada lote lê até {@code batch-size} ids pelo índice {@code (status, expiration_date, id)} e os atualiza
+ * em uma transação curta, com a condição de expiração repetida no {@code UPDATE}. O estado da varredura é
+ * o próprio dado: após um restart, ou com mais de uma instância, a próxima execução continua de onde parou.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.expiration.enabled", havingValue = "true")
+public class CupomExpirationSweeper {
+
+	private static final Logger log = LoggerFactory.getLogger(CupomExpirationSweeper.class);
+
+	private final int tamanhoLote;
+	private final int maximoLotesPorExecucao;
+	private final long pausaEntreLotesMs;
+	private final Timer duracaoExecucao;
+	private final DistributionSummary linhasPorExecucao;
+	private final Counter linhasExpiradas;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private CupomCache cupomCache;
+
+	public CupomExpirationSweeper(@Value("${cupom.expiration.batch-size:1000}") int tamanhoLote,
+								  @Value("${cupom.expiration.max-batches-per-run:100}") int maximoLotesPorExecucao,
+								  @Value("${cupom.expiration.pause-between-batches-ms:50}") long pausaEntreLotesMs,
+								  MeterRegistry registry) {
+		this.tamanhoLote = tamanhoLote;
+		this.maximoLotesPorExecucao = maximoLotesPorExecucao;
+		this.pausaEntreLotesMs = pausaEntreLotesMs;
+		this.duracaoExecucao = Timer.builder("cupom.expiration.run.duration")
+				.description("Duração de cada execução da varredura de expiração")
+				.register(registry);
+		this.linhasPorExecucao = DistributionSummary.builder("cupom.expiration.run.rows")
+				.description("Cupons expirados por execução da varredura")
+				.register(registry);
+		this.linhasExpiradas = Counter.builder("cupom.expiration.rows")
+				.description("Total de cupons movidos para INACTIVE pela varredura")
+				.register(registry);
+	}
+
+	@Scheduled(initialDelayString = "${cupom.expiration.initial-delay-ms:30000}",
+			fixedDelayString = "${cupom.expiration.fixed-delay-ms:60000}")
+	public void executar() {
+		expirar(LocalDate.now());
+	}
+
+	public int expirar(LocalDate hoje) {
+		long inicio = System.nanoTime();
+		int total = 0;
+		for (int lote = 0; lote < maximoLotesPorExecucao; lote++) {
+			List<UUID> ids = cupomRepository.findExpiredIds(CupomStatus.ACTIVE, hoje, Limit.of(tamanhoLote));
+			if (ids.isEmpty()) {
+				break;
+			}
+			int alterados = cupomRepository.expireByIds(ids, CupomStatus.ACTIVE, CupomStatus.INACTIVE, hoje);
+			ids.forEach(cupomCache::invalidate);
+			total += alterados;
+			// lote incompleto é o último; lote sem alterações só acontece se outro processo mexeu nas mesmas linhas
+			if (ids.size() < tamanhoLote || alterados == 0 || !pausar()) {
+				break;
+			}
+		}
+		long duracao = System.nanoTime() - inicio;
+		duracaoExecucao.record(duracao, TimeUnit.NANOSECONDS);
+		linhasPorExecucao.record(total);
+		linhasExpiradas.increment(total);
+		if (total > 0) {
+			log.info("Varredura de expiração moveu {} cupons para INACTIVE em {} ms", total, duracao / 1_000_000);
+		}
+		return total;
+	}
+
+	private boolean pausar() {
+		if (pausaEntreLotesMs <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(pausaEntreLotesMs);
+			return true;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.outforce.desafio.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve cupons um a um na saída, sem acumular linhas. Só o buffer da própria escrita fica em memória; quando ele
+ * enche, a escrita bloqueia até o cliente consumir, e é isso que segura a leitura do banco para clientes lentos.
+ * Nenhuma escrita força flush antes do fim.
+ */
+public abstract class CupomExportWriter {
+
+	private static final int TAMANHO_BUFFER = 64 * 1024;
+
+	public static CupomExportWriter of(CupomExportFormat formato, OutputStream saida, ObjectMapper objectMapper) {
+		return switch (formato) {
+			case NDJSON -> new Ndjson(saida, objectMapper);
+			case CSV -> new Csv(saida);
+		};
+	}
+
+	public abstract void write(CupomResponseDTO cupom);
+
+	public abstract void finish();
+
+	private static final class Ndjson extends CupomExportWriter {
+
+		private final JsonGenerator gerador;
+		private final ObjectWriter escritor;
+
+		private Ndjson(OutputStream saida, ObjectMapper objectMapper) {
+			try {
+				this.gerador = objectMapper.getFactory().createGenerator(saida)
+						.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			// por padrão o ObjectMapper faz flush depois de cada valor, o que viraria um pacote por linha
+			this.escritor = objectMapper.writerFor(CupomResponseDTO.class)
+					.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		}
+
+		@Override
+		public void write(CupomResponseDTO cupom) {
+			try {
+				escritor.writeValue(gerador, cupom);
+				gerador.writeRaw('\n');
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public void finish() {
+			try {
+				gerador.flush();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	private static final class Csv extends CupomExportWriter {
+
+		private final Writer escritor;
+
+		private Csv(OutputStream saida) {
+			this.escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+			try {
+				escritor.write("id,code,description,discountValue,expirationDate,status,published,redeemed,"
+						+ "maxRedemptions,redemptionCount\n");
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public void write(CupomResponseDTO cupom) {
+			try {
+				escritor.write(cupom.id().toString());
+				escritor.write(',');
+				escritor.write(cupom.code());
+				escritor.write(',');
+				escreverTexto(cupom.description());
+				escritor.write(',');
+				escritor.write(cupom.discountValue().toPlainString());
+				escritor.write(',');
+				escritor.write(cupom.expirationDate().toString());
+				escritor.write(',');
+				escritor.write(cupom.status().name());
+				escritor.write(',');
+				escritor.write(cupom.published().toString());
+				escritor.write(',');
+				escritor.write(cupom.redeemed().toString());
+				escritor.write(',');
+				if (cupom.maxRedemptions() != null) {
+					escritor.write(cupom.maxRedemptions().toString());
+				}
+				escritor.write(',');
+				escritor.write(cupom.redemptionCount().toString());
+				escritor.write('\n');
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		@Override
+		public void finish() {
+			try {
+				escritor.flush();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		private void escreverTexto(String texto) throws IOException {
+			boolean precisaAspas = false;
+			for (int i = 0; i < texto.length() && !precisaAspas; i++) {
+				char c = texto.charAt(i);
+				precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+			}
+			if (!precisaAspas) {
+				escritor.write(texto);
+				return;
+			}
+			escritor.write('"');
+			for (int i = 0; i < texto.length(); i++) {
+				char c = texto.charAt(i);
+				if (c == '"') {
+					escritor.write('"');
+				}
+				escritor.write(c);
+			}
+			escritor.write('"');
+		}
+	}
+}
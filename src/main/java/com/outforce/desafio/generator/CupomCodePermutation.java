@@ -0,0 +1,61 @@
+package com.outforce.desafio.generator;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+
+/**
+ * Permutação embaralhada das {@value CupomCodeCodec#TOTAL_CODIGOS} chaves de código: a posição {@code i} de uma
+ * sequência vira uma chave que nenhuma outra posição produz. É uma rede de Feistel de 4 rodadas sobre 32 bits,
+ * com as chaves de rodada derivadas de {@code segredo}; valores fora do espaço de códigos são cifrados de novo até
+ * caírem dentro dele ({@code cycle walking}), o que mantém a bijeção e custa em média duas cifragens.
+ * <p>
+ * Posições consecutivas dão códigos sem relação aparente entre si, então o próximo código não é adivinhável a
+ * partir dos anteriores sem o segredo.
+ */
+public final class CupomCodePermutation {
+
+	private static final int RODADAS = 4;
+	private static final int MASCARA_METADE = 0xFFFF;
+
+	private final int[] chavesRodada = new int[RODADAS];
+
+	public CupomCodePermutation(long segredo) {
+		long estado = segredo;
+		for (int i = 0; i < RODADAS; i++) {
+			// SplitMix64: segredos próximos ainda dão chaves de rodada sem relação entre si
+			estado += 0x9E3779B97F4A7C15L;
+			long z = estado;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			chavesRodada[i] = (int) (z ^ (z >>> 31));
+		}
+	}
+
+	public long apply(long posicao) {
+		if (posicao < 0 || posicao >= CupomCodeCodec.TOTAL_CODIGOS) {
+			throw new IllegalArgumentException("Posição fora do espaço de códigos: " + posicao);
+		}
+		long chave = posicao;
+		do {
+			chave = cifrar(chave);
+		} while (chave >= CupomCodeCodec.TOTAL_CODIGOS);
+		return chave;
+	}
+
+	private long cifrar(long valor) {
+		int esquerda = (int) (valor >>> 16) & MASCARA_METADE;
+		int direita = (int) valor & MASCARA_METADE;
+		for (int chaveRodada : chavesRodada) {
+			int nova = esquerda ^ (misturar(direita, chaveRodada) & MASCARA_METADE);
+			esquerda = direita;
+			direita = nova;
+		}
+		return ((long) esquerda << 16) | direita;
+	}
+
+	private static int misturar(int metade, int chaveRodada) {
+		int h = (metade ^ chaveRodada) * 0x9E3779B1;
+		h ^= h >>> 15;
+		h *= 0x85EBCA77;
+		return h ^ (h >>> 13);
+	}
+}
@@ -0,0 +1,194 @@
+package com.outforce.desafio.generator;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.repository.CupomRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Códigos gerados pelo servidor para criações sem {@code code}. Uma tarefa em segundo plano mantém até
+ * {@code size} códigos prontos: reserva no banco blocos de {@code block-size} posições da sequência (HiLo), passa
+ * cada posição pela {@link CupomCodePermutation} e descarta os códigos que já estão no índice, reservando os
+ * demais nele. Entregar um código é só tirar da fila, sem ida ao banco nem verificação de duplicidade. Com a fila
+ * vazia, a requisição repõe um único bloco; se outra thread já está repondo, espera os códigos dela na fila em vez
+ * de esperar a reposição inteira.
+ * <p>
+ * A sequência e a permutação garantem que dois códigos gerados nunca se repetem, entre instâncias e restarts;
+ * o índice afasta os códigos escolhidos por clientes. Códigos que estavam na fila quando a aplicação parou não
+ * são reaproveitados.
+ * <p>
+ * A sequência começa em zero e o código-fonte é público, então quem conhece o segredo da permutação calcula todos
+ * os códigos gerados. Não há segredo padrão: com o gerador ligado, {@code cupom.code-pool.secret} (64 bits em
+ * hexadecimal, o mesmo em todas as instâncias) é obrigatório e a aplicação não sobe sem ele.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.code-pool.enabled", havingValue = "true")
+public class CupomCodePool implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(CupomCodePool.class);
+	private static final long ESPERA_REPOSICAO_MS = 1_000;
+
+	private final BlockingQueue<String> codigos;
+	private final int tamanhoBloco;
+	private final CupomCodePermutation permutacao;
+	// ReentrantLock e não synchronized: a reposição faz JDBC e prenderia a thread de plataforma de uma virtual thread
+	private final ReentrantLock reposicao = new ReentrantLock();
+	private final LongAdder gerados = new LongAdder();
+	private final LongAdder descartados = new LongAdder();
+	private final LongAdder entregues = new LongAdder();
+	private final LongAdder blocos = new LongAdder();
+	private final LongAdder filaVazia = new LongAdder();
+	private volatile boolean esgotado;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private CupomCodeIndex codeIndex;
+
+	public CupomCodePool(@Value("${cupom.code-pool.size:100000}") int tamanho,
+						 @Value("${cupom.code-pool.block-size:10000}") int tamanhoBloco,
+						 @Value("${cupom.code-pool.secret:}") String segredo) {
+		this.codigos = new ArrayBlockingQueue<>(tamanho);
+		this.tamanhoBloco = Math.min(tamanhoBloco, tamanho);
+		this.permutacao = new CupomCodePermutation(lerSegredo(segredo));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("cupom.code-pool.depth", codigos, BlockingQueue::size)
+				.description("Códigos gerados prontos para entrega")
+				.register(registry);
+		FunctionCounter.builder("cupom.code-pool.codes", gerados, LongAdder::sum)
+				.description("Códigos colocados na fila; a taxa é o ritmo de reposição")
+				.tag("result", "generated")
+				.register(registry);
+		FunctionCounter.builder("cupom.code-pool.codes", descartados, LongAdder::sum)
+				.description("Posições da sequência descartadas porque o código já estava em uso")
+				.tag("result", "skipped")
+				.register(registry);
+		FunctionCounter.builder("cupom.code-pool.allocated", entregues, LongAdder::sum)
+				.description("Códigos entregues a criações sem código")
+				.register(registry);
+		FunctionCounter.builder("cupom.code-pool.blocks", blocos, LongAdder::sum)
+				.description("Blocos de posições reservados no banco")
+				.register(registry);
+		FunctionCounter.builder("cupom.code-pool.empty", filaVazia, LongAdder::sum)
+				.description("Entregas que encontraram a fila vazia e repuseram um bloco ou esperaram a reposição em andamento")
+				.register(registry);
+	}
+
+	/** Próximo código livre, já reservado no índice. */
+	public String next() {
+		String codigo = codigos.poll();
+		if (codigo == null) {
+			filaVazia.increment();
+			codigo = reporBloco() ? aguardarCodigo() : null;
+			if (codigo == null) {
+				throw new BusinessException("COUPON_CODE_POOL_EMPTY",
+						"Não há códigos gerados disponíveis; informe o código do cupom");
+			}
+		}
+		entregues.increment();
+		return codigo;
+	}
+
+	@Scheduled(initialDelayString = "${cupom.code-pool.fill-interval-ms:200}",
+			fixedDelayString = "${cupom.code-pool.fill-interval-ms:200}")
+	public void fill() {
+		// sem o índice aquecido não há como descartar os códigos em uso sem consultar o banco
+		if (!codeIndex.isReady() || esgotado || !reposicao.tryLock()) {
+			return;
+		}
+		try {
+			while (codigos.remainingCapacity() >= tamanhoBloco && !esgotado) {
+				preencherBloco(cupomRepository.reserveCodeBlock(tamanhoBloco));
+			}
+		} finally {
+			reposicao.unlock();
+		}
+	}
+
+	public int depth() {
+		return codigos.size();
+	}
+
+	public long skipped() {
+		return descartados.sum();
+	}
+
+	/** Repõe no máximo um bloco, se ninguém estiver repondo; {@code false} quando não há como repor. */
+	private boolean reporBloco() {
+		if (!codeIndex.isReady() || esgotado) {
+			return false;
+		}
+		if (reposicao.tryLock()) {
+			try {
+				if (codigos.remainingCapacity() >= tamanhoBloco && !esgotado) {
+					preencherBloco(cupomRepository.reserveCodeBlock(tamanhoBloco));
+				}
+			} finally {
+				reposicao.unlock();
+			}
+		}
+		return true;
+	}
+
+	private String aguardarCodigo() {
+		try {
+			return codigos.poll(ESPERA_REPOSICAO_MS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static long lerSegredo(String segredo) {
+		if (segredo.isBlank()) {
+			throw new IllegalStateException("cupom.code-pool.secret é obrigatório com cupom.code-pool.enabled=true: "
+					+ "sem ele os códigos gerados podem ser calculados a partir do código-fonte");
+		}
+		try {
+			return Long.parseUnsignedLong(segredo.strip(), 16);
+		} catch (NumberFormatException ex) {
+			throw new IllegalStateException("cupom.code-pool.secret deve ter até 16 dígitos hexadecimais", ex);
+		}
+	}
+
+	private void preencherBloco(long inicio) {
+		blocos.increment();
+		long fim = Math.min(inicio + tamanhoBloco, CupomCodeCodec.TOTAL_CODIGOS);
+		for (long posicao = inicio; posicao < fim; posicao++) {
+			long chave = permutacao.apply(posicao);
+			if (codeIndex.reserveKey(chave)) {
+				// há espaço garantido: só quem segura a reposição coloca na fila, e só depois de ver que o bloco cabe
+				codigos.add(CupomCodeCodec.decode(chave));
+				gerados.increment();
+			} else {
+				descartados.increment();
+			}
+		}
+		if (fim == CupomCodeCodec.TOTAL_CODIGOS) {
+			esgotado = true;
+			log.warn("Sequência de códigos gerados esgotada: todas as {} posições foram usadas",
+					CupomCodeCodec.TOTAL_CODIGOS);
+		}
+	}
+}
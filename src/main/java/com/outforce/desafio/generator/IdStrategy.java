@@ -0,0 +1,19 @@
+package com.outforce.desafio.generator;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public enum IdStrategy {
+	TIME_ORDERED(UuidV7::generate),
+	RANDOM(UUID::randomUUID);
+
+	private final Supplier<UUID> gerador;
+
+	IdStrategy(Supplier<UUID> gerador) {
+		this.gerador = gerador;
+	}
+
+	public UUID next() {
+		return gerador.get();
+	}
+}
@@ -0,0 +1,30 @@
+package com.outforce.desafio.generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+public class UuidIdentifierGenerator implements BeforeExecutionGenerator {
+
+	private final IdStrategy strategy;
+
+	public UuidIdentifierGenerator(GeneratedUuid config, Member member, CustomIdGeneratorCreationContext context) {
+		this.strategy = config.value();
+	}
+
+	@Override
+	public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+		return strategy.next();
+	}
+
+	@Override
+	public EnumSet<EventType> getEventTypes() {
+		return INSERT_ONLY;
+	}
+}
@@ -0,0 +1,42 @@
+package com.outforce.desafio.generator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class UuidV7 {
+
+	private static final int BITS_SEQUENCIA = 12;
+	private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+	private static final long VERSAO = 0x7L << BITS_SEQUENCIA;
+	private static final long VARIANTE = 0x8000000000000000L;
+	private static final long MASCARA_ALEATORIA = 0x3FFFFFFFFFFFFFFFL;
+
+	// timestamp em ms (48 bits) seguido de um contador de 12 bits: garante ordem
+	// monotônica dentro do mesmo milissegundo sem lock
+	private static final AtomicLong ultimoEstado = new AtomicLong();
+
+	private UuidV7() {
+	}
+
+	public static UUID generate() {
+		long agora = System.currentTimeMillis() << BITS_SEQUENCIA;
+		long anterior;
+		long estado;
+		do {
+			anterior = ultimoEstado.get();
+			estado = Math.max(anterior + 1, agora);
+		} while (!ultimoEstado.compareAndSet(anterior, estado));
+
+		long timestamp = estado >>> BITS_SEQUENCIA;
+		long sequencia = estado & MASCARA_SEQUENCIA;
+
+		long msb = (timestamp << 16) | VERSAO | sequencia;
+		long lsb = VARIANTE | (ThreadLocalRandom.current().nextLong() & MASCARA_ALEATORIA);
+		return new UUID(msb, lsb);
+	}
+
+	public static long timestamp(UUID uuid) {
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+}
@@ -0,0 +1,86 @@
+package com.outforce.desafio.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.outforce.desafio.concurrent.InFlight;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Respostas de criação por {@code Idempotency-Key}, com limite de tamanho e expiração. A primeira requisição com
+ * uma chave executa a criação; as repetições recebem a mesma resposta sem passar pelo banco, e as que chegam
+ * enquanto a primeira ainda está em andamento esperam por ela em vez de executar de novo.
+ * <p>
+ * Só sucessos ficam guardados: uma criação que falhou é repassada a quem estava esperando e a chave é liberada
+ * para a próxima tentativa. A espera tem prazo ({@code cupom.idempotency.wait-timeout-ms}); passado ele, a
+ * repetição recebe 409 {@code IDEMPOTENCY_KEY_IN_PROGRESS} e pode tentar de novo.
+ */
+@Component
+public class CupomIdempotencyStore implements MeterBinder {
+
+	static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+	private final Cache<String, Execucao> execucoes;
+	private final long esperaMaximaMs;
+
+	public CupomIdempotencyStore(@Value("${cupom.idempotency.maximum-size:100000}") long tamanhoMaximo,
+								 @Value("${cupom.idempotency.ttl-seconds:3600}") long ttlSegundos,
+								 @Value("${cupom.idempotency.wait-timeout-ms:10000}") long esperaMaximaMs) {
+		this.esperaMaximaMs = esperaMaximaMs;
+		this.execucoes = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, execucoes, "cupom.idempotency");
+	}
+
+	public CupomResponseDTO execute(String chave, CupomRequestDTO request, Supplier<CupomResponseDTO> criar) {
+		if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+			throw new BusinessException("IDEMPOTENCY_KEY_INVALID",
+					"Idempotency-Key deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+		}
+		Execucao nova = new Execucao(request, new CompletableFuture<>());
+		Execucao atual = execucoes.asMap().putIfAbsent(chave, nova);
+		if (atual != null) {
+			if (!atual.request().equals(request)) {
+				throw new BusinessException("IDEMPOTENCY_KEY_REUSED",
+						"Idempotency-Key já usada com outros dados de cupom");
+			}
+			return InFlight.await(atual.resposta(), esperaMaximaMs, () -> new BusinessException(
+					"IDEMPOTENCY_KEY_IN_PROGRESS", "Requisição com a mesma Idempotency-Key ainda em andamento"));
+		}
+
+		try {
+			CupomResponseDTO resposta = criar.get();
+			nova.resposta().complete(resposta);
+			return resposta;
+		} catch (RuntimeException | Error ex) {
+			execucoes.asMap().remove(chave, nova);
+			nova.resposta().completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	public long size() {
+		execucoes.cleanUp();
+		return execucoes.estimatedSize();
+	}
+
+	private record Execucao(CupomRequestDTO request, CompletableFuture<CupomResponseDTO> resposta) {
+	}
+}
@@ -0,0 +1,67 @@
+package com.outforce.desafio.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long totalBits;
+	private final int numeroHashes;
+
+	public BloomFilter(long insercoesEsperadas, double taxaFalsoPositivo) {
+		if (insercoesEsperadas <= 0) {
+			throw new IllegalArgumentException("insercoesEsperadas deve ser positivo");
+		}
+		if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+			throw new IllegalArgumentException("taxaFalsoPositivo deve estar entre 0 e 1");
+		}
+		long bitsNecessarios = (long) Math.ceil(-insercoesEsperadas * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+		int palavras = (int) Math.min(Integer.MAX_VALUE, (bitsNecessarios + 63) >>> 6);
+		this.bits = new AtomicLongArray(palavras);
+		this.totalBits = (long) palavras << 6;
+		this.numeroHashes = Math.max(1, (int) Math.round((double) totalBits / insercoesEsperadas * Math.log(2)));
+	}
+
+	public void put(long chave) {
+		long h1 = mix(chave);
+		long h2 = mix(h1) | 1;
+		for (int i = 0; i < numeroHashes; i++) {
+			long posicao = Long.remainderUnsigned(h1 + i * h2, totalBits);
+			int palavra = (int) (posicao >>> 6);
+			long mascara = 1L << posicao;
+			long atual = bits.get(palavra);
+			while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+				atual = bits.get(palavra);
+			}
+		}
+	}
+
+	public boolean mightContain(long chave) {
+		long h1 = mix(chave);
+		long h2 = mix(h1) | 1;
+		for (int i = 0; i < numeroHashes; i++) {
+			long posicao = Long.remainderUnsigned(h1 + i * h2, totalBits);
+			if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long totalBits() {
+		return totalBits;
+	}
+
+	public int numeroHashes() {
+		return numeroHashes;
+	}
+
+	private static long mix(long valor) {
+		valor ^= valor >>> 33;
+		valor *= 0xFF51AFD7ED558CCDL;
+		valor ^= valor >>> 33;
+		valor *= 0xC4CEB9FE1A85EC53L;
+		valor ^= valor >>> 33;
+		return valor;
+	}
+}
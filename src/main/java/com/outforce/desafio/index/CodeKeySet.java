@@ -0,0 +1,119 @@
+package com.outforce.desafio.index;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+public class CodeKeySet {
+
+	// 0xFFFFFFFF nunca é um código válido: 36^6 < 2^32 - 1
+	private static final int VAZIO = -1;
+	private static final float FATOR_CARGA = 0.7f;
+
+	private final StampedLock lock = new StampedLock();
+	private volatile int[] tabela;
+	private int tamanho;
+
+	public CodeKeySet(int capacidadeInicial) {
+		this.tabela = novaTabela(capacidadeParaElementos(Math.max(capacidadeInicial, 16)));
+	}
+
+	public boolean contains(long chave) {
+		int compactado = CupomCodeCodec.pack(chave);
+		long stamp = lock.tryOptimisticRead();
+		boolean encontrado = procurar(tabela, compactado);
+		if (lock.validate(stamp)) {
+			return encontrado;
+		}
+		stamp = lock.readLock();
+		try {
+			return procurar(tabela, compactado);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public boolean add(long chave) {
+		int compactado = CupomCodeCodec.pack(chave);
+		long stamp = lock.writeLock();
+		try {
+			if (tamanho + 1 > tabela.length * FATOR_CARGA) {
+				tabela = redimensionar(tabela, tabela.length << 1);
+			}
+			if (inserir(tabela, compactado)) {
+				tamanho++;
+				return true;
+			}
+			return false;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public int size() {
+		long stamp = lock.readLock();
+		try {
+			return tamanho;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private static boolean procurar(int[] tabela, int compactado) {
+		int mascara = tabela.length - 1;
+		int posicao = espalhar(compactado) & mascara;
+		while (true) {
+			int atual = tabela[posicao];
+			if (atual == compactado) {
+				return true;
+			}
+			if (atual == VAZIO) {
+				return false;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+	}
+
+	private static boolean inserir(int[] tabela, int compactado) {
+		int mascara = tabela.length - 1;
+		int posicao = espalhar(compactado) & mascara;
+		while (true) {
+			int atual = tabela[posicao];
+			if (atual == compactado) {
+				return false;
+			}
+			if (atual == VAZIO) {
+				tabela[posicao] = compactado;
+				return true;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+	}
+
+	private static int[] redimensionar(int[] antiga, int capacidade) {
+		int[] nova = novaTabela(capacidade);
+		for (int chave : antiga) {
+			if (chave != VAZIO) {
+				inserir(nova, chave);
+			}
+		}
+		return nova;
+	}
+
+	private static int[] novaTabela(int capacidade) {
+		int[] tabela = new int[capacidade];
+		Arrays.fill(tabela, VAZIO);
+		return tabela;
+	}
+
+	private static int capacidadeParaElementos(int elementos) {
+		int capacidade = Integer.highestOneBit((int) Math.ceil(elementos / FATOR_CARGA));
+		return capacidade < elementos / FATOR_CARGA ? capacidade << 1 : capacidade;
+	}
+
+	private static int espalhar(int valor) {
+		int h = valor * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
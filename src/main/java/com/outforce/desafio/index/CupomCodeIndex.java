@@ -0,0 +1,112 @@
+package com.outforce.desafio.index;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.repository.CupomRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+@Component
+public class CupomCodeIndex implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(CupomCodeIndex.class);
+
+	private final BloomFilter filtro;
+	private final CodeKeySet codigos;
+	private volatile boolean pronto;
+	private final LongAdder consultasPresentes = new LongAdder();
+	private final LongAdder consultasAusentes = new LongAdder();
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	public CupomCodeIndex(@Value("${cupom.index.expected-codes:1000000}") long codigosEsperados,
+						  @Value("${cupom.index.false-positive-rate:0.01}") double taxaFalsoPositivo) {
+		this.filtro = new BloomFilter(codigosEsperados, taxaFalsoPositivo);
+		this.codigos = new CodeKeySet((int) Math.min(codigosEsperados, Integer.MAX_VALUE >> 2));
+	}
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void aquecer() {
+		long inicio = System.nanoTime();
+		try (Stream<Long> existentes = cupomRepository.streamAllCodeKeys()) {
+			existentes.forEach(this::add);
+		}
+		pronto = true;
+		log.info("Índice de códigos aquecido com {} códigos em {} ms",
+				codigos.size(), (System.nanoTime() - inicio) / 1_000_000);
+	}
+
+	public boolean isReady() {
+		return pronto;
+	}
+
+	public boolean contains(String code) {
+		return containsKey(CupomCodeCodec.encode(code));
+	}
+
+	public boolean containsKey(long chave) {
+		boolean presente = filtro.mightContain(chave) && codigos.contains(chave);
+		(presente ? consultasPresentes : consultasAusentes).increment();
+		return presente;
+	}
+
+	public void add(String code) {
+		add(CupomCodeCodec.encode(code));
+	}
+
+	/**
+	 * Adiciona a chave se ainda não estiver no índice, sem contar como consulta. Devolve {@code false} quando o
+	 * código já existe (ou já foi reservado).
+	 */
+	public boolean reserveKey(long chave) {
+		// filtro antes do conjunto, como em add: quem consulta nunca vê a chave no conjunto e fora do filtro
+		filtro.put(chave);
+		return codigos.add(chave);
+	}
+
+	public void addAll(Collection<String> codes) {
+		codes.forEach(this::add);
+	}
+
+	public int size() {
+		return codigos.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("cupom.index.size", this, CupomCodeIndex::size)
+				.description("Códigos no índice em memória")
+				.register(registry);
+		Gauge.builder("cupom.index.ready", this, indice -> indice.isReady() ? 1 : 0)
+				.description("1 quando o índice já foi aquecido e responde sem ir ao banco")
+				.register(registry);
+		FunctionCounter.builder("cupom.index.lookups", consultasPresentes, LongAdder::sum)
+				.description("Consultas ao índice de códigos; absent evita uma ida ao banco")
+				.tag("result", "present")
+				.register(registry);
+		FunctionCounter.builder("cupom.index.lookups", consultasAusentes, LongAdder::sum)
+				.description("Consultas ao índice de códigos; absent evita uma ida ao banco")
+				.tag("result", "absent")
+				.register(registry);
+	}
+
+	private void add(long chave) {
+		filtro.put(chave);
+		codigos.add(chave);
+	}
+}
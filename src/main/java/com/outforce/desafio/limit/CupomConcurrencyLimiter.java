@@ -0,0 +1,92 @@
+package com.outforce.desafio.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Limite adaptativo de requisições simultâneas (AIMD). Cada requisição concluída acima de
+ * {@code target-latency-ms} (ou que falhou por timeout) multiplica o limite por {@code backoff-ratio}; cada uma
+ * dentro do alvo, com o limite de fato em uso, soma {@code 1 / limite}, ou seja, cerca de +1 por limite inteiro
+ * de respostas rápidas. Quando o banco fica lento as requisições passam a esperar conexão e a latência sobe antes
+ * das filas crescerem, então o limite cai e o excesso é recusado na hora em vez de entrar na fila.
+ * <p>
+ * Em andamento e limite são atômicos; a admissão é um compare-and-set sobre o contador, sem lock.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.concurrency-limit.enabled", havingValue = "true")
+public class CupomConcurrencyLimiter implements MeterBinder {
+
+	private final int minimo;
+	private final int maximo;
+	private final long alvoNanos;
+	private final double fatorReducao;
+	private final AtomicInteger emAndamento = new AtomicInteger();
+	private final AtomicLong limite;
+
+	public CupomConcurrencyLimiter(@Value("${cupom.concurrency-limit.initial-limit:20}") int inicial,
+								   @Value("${cupom.concurrency-limit.min-limit:4}") int minimo,
+								   @Value("${cupom.concurrency-limit.max-limit:200}") int maximo,
+								   @Value("${cupom.concurrency-limit.target-latency-ms:100}") long alvoMs,
+								   @Value("${cupom.concurrency-limit.backoff-ratio:0.9}") double fatorReducao) {
+		this.minimo = minimo;
+		this.maximo = maximo;
+		this.alvoNanos = TimeUnit.MILLISECONDS.toNanos(alvoMs);
+		this.fatorReducao = fatorReducao;
+		this.limite = new AtomicLong(Double.doubleToLongBits(Math.max(minimo, Math.min(maximo, inicial))));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("cupom.concurrency-limit.limit", this, CupomConcurrencyLimiter::limit)
+				.description("Limite atual de requisições simultâneas")
+				.register(registry);
+		Gauge.builder("cupom.concurrency-limit.inflight", emAndamento, AtomicInteger::get)
+				.description("Requisições admitidas ainda em andamento")
+				.register(registry);
+	}
+
+	/** Admite a requisição se houver vaga; quem recebe {@code true} precisa chamar {@link #release}. */
+	public boolean tryAcquire() {
+		int limiteAtual = limit();
+		while (true) {
+			int atual = emAndamento.get();
+			if (atual >= limiteAtual) {
+				return false;
+			}
+			if (emAndamento.compareAndSet(atual, atual + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release(long duracaoNanos, boolean falhou) {
+		int admitidas = emAndamento.getAndDecrement();
+		if (falhou || duracaoNanos > alvoNanos) {
+			ajustar(atual -> Math.max(minimo, atual * fatorReducao));
+		} else if (admitidas * 2 >= limit()) {
+			// só cresce quando o limite está sendo usado: folga ociosa não prova que o banco aguenta mais
+			ajustar(atual -> Math.min(maximo, atual + 1 / atual));
+		}
+	}
+
+	public int limit() {
+		return (int) Double.longBitsToDouble(limite.get());
+	}
+
+	public int inflight() {
+		return emAndamento.get();
+	}
+
+	private void ajustar(DoubleUnaryOperator ajuste) {
+		limite.getAndUpdate(bits -> Double.doubleToLongBits(ajuste.applyAsDouble(Double.longBitsToDouble(bits))));
+	}
+}
@@ -0,0 +1,196 @@
+package com.outforce.desafio.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.exception.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proteção na frente de {@code /coupons}, antes do controller e do banco: primeiro o {@link CupomRateLimiter}
+ * do cliente, que responde 429 com
+ * {@code Retry-After}; depois o {@link CupomConcurrencyLimiter}, que responde 503 quando o limite de requisições
+ * simultâneas está tomado. O limite de taxa vale só para as escritas (criação, lote e deleção): leituras e resgates
+ * passam só pelo limite de concorrência. O IP é o que o Tomcat resolve com {@code server.forward-headers-strategy},
+ * então atrás de um gateway confiável é o do cliente, não o do gateway.
+ * <p>
+ * O cliente é a chave do header {@code cupom.rate-limit.client-header} só quando ela está em
+ * {@code cupom.rate-limit.api-keys}; qualquer outro valor é ignorado e vale o IP. Uma chave livre daria a quem
+ * troca de chave a cada requisição um balde novo, com a rajada inteira, e encheria o cache de clientes. Um cliente que inunda a API esgota o próprio balde sem tirar vagas dos demais, e as
+ * vagas que sobram encolhem quando o banco fica lento.
+ * <p>
+ * Os dois são opcionais ({@code cupom.rate-limit.enabled}, {@code cupom.concurrency-limit.enabled}); sem eles o
+ * filtro só repassa. Requisições assíncronas liberam a vaga quando terminam de fato, não quando a thread do
+ * Tomcat é devolvida. Falha, para o limite adaptativo, é uma resposta 5xx: o {@code GlobalExceptionHandler}
+ * transforma as exceções em resposta antes de elas chegarem aqui.
+ */
+@Component
+public class CupomLoadSheddingFilter extends OncePerRequestFilter implements MeterBinder {
+
+	private final String headerCliente;
+	private final Set<String> chavesConhecidas;
+	private final LongAdder permitidas = new LongAdder();
+	private final LongAdder limitadas = new LongAdder();
+	private final LongAdder descartadas = new LongAdder();
+
+	@Autowired(required = false)
+	private CupomRateLimiter rateLimiter;
+
+	@Autowired(required = false)
+	private CupomConcurrencyLimiter concurrencyLimiter;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	public CupomLoadSheddingFilter(@Value("${cupom.rate-limit.client-header:X-Api-Key}") String headerCliente,
+								   @Value("${cupom.rate-limit.api-keys:}") String chavesConhecidas) {
+		this.headerCliente = headerCliente;
+		this.chavesConhecidas = Set.copyOf(Arrays.stream(chavesConhecidas.split(","))
+				.map(String::strip)
+				.filter(chave -> !chave.isEmpty())
+				.toList());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("cupom.limit.decisions", permitidas, LongAdder::sum)
+				.description("Requisições de /coupons admitidas pela proteção de carga")
+				.tag("result", "allowed")
+				.register(registry);
+		FunctionCounter.builder("cupom.limit.decisions", limitadas, LongAdder::sum)
+				.description("Requisições recusadas com 429 pelo limite de taxa do cliente")
+				.tag("result", "rate_limited")
+				.register(registry);
+		FunctionCounter.builder("cupom.limit.decisions", descartadas, LongAdder::sum)
+				.description("Requisições recusadas com 503 pelo limite adaptativo de concorrência")
+				.tag("result", "shed")
+				.register(registry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String caminho = caminho(request);
+		return (rateLimiter == null && concurrencyLimiter == null)
+				|| !(caminho.equals("/coupons") || caminho.startsWith("/coupons/"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (rateLimiter != null && escrita(request)) {
+			long esperaNanos = rateLimiter.tryAcquire(cliente(request));
+			if (esperaNanos > 0) {
+				limitadas.increment();
+				recusar(response, HttpStatus.TOO_MANY_REQUESTS, esperaNanos,
+						new ErrorResponse("RATE_LIMITED", "Limite de requisições do cliente excedido"));
+				return;
+			}
+		}
+		// a exportação dura o quanto o cliente demora para ler: não ocupa vaga nem serve de sinal de latência
+		if (concurrencyLimiter == null || caminho(request).equals("/coupons/export")) {
+			permitidas.increment();
+			chain.doFilter(request, response);
+			return;
+		}
+		if (!concurrencyLimiter.tryAcquire()) {
+			descartadas.increment();
+			recusar(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+					new ErrorResponse("SERVER_BUSY", "Servidor sobrecarregado, tente novamente"));
+			return;
+		}
+		permitidas.increment();
+		long inicio = System.nanoTime();
+		boolean falhou = true;
+		try {
+			chain.doFilter(request, response);
+			falhou = falhou(response);
+		} finally {
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new Liberacao(inicio));
+			} else {
+				concurrencyLimiter.release(System.nanoTime() - inicio, falhou);
+			}
+		}
+	}
+
+	private static boolean escrita(HttpServletRequest request) {
+		String metodo = request.getMethod();
+		return !(metodo.equals("GET") || metodo.equals("HEAD") || metodo.equals("OPTIONS"))
+				&& !caminho(request).endsWith("/redeem");
+	}
+
+	private static boolean falhou(HttpServletResponse response) {
+		return response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+	}
+
+	private static String caminho(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	private String cliente(HttpServletRequest request) {
+		String chave = request.getHeader(headerCliente);
+		return chave != null && chavesConhecidas.contains(chave)
+				? "key:" + chave
+				: "ip:" + request.getRemoteAddr();
+	}
+
+	private void recusar(HttpServletResponse response, HttpStatus status, long esperaNanos, ErrorResponse erro)
+			throws IOException {
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), erro);
+	}
+
+	private final class Liberacao implements AsyncListener {
+
+		private final long inicio;
+		private volatile boolean falhou;
+
+		private Liberacao(long inicio) {
+			this.inicio = inicio;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			// chamado também depois de timeout ou erro: é o único ponto que libera a vaga
+			boolean respostaDeErro = event.getSuppliedResponse() instanceof HttpServletResponse resposta
+					&& falhou(resposta);
+			concurrencyLimiter.release(System.nanoTime() - inicio, falhou || respostaDeErro);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			falhou = true;
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			falhou = true;
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.outforce.desafio.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por cliente ({@code rate-per-second} fichas por segundo, até {@code burst} acumuladas). Cada balde
+ * é um único {@code long}, o instante teórico em que ele estaria cheio de novo (GCRA): consumir uma ficha é
+ * avançar esse instante em um intervalo de emissão com compare-and-set, sem lock e sem thread de reposição.
+ * <p>
+ * Os baldes ficam em um cache limitado a {@code max-clients}; um balde parado por {@code burst / rate} segundos
+ * já está cheio, então descartá-lo depois disso não muda nenhuma decisão.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.rate-limit.enabled", havingValue = "true")
+public class CupomRateLimiter implements MeterBinder {
+
+	private final long intervaloNanos;
+	private final long toleranciaNanos;
+	private final LongSupplier relogio;
+	private final Cache<String, AtomicLong> baldes;
+
+	@Autowired
+	public CupomRateLimiter(@Value("${cupom.rate-limit.rate-per-second:100}") double porSegundo,
+							@Value("${cupom.rate-limit.burst:200}") int rajada,
+							@Value("${cupom.rate-limit.max-clients:100000}") long maximoClientes) {
+		this(porSegundo, rajada, maximoClientes, System::nanoTime);
+	}
+
+	CupomRateLimiter(double porSegundo, int rajada, long maximoClientes, LongSupplier relogio) {
+		this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+		this.toleranciaNanos = intervaloNanos * (rajada - 1);
+		this.relogio = relogio;
+		this.baldes = Caffeine.newBuilder()
+				.maximumSize(maximoClientes)
+				.expireAfterAccess(Duration.ofNanos(Math.max(intervaloNanos * rajada, TimeUnit.SECONDS.toNanos(1))))
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, baldes, "cupom.rate-limit.clients");
+	}
+
+	/**
+	 * Consome uma ficha do cliente. Devolve {@code 0} se havia ficha, ou quantos nanossegundos faltam para a
+	 * próxima; uma requisição recusada não consome nada.
+	 */
+	public long tryAcquire(String cliente) {
+		AtomicLong cheioEm = baldes.get(cliente, chave -> new AtomicLong(Long.MIN_VALUE));
+		long agora = relogio.getAsLong();
+		while (true) {
+			long atual = cheioEm.get();
+			long base = atual == Long.MIN_VALUE ? agora : Math.max(atual, agora);
+			// cada ficha em uso adianta o instante de balde cheio em um intervalo; a rajada é a folga permitida
+			long excesso = base - agora - toleranciaNanos;
+			if (excesso > 0) {
+				return excesso;
+			}
+			if (cheioEm.compareAndSet(atual, base + intervaloNanos)) {
+				return 0;
+			}
+		}
+	}
+}
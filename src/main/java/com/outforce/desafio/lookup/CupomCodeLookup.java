@@ -0,0 +1,105 @@
+package com.outforce.desafio.lookup;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.concurrent.InFlight;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Consulta por código com uma única ida ao banco por código em andamento: quem pede um código que já está sendo
+ * consultado espera pela mesma consulta e recebe o mesmo resultado, em vez de abrir outra. Nada é guardado depois
+ * que a consulta termina; a próxima chamada consulta de novo.
+ * <p>
+ * Serve só a leituras que já toleram corrida com uma escrita concorrente (verificação de duplicidade, protegida
+ * pela constraint {@code unique}, e carregamento do cache, protegido pela geração do {@code CupomCache}). A geração
+ * é lida por quem abre a consulta, antes de ir ao banco, e devolvida a todos que a compartilham: quem entra numa
+ * consulta já em andamento não pode usar a geração que leu depois que ela começou. A leitura
+ * que segue um resgate não passa por aqui: ela precisa ver o próprio {@code UPDATE}.
+ * <p>
+ * Quem entra numa consulta em andamento espera no máximo {@code cupom.lookup.wait-timeout-ms}; passado o prazo a
+ * requisição é recusada com 503 {@code SERVER_BUSY}, em vez de prender a thread atrás de uma consulta travada.
+ */
+@Component
+public class CupomCodeLookup implements MeterBinder {
+
+	private final boolean habilitado;
+	private final long esperaMaximaMs;
+	private final Map<Long, CompletableFuture<CupomCache.Leitura>> emAndamento = new ConcurrentHashMap<>();
+	private final LongAdder executadas = new LongAdder();
+	private final LongAdder compartilhadas = new LongAdder();
+
+	public CupomCodeLookup(@Value("${cupom.lookup.coalescing.enabled:true}") boolean habilitado,
+						   @Value("${cupom.lookup.wait-timeout-ms:5000}") long esperaMaximaMs) {
+		this.habilitado = habilitado;
+		this.esperaMaximaMs = esperaMaximaMs;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("cupom.lookup.queries", executadas, LongAdder::sum)
+				.description("Consultas por código feitas ao banco")
+				.tag("result", "executed")
+				.register(registry);
+		FunctionCounter.builder("cupom.lookup.queries", compartilhadas, LongAdder::sum)
+				.description("Consultas por código atendidas por uma consulta já em andamento")
+				.tag("result", "coalesced")
+				.register(registry);
+	}
+
+	public CupomResponseDTO findByCodeKey(long codeKey, LongFunction<CupomResponseDTO> carregar) {
+		return findByCodeKey(codeKey, () -> CupomCache.SEM_GERACAO, carregar).cupom();
+	}
+
+	/**
+	 * Como {@link #findByCodeKey(long, LongFunction)}, devolvendo também a {@code geracao} lida por quem abriu a
+	 * consulta, antes de ela ir ao banco.
+	 */
+	public CupomCache.Leitura findByCodeKey(long codeKey, LongSupplier geracao,
+											LongFunction<CupomResponseDTO> carregar) {
+		if (!habilitado) {
+			executadas.increment();
+			long geracaoLida = geracao.getAsLong();
+			return new CupomCache.Leitura(carregar.apply(codeKey), geracaoLida);
+		}
+		CompletableFuture<CupomCache.Leitura> nova = new CompletableFuture<>();
+		CompletableFuture<CupomCache.Leitura> atual = emAndamento.putIfAbsent(codeKey, nova);
+		if (atual != null) {
+			compartilhadas.increment();
+			return InFlight.await(atual, esperaMaximaMs,
+					() -> new RejectedExecutionException("Consulta do código em andamento não terminou a tempo"));
+		}
+
+		executadas.increment();
+		try {
+			long geracaoLida = geracao.getAsLong();
+			CupomCache.Leitura leitura = new CupomCache.Leitura(carregar.apply(codeKey), geracaoLida);
+			nova.complete(leitura);
+			return leitura;
+		} catch (RuntimeException | Error ex) {
+			nova.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			emAndamento.remove(codeKey, nova);
+		}
+	}
+
+	public long executed() {
+		return executadas.sum();
+	}
+
+	public long coalesced() {
+		return compartilhadas.sum();
+	}
+}
@@ -14,7 +14,9 @@ public class CupomResponseToDtoMapper {
 				cupom.getExpirationDate(),
 				cupom.getStatus(),
 				cupom.getPublished(),
-				cupom.getRedeemed()
+				cupom.getRedeemed(),
+				cupom.getMaxRedemptions(),
+				cupom.getRedemptionCount()
 		);
 	}
 }
@@ -0,0 +1,122 @@
+package com.outforce.desafio.metrics;
+
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do serviço de cupons:
+ * <ul>
+ *     <li>{@code cupom.operation} (operation, outcome): latência de cada operação pública, com histograma</li>
+ *     <li>{@code cupom.repository} (query): tempo das chamadas ao repositório nos caminhos de escrita</li>
+ *     <li>{@code cupom.errors} (operation, code): rejeições por código de erro de negócio; falhas inesperadas (banco,
+ *     timeout, I/O) entram como {@code INTERNAL_ERROR}, o mesmo código da resposta 500</li>
+ * </ul>
+ * Timers e contadores ficam em mapas locais para que o caminho quente não pague a busca no registry a cada chamada.
+ */
+@Component
+public class CupomMetrics {
+
+	private static final Duration MENOR_LATENCIA = Duration.ofNanos(10_000);
+	private static final Duration MAIOR_LATENCIA = Duration.ofSeconds(10);
+	private static final String NAO_ENCONTRADO = "COUPON_NOT_FOUND";
+	private static final String ERRO_INTERNO = "INTERNAL_ERROR";
+
+	private final MeterRegistry registry;
+	private final Map<String, Timer> sucessos = new ConcurrentHashMap<>();
+	private final Map<String, Timer> falhas = new ConcurrentHashMap<>();
+	private final Map<String, Timer> consultas = new ConcurrentHashMap<>();
+	private final Map<ChaveErro, Counter> erros = new ConcurrentHashMap<>();
+
+	public CupomMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public <T> T medir(String operacao, Supplier<T> corpo) {
+		long inicio = System.nanoTime();
+		try {
+			T resultado = corpo.get();
+			registrar(sucessos.computeIfAbsent(operacao, chave -> timerOperacao(chave, "success")), inicio);
+			return resultado;
+		} catch (BusinessException ex) {
+			registrarFalha(operacao, ex.getCode(), inicio);
+			throw ex;
+		} catch (NotFoundException ex) {
+			registrarFalha(operacao, NAO_ENCONTRADO, inicio);
+			throw ex;
+		} catch (RuntimeException | Error ex) {
+			registrarFalha(operacao, ERRO_INTERNO, inicio);
+			throw ex;
+		}
+	}
+
+	public void medir(String operacao, Runnable corpo) {
+		medir(operacao, () -> {
+			corpo.run();
+			return null;
+		});
+	}
+
+	public <T> T medirRepositorio(String consulta, Supplier<T> chamada) {
+		long inicio = System.nanoTime();
+		try {
+			return chamada.get();
+		} finally {
+			registrar(consultas.computeIfAbsent(consulta, this::timerRepositorio), inicio);
+		}
+	}
+
+	public void registrarErro(String operacao, String codigo) {
+		erros.computeIfAbsent(new ChaveErro(operacao, codigo), this::contadorErro).increment();
+	}
+
+	private void registrarFalha(String operacao, String codigo, long inicio) {
+		registrar(falhas.computeIfAbsent(operacao, chave -> timerOperacao(chave, "error")), inicio);
+		registrarErro(operacao, codigo);
+	}
+
+	private static void registrar(Timer timer, long inicio) {
+		timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer timerOperacao(String operacao, String resultado) {
+		return Timer.builder("cupom.operation")
+				.description("Latência das operações do serviço de cupons")
+				.tag("operation", operacao)
+				.tag("outcome", resultado)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(MENOR_LATENCIA)
+				.maximumExpectedValue(MAIOR_LATENCIA)
+				.register(registry);
+	}
+
+	private Counter contadorErro(ChaveErro chave) {
+		return Counter.builder("cupom.errors")
+				.description("Rejeições do serviço de cupons por código de erro")
+				.tag("operation", chave.operacao())
+				.tag("code", chave.codigo())
+				.register(registry);
+	}
+
+	private Timer timerRepositorio(String consulta) {
+		return Timer.builder("cupom.repository")
+				.description("Tempo das chamadas ao repositório feitas pelo serviço de cupons")
+				.tag("query", consulta)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(MENOR_LATENCIA)
+				.maximumExpectedValue(MAIOR_LATENCIA)
+				.register(registry);
+	}
+
+	private record ChaveErro(String operacao, String codigo) {
+	}
+}
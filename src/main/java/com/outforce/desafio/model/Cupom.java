@@ -1,16 +1,27 @@
 package com.outforce.desafio.model;
 
+import com.outforce.desafio.code.CupomCodeCodec;
 import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.generator.GeneratedUuid;
+import com.outforce.desafio.generator.IdStrategy;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "cupons")
+@Table(name = "cupons", indexes = {
+		@Index(name = "idx_cupons_code_key", columnList = "code_key"),
+		@Index(name = "idx_cupons_status_flags", columnList = "status, published, redeemed, id"),
+		@Index(name = "idx_cupons_status_expiration", columnList = "status, expiration_date, id"),
+		@Index(name = "idx_cupons_expiration", columnList = "expiration_date, id")
+})
 @Getter
 @Setter
 @Builder
@@ -19,13 +30,16 @@ import java.util.UUID;
 public class Cupom {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedUuid(IdStrategy.TIME_ORDERED)
 	@Column(columnDefinition = "UUID")
 	private UUID id;
 
 	@Column(nullable = false, length = 6, unique = true)
 	private String code;
 
+	@Column(name = "code_key", nullable = false)
+	private Long codeKey;
+
 	@Column(nullable = false)
 	private String description;
 
@@ -51,9 +65,31 @@ public class Cupom {
 	@Column
 	private Instant deletedAt;
 
+	/** Limite de resgates de um cupom de uso múltiplo; {@code null} é o cupom de uso único. */
+	@Column
+	private Integer maxRedemptions;
+
+	/** Total de resgates, consolidado periodicamente a partir das fatias nos cupons de uso múltiplo. */
+	@Builder.Default
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long redemptionCount = 0L;
+
+	@Builder.Default
+	@ElementCollection
+	@CollectionTable(name = "cupom_redemption_shards", joinColumns = @JoinColumn(name = "cupom_id"))
+	@OrderColumn(name = "shard")
+	private List<CupomRedemptionShard> redemptionShards = new ArrayList<>();
+
 	public boolean isDeleted() {
 		return deletedAt != null;
 	}
+
+	@PrePersist
+	@PreUpdate
+	void calcularCodeKey() {
+		codeKey = CupomCodeCodec.encode(code);
+	}
 }
 
 
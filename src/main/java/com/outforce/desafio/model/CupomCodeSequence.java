@@ -0,0 +1,31 @@
+package com.outforce.desafio.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Próxima posição livre da permutação de códigos gerados pelo servidor. Cada instância reserva um bloco de
+ * posições de uma vez (HiLo), então instâncias diferentes nunca geram o mesmo código.
+ */
+@Entity
+@Table(name = "cupom_code_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomCodeSequence {
+
+	public static final int ID = 1;
+
+	@Id
+	private Integer id;
+
+	@Column(nullable = false)
+	private Long nextValue;
+}
@@ -0,0 +1,27 @@
+package com.outforce.desafio.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Uma fatia do limite de resgates de um cupom de uso múltiplo: cada resgate consome uma unidade de
+ * {@code remaining} de uma única fatia, então resgates simultâneos do mesmo código se espalham por linhas
+ * diferentes em vez de disputarem a linha do cupom.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupomRedemptionShard {
+
+	@Column(nullable = false)
+	private Long remaining;
+
+	@Column(nullable = false)
+	private Long used;
+}
@@ -0,0 +1,161 @@
+package com.outforce.desafio.redemption;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.model.CupomRedemptionShard;
+import com.outforce.desafio.repository.CupomRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uso dos cupons de uso múltiplo. O limite é dividido na criação em até {@code shards} fatias
+ * ({@code cupom_redemption_shards}), e cada resgate consome uma unidade de uma fatia sorteada com um
+ * {@code UPDATE} condicional que nunca deixa a fatia negativa. A soma das fatias é o limite, então ele vale
+ * exatamente, sem que resgates simultâneos do mesmo código disputem a mesma linha; quando a fatia sorteada está
+ * vazia, as demais são tentadas em sequência antes de recusar.
+ * <p>
+ * O total em {@code cupons.redemption_count} é consolidado a cada {@code flush-interval-ms} só para os cupons
+ * que tiveram resgates desde a última consolidação, e uma vez para todos na subida (cobre os resgates que ficaram
+ * sem consolidar quando a aplicação parou). As fatias são a fonte da verdade; o total só serve a leitura.
+ */
+@Component
+public class CupomRedemptionCounters implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(CupomRedemptionCounters.class);
+
+	private final int fatias;
+	private final Cache<Long, Alvo> alvos;
+	private final Set<UUID> pendentes = ConcurrentHashMap.newKeySet();
+	private final LongAdder reservas = new LongAdder();
+	private final LongAdder fatiasVazias = new LongAdder();
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private CupomCache cupomCache;
+
+	public CupomRedemptionCounters(@Value("${cupom.redemption.shards:16}") int fatias,
+								   @Value("${cupom.cache.maximum-size:100000}") long tamanhoMaximo) {
+		this.fatias = fatias;
+		// o id e o número de fatias de um código nunca mudam: não há o que invalidar
+		this.alvos = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, alvos, "cupom.multi-use");
+		FunctionCounter.builder("cupom.redemption.shard.updates", reservas, LongAdder::sum)
+				.description("Resgates de uso múltiplo que consumiram uma unidade de uma fatia")
+				.tag("result", "reserved")
+				.register(registry);
+		FunctionCounter.builder("cupom.redemption.shard.updates", fatiasVazias, LongAdder::sum)
+				.description("Tentativas em fatias vazias ou de cupons que não podem ser resgatados")
+				.tag("result", "empty")
+				.register(registry);
+	}
+
+	/** Divide o limite em fatias quase iguais: nunca mais fatias que resgates, nenhuma fatia vazia. */
+	public List<CupomRedemptionShard> allowances(int maxRedemptions) {
+		int quantidade = Math.min(fatias, maxRedemptions);
+		List<CupomRedemptionShard> resultado = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			long limite = maxRedemptions / quantidade + (i < maxRedemptions % quantidade ? 1 : 0);
+			resultado.add(new CupomRedemptionShard(limite, 0L));
+		}
+		return resultado;
+	}
+
+	public Alvo getTarget(long codeKey) {
+		return alvos.getIfPresent(codeKey);
+	}
+
+	public Alvo registerTarget(long codeKey, UUID id) {
+		return alvos.get(codeKey, chave -> new Alvo(id, cupomRepository.countRedemptionShards(id)));
+	}
+
+	/**
+	 * Consome uma unidade do limite, começando por uma fatia sorteada. Devolve {@code false} quando nenhuma fatia
+	 * tem saldo ou o cupom não pode mais ser resgatado.
+	 */
+	public boolean reserve(Alvo alvo, LocalDate hoje) {
+		if (alvo.shards() == 0) {
+			return false;
+		}
+		int inicio = ThreadLocalRandom.current().nextInt(alvo.shards());
+		for (int i = 0; i < alvo.shards(); i++) {
+			int fatia = (inicio + i) % alvo.shards();
+			if (cupomRepository.reserveRedemption(alvo.id(), fatia, hoje) == 1) {
+				reservas.increment();
+				// contains antes do add: o código quente já está no conjunto, e a leitura não trava o bucket
+				if (!pendentes.contains(alvo.id())) {
+					pendentes.add(alvo.id());
+				}
+				return true;
+			}
+			fatiasVazias.increment();
+		}
+		return false;
+	}
+
+	@Scheduled(initialDelayString = "${cupom.redemption.flush-interval-ms:1000}",
+			fixedDelayString = "${cupom.redemption.flush-interval-ms:1000}")
+	public int flush() {
+		int consolidados = 0;
+		for (UUID id : pendentes) {
+			// remove antes de ler as fatias: um resgate que chegar durante a consolidação marca o cupom de novo
+			pendentes.remove(id);
+			try {
+				consolidados += cupomRepository.flushRedemptionCount(id);
+				cupomCache.invalidate(id);
+			} catch (RuntimeException ex) {
+				pendentes.add(id);
+				log.warn("Falha ao consolidar os resgates do cupom {}", id, ex);
+			}
+		}
+		return consolidados;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void flushAll() {
+		int consolidados = cupomRepository.flushAllRedemptionCounts();
+		if (consolidados > 0) {
+			cupomCache.invalidateAll();
+			log.info("Resgates de {} cupons de uso múltiplo consolidados na subida", consolidados);
+		}
+	}
+
+	public long reserved() {
+		return reservas.sum();
+	}
+
+	public long emptyShardAttempts() {
+		return fatiasVazias.sum();
+	}
+
+	public record Alvo(UUID id, int shards) {
+	}
+}
@@ -1,17 +1,102 @@
 package com.outforce.desafio.repository;
 
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.enums.CupomStatus;
 import com.outforce.desafio.model.Cupom;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface CupomRepository extends JpaRepository<Cupom, UUID> {
+public interface CupomRepository extends JpaRepository<Cupom, UUID>, JpaSpecificationExecutor<Cupom>,
+		CupomRepositoryCustom {
 
-	@Query("SELECT c FROM Cupom c WHERE c.code = :code")
-	Optional<Cupom> findByCode(@Param("code") String code);
+	@Query("SELECT c FROM Cupom c WHERE c.codeKey = :codeKey")
+	Optional<Cupom> findByCodeKey(@Param("codeKey") long codeKey);
+
+	default Optional<Cupom> findByCode(String code) {
+		return findByCodeKey(CupomCodeCodec.encode(code));
+	}
+
+	@Query("SELECT c.code FROM Cupom c WHERE c.codeKey IN :codeKeys")
+	Set<String> findExistingCodesByKey(@Param("codeKeys") Collection<Long> codeKeys);
+
+	default Set<String> findExistingCodes(Collection<String> codes) {
+		return findExistingCodesByKey(codes.stream().map(CupomCodeCodec::encode).toList());
+	}
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Cupom c SET c.redeemed = true, c.redemptionCount = 1 WHERE c.codeKey = :codeKey "
+			+ "AND c.maxRedemptions IS NULL AND c.status = :status AND c.published = true AND c.redeemed = false "
+			+ "AND c.deletedAt IS NULL AND c.expirationDate >= :hoje")
+	int redeemByCodeKey(@Param("codeKey") long codeKey, @Param("status") CupomStatus status, @Param("hoje") LocalDate hoje);
+
+	@Query("SELECT SIZE(c.redemptionShards) FROM Cupom c WHERE c.id = :id")
+	int countRedemptionShards(@Param("id") UUID id);
+
+	/** Grava no cupom a soma das fatias; com todas as fatias vazias o cupom fica como resgatado. */
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE cupons c SET redemption_count = (SELECT COALESCE(SUM(s.used), 0) "
+			+ "FROM cupom_redemption_shards s WHERE s.cupom_id = c.id), redeemed = NOT EXISTS (SELECT 1 "
+			+ "FROM cupom_redemption_shards s WHERE s.cupom_id = c.id AND s.remaining > 0) WHERE c.id = :id",
+			nativeQuery = true)
+	int flushRedemptionCount(@Param("id") UUID id);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE cupons c SET redemption_count = (SELECT COALESCE(SUM(s.used), 0) "
+			+ "FROM cupom_redemption_shards s WHERE s.cupom_id = c.id), redeemed = NOT EXISTS (SELECT 1 "
+			+ "FROM cupom_redemption_shards s WHERE s.cupom_id = c.id AND s.remaining > 0) "
+			+ "WHERE c.max_redemptions IS NOT NULL AND c.redemption_count <> (SELECT COALESCE(SUM(s.used), 0) "
+			+ "FROM cupom_redemption_shards s WHERE s.cupom_id = c.id)", nativeQuery = true)
+	int flushAllRedemptionCounts();
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Cupom c SET c.status = :status, c.deletedAt = :deletedAt WHERE c.id = :id AND c.deletedAt IS NULL")
+	int softDeleteById(@Param("id") UUID id, @Param("status") CupomStatus status, @Param("deletedAt") Instant deletedAt);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Cupom c SET c.status = :status, c.deletedAt = :deletedAt WHERE c.id IN :ids AND c.deletedAt IS NULL")
+	int softDeleteByIds(@Param("ids") Collection<UUID> ids, @Param("status") CupomStatus status,
+						@Param("deletedAt") Instant deletedAt);
+
+	@Query("SELECT c.id FROM Cupom c WHERE c.deletedAt = :deletedAt")
+	List<UUID> findIdsByDeletedAt(@Param("deletedAt") Instant deletedAt);
+
+	@Query("SELECT c.id FROM Cupom c WHERE c.id IN :ids AND c.deletedAt = :deletedAt")
+	List<UUID> findIdsByIdInAndDeletedAt(@Param("ids") Collection<UUID> ids, @Param("deletedAt") Instant deletedAt);
+
+	@Query("SELECT c.id FROM Cupom c WHERE c.status = :status AND c.expirationDate < :hoje "
+			+ "ORDER BY c.status, c.expirationDate, c.id")
+	List<UUID> findExpiredIds(@Param("status") CupomStatus status, @Param("hoje") LocalDate hoje, Limit limite);
+
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Cupom c SET c.status = :novoStatus WHERE c.id IN :ids AND c.status = :status AND c.expirationDate < :hoje")
+	int expireByIds(@Param("ids") Collection<UUID> ids, @Param("status") CupomStatus status,
+					@Param("novoStatus") CupomStatus novoStatus, @Param("hoje") LocalDate hoje);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+	@Query("SELECT c.codeKey FROM Cupom c")
+	Stream<Long> streamAllCodeKeys();
 }
@@ -0,0 +1,25 @@
+package com.outforce.desafio.repository;
+
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface CupomRepositoryCustom {
+
+	int softDeleteByFilter(CupomFilterDTO filtro, Instant deletedAt);
+
+	long exportByFilter(CupomFilterDTO filtro, Consumer<CupomResponseDTO> linha);
+
+	/**
+	 * Consome uma unidade de uma fatia do limite de um cupom de uso múltiplo, com as mesmas condições do resgate
+	 * de uso único. Só a linha da fatia é alterada; a do cupom é apenas lida.
+	 */
+	int reserveRedemption(UUID id, int shard, LocalDate hoje);
+
+	/** Reserva {@code tamanho} posições da sequência de códigos gerados e devolve a primeira. */
+	long reserveCodeBlock(int tamanho);
+}
@@ -0,0 +1,112 @@
+package com.outforce.desafio.repository;
+
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.model.CupomCodeSequence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class CupomRepositoryCustomImpl implements CupomRepositoryCustom {
+
+	private static final String RESERVA_RESGATE = "UPDATE cupom_redemption_shards s "
+			+ "SET remaining = remaining - 1, used = used + 1 "
+			+ "WHERE s.cupom_id = :id AND s.shard = :shard AND s.remaining > 0 AND EXISTS (SELECT 1 FROM cupons c "
+			+ "WHERE c.id = :id AND c.status = 'ACTIVE' AND c.published = TRUE AND c.deleted_at IS NULL "
+			+ "AND c.expiration_date >= :hoje)";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${cupom.export.fetch-size:1000}")
+	private int tamanhoFetchExportacao;
+
+	@Override
+	@Transactional
+	public int softDeleteByFilter(CupomFilterDTO filtro, Instant deletedAt) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Cupom> update = cb.createCriteriaUpdate(Cupom.class);
+		Root<Cupom> root = update.from(Cupom.class);
+
+		// os predicados do filtro não dependem da CriteriaQuery, então a mesma Specification da listagem serve ao update
+		Predicate predicadoFiltro = CupomSpecifications.comFiltro(filtro).toPredicate(root, null, cb);
+		update.set(root.<CupomStatus>get("status"), CupomStatus.DELETED)
+				.set(root.<Instant>get("deletedAt"), deletedAt)
+				.where(predicadoFiltro, cb.isNull(root.get("deletedAt")));
+
+		int alterados = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+		return alterados;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long exportByFilter(CupomFilterDTO filtro, Consumer<CupomResponseDTO> linha) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<CupomResponseDTO> consulta = cb.createQuery(CupomResponseDTO.class);
+		Root<Cupom> root = consulta.from(Cupom.class);
+
+		// projeção direto no DTO: nenhuma entidade entra no contexto de persistência, então a memória não cresce
+		// com o número de linhas; o cursor só anda para frente e busca tamanhoFetchExportacao linhas por vez
+		consulta.select(cb.construct(CupomResponseDTO.class, root.get("id"), root.get("code"), root.get("description"),
+						root.get("discountValue"), root.get("expirationDate"), root.get("status"), root.get("published"),
+						root.get("redeemed"), root.get("maxRedemptions"), root.get("redemptionCount")))
+				.where(CupomSpecifications.comFiltro(filtro).toPredicate(root, consulta, cb))
+				.orderBy(cb.asc(root.get("id")));
+
+		long linhas = 0;
+		try (Stream<CupomResponseDTO> resultado = entityManager.createQuery(consulta)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, tamanhoFetchExportacao)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream()) {
+			for (CupomResponseDTO cupom : (Iterable<CupomResponseDTO>) resultado::iterator) {
+				linha.accept(cupom);
+				linhas++;
+			}
+		}
+		return linhas;
+	}
+
+	@Override
+	@Transactional
+	public int reserveRedemption(UUID id, int shard, LocalDate hoje) {
+		// direto pelo EntityManager: é o comando de todo resgate de um código quente, e o caminho de um @Query
+		// @Modifying (proxy do repositório e clear do contexto) custava o dobro do próprio UPDATE
+		return entityManager.createNativeQuery(RESERVA_RESGATE)
+				.setParameter("id", id)
+				.setParameter("shard", shard)
+				.setParameter("hoje", hoje)
+				.executeUpdate();
+	}
+
+	@Override
+	@Transactional
+	public long reserveCodeBlock(int tamanho) {
+		// o lock da linha serializa as reservas entre instâncias; só é tomado uma vez por bloco
+		CupomCodeSequence sequencia = entityManager.find(CupomCodeSequence.class, CupomCodeSequence.ID,
+				LockModeType.PESSIMISTIC_WRITE);
+		if (sequencia == null) {
+			sequencia = new CupomCodeSequence(CupomCodeSequence.ID, 0L);
+			entityManager.persist(sequencia);
+		}
+		long inicio = sequencia.getNextValue();
+		sequencia.setNextValue(inicio + tamanho);
+		return inicio;
+	}
+}
@@ -0,0 +1,60 @@
+package com.outforce.desafio.repository;
+
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.model.Cupom;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class CupomSpecifications {
+
+	private CupomSpecifications() {
+	}
+
+	public static Specification<Cupom> comFiltro(CupomFilterDTO filtro) {
+		return (root, query, cb) -> {
+			List<Predicate> predicados = new ArrayList<>();
+			if (filtro.status() != null) {
+				predicados.add(cb.equal(root.get("status"), filtro.status()));
+			}
+			if (filtro.published() != null) {
+				predicados.add(cb.equal(root.get("published"), filtro.published()));
+			}
+			if (filtro.redeemed() != null) {
+				predicados.add(cb.equal(root.get("redeemed"), filtro.redeemed()));
+			}
+			if (filtro.expirationFrom() != null) {
+				predicados.add(cb.greaterThanOrEqualTo(root.get("expirationDate"), filtro.expirationFrom()));
+			}
+			if (filtro.expirationTo() != null) {
+				predicados.add(cb.lessThanOrEqualTo(root.get("expirationDate"), filtro.expirationTo()));
+			}
+			return cb.and(predicados.toArray(Predicate[]::new));
+		};
+	}
+
+	public static Specification<Cupom> ordenadoPor(List<String> atributos) {
+		return (root, query, cb) -> {
+			query.orderBy(atributos.stream().map(atributo -> cb.asc(root.get(atributo))).toList());
+			return null;
+		};
+	}
+
+	public static Specification<Cupom> aposId(UUID id) {
+		return (root, query, cb) -> id == null ? null : cb.greaterThan(root.get("id"), id);
+	}
+
+	public static Specification<Cupom> mesmaExpiracaoAposId(LocalDate expirationDate, UUID id) {
+		return (root, query, cb) -> cb.and(
+				cb.equal(root.get("expirationDate"), expirationDate),
+				cb.greaterThan(root.get("id"), id));
+	}
+
+	public static Specification<Cupom> expiracaoApos(LocalDate expirationDate) {
+		return (root, query, cb) -> cb.greaterThan(root.get("expirationDate"), expirationDate);
+	}
+}
@@ -1,14 +1,35 @@
 package com.outforce.desafio.service;
 
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.UUID;
 
 public interface CupomService {
 
 	CupomResponseDTO create(CupomRequestDTO cupomRequestDTO);
 
+	CupomBatchResponseDTO createBatch(List<CupomRequestDTO> cupomRequestDTOs);
+
+	CupomPageDTO list(CupomFilterDTO filtro, String cursor, int limit);
+
+	long export(CupomFilterDTO filtro, CupomExportFormat formato, OutputStream saida);
+
+	CupomResponseDTO findById(UUID id);
+
+	CupomResponseDTO findByCode(String code);
+
+	CupomResponseDTO redeem(String code);
+
 	void delete(UUID id);
-}
 
+	CupomBulkDeleteResponseDTO deleteBulk(CupomBulkDeleteRequestDTO request);
+}
@@ -1,103 +1,625 @@
 package com.outforce.desafio.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.audit.CupomAuditLog;
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.code.CupomCodeNormalizer;
+import com.outforce.desafio.dto.CupomBatchErrorDTO;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomEventType;
+import com.outforce.desafio.enums.CupomExportFormat;
 import com.outforce.desafio.enums.CupomStatus;
 import com.outforce.desafio.exception.BusinessException;
-import com.outforce.desafio.exception.NotFoundException;
+import com.outforce.desafio.exception.CupomErrors;
+import com.outforce.desafio.export.CupomExportWriter;
+import com.outforce.desafio.generator.CupomCodePool;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.mapper.CupomResponseToDtoMapper;
+import com.outforce.desafio.metrics.CupomMetrics;
 import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
 import com.outforce.desafio.repository.CupomRepository;
+import com.outforce.desafio.repository.CupomSpecifications;
 import com.outforce.desafio.service.CupomService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static com.outforce.desafio.mapper.CupomResponseToDtoMapper.toResponseDTO;
 
 @Service
 public class CupomServiceImpl implements CupomService {
 
+	private static final int TAMANHO_LOTE = 1000;
+	private static final int LIMITE_CRIACAO_EM_LOTE = 100_000;
+	private static final int LIMITE_MAXIMO_PAGINA = 500;
+	private static final int LIMITE_DELECAO_POR_IDS = 10_000;
+	private static final BigDecimal DESCONTO_MINIMO = new BigDecimal("0.5");
+
 	@Autowired
 	private CupomRepository cupomRepository;
 
+	@Autowired
+	private CupomCodeIndex codeIndex;
+
+	@Autowired
+	private CupomCache cupomCache;
+
+	@Autowired
+	private CupomCodeLookup codeLookup;
+
+	@Autowired
+	private CupomRedemptionCounters redemptionCounters;
+
+	@Autowired
+	private CupomMetrics cupomMetrics;
+
+	@Autowired(required = false)
+	private CupomAuditLog auditLog;
+
+	@Autowired(required = false)
+	private CupomCodePool codePool;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final AtomicLong ultimaDelecaoMicros = new AtomicLong();
+
 	@Override
 	public CupomResponseDTO create(CupomRequestDTO cupomRequestDTO) {
+		return cupomMetrics.medir("create", () -> criar(cupomRequestDTO));
+	}
+
+	private CupomResponseDTO criar(CupomRequestDTO cupomRequestDTO) {
 		validarCamposObrigatorios(cupomRequestDTO);
 
-		String codigoLimpo = removeCaracteresEspeciaisEValidaCupom(cupomRequestDTO.code());
+		boolean gerarCodigo = cupomRequestDTO.code() == null;
+		String codigoLimpo = null;
+		if (!gerarCodigo) {
+			codigoLimpo = removeCaracteresEspeciaisEValidaCupom(cupomRequestDTO.code());
 
-		validarCodigoDuplicado(codigoLimpo);
+			validarCodigoDuplicado(codigoLimpo);
+		}
 
 		validarDescontoEData(cupomRequestDTO);
 
-		Cupom cupom = Cupom.builder()
-				.code(codigoLimpo)
-				.description(cupomRequestDTO.description().trim())
-				.discountValue(cupomRequestDTO.discountValue())
-				.expirationDate(cupomRequestDTO.expirationDate())
-				.published(cupomRequestDTO.published() != null ? cupomRequestDTO.published() : false)
-				.build();
+		validarLimiteResgates(cupomRequestDTO);
 
-		Cupom savedCupom = cupomRepository.save(cupom);
+		if (gerarCodigo) {
+			// o código sai do pool já reservado no índice: não precisa da verificação de duplicidade
+			codigoLimpo = codePool.next();
+		}
+
+		Cupom savedCupom;
+		try {
+			Cupom cupom = montarCupom(cupomRequestDTO, codigoLimpo);
+			savedCupom = cupomMetrics.medirRepositorio("save", () -> cupomRepository.save(cupom));
+		} catch (DataIntegrityViolationException ex) {
+			throw CupomErrors.COUPON_CODE_DELETED;
+		}
+		codeIndex.add(codigoLimpo);
+		cupomCache.invalidateCode(codigoLimpo);
+		publicarEvento(CupomEventType.CREATED, savedCupom.getId(), codigoLimpo);
 
 		return toResponseDTO(savedCupom);
 	}
 
+	@Override
+	public CupomBatchResponseDTO createBatch(List<CupomRequestDTO> cupomRequestDTOs) {
+		return cupomMetrics.medir("createBatch", () -> criarLote(cupomRequestDTOs));
+	}
+
+	private CupomBatchResponseDTO criarLote(List<CupomRequestDTO> cupomRequestDTOs) {
+		if (cupomRequestDTOs.size() > LIMITE_CRIACAO_EM_LOTE) {
+			throw new BusinessException("COUPON_BATCH_SIZE",
+					"A criação em lote aceita até " + LIMITE_CRIACAO_EM_LOTE + " cupons");
+		}
+		List<CupomResponseDTO> criados = new ArrayList<>(cupomRequestDTOs.size());
+		List<CupomBatchErrorDTO> erros = new ArrayList<>();
+
+		for (int inicio = 0; inicio < cupomRequestDTOs.size(); inicio += TAMANHO_LOTE) {
+			int fim = Math.min(inicio + TAMANHO_LOTE, cupomRequestDTOs.size());
+			processarLote(cupomRequestDTOs, inicio, fim, criados, erros);
+		}
+
+		erros.sort(Comparator.comparingInt(CupomBatchErrorDTO::index));
+		erros.forEach(erro -> cupomMetrics.registrarErro("createBatch", erro.errorCode()));
+		return new CupomBatchResponseDTO(cupomRequestDTOs.size(), criados.size(), erros.size(), criados, erros);
+	}
+
+	@Override
+	public CupomPageDTO list(CupomFilterDTO filtro, String cursor, int limit) {
+		return cupomMetrics.medir("list", () -> listar(filtro, cursor, limit));
+	}
+
+	private CupomPageDTO listar(CupomFilterDTO filtro, String cursor, int limit) {
+		if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+			throw new BusinessException("COUPON_PAGE_LIMIT", "Limite da página deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+		}
+		boolean porExpiracao = filtro.expirationFrom() != null || filtro.expirationTo() != null;
+		PosicaoCursor posicao = decodificarCursor(cursor, porExpiracao);
+		Specification<Cupom> especificacao = CupomSpecifications.comFiltro(filtro);
+		Specification<Cupom> ordem = CupomSpecifications.ordenadoPor(ordemPaginacao(filtro, porExpiracao));
+
+		List<Cupom> cupons;
+		if (posicao == null) {
+			cupons = buscarPagina(especificacao, ordem, limit + 1);
+		} else if (!porExpiracao) {
+			cupons = buscarPagina(especificacao.and(CupomSpecifications.aposId(posicao.id())), ordem, limit + 1);
+		} else {
+			// (expiração, id) > cursor vira duas buscas por índice: o restante do mesmo dia e os dias seguintes
+			cupons = new ArrayList<>(buscarPagina(especificacao.and(
+					CupomSpecifications.mesmaExpiracaoAposId(posicao.expirationDate(), posicao.id())), ordem, limit + 1));
+			if (cupons.size() <= limit) {
+				cupons.addAll(buscarPagina(especificacao.and(
+						CupomSpecifications.expiracaoApos(posicao.expirationDate())), ordem, limit + 1 - cupons.size()));
+			}
+		}
+
+		boolean temProxima = cupons.size() > limit;
+		List<Cupom> pagina = temProxima ? cupons.subList(0, limit) : cupons;
+		String proximoCursor = temProxima ? codificarCursor(pagina.get(limit - 1), porExpiracao) : null;
+		return new CupomPageDTO(pagina.stream().map(CupomResponseToDtoMapper::toResponseDTO).toList(), proximoCursor);
+	}
+
+	@Override
+	public long export(CupomFilterDTO filtro, CupomExportFormat formato, OutputStream saida) {
+		return cupomMetrics.medir("export", () -> exportar(filtro, formato, saida));
+	}
+
+	private long exportar(CupomFilterDTO filtro, CupomExportFormat formato, OutputStream saida) {
+		CupomExportWriter escritor = CupomExportWriter.of(formato, saida, objectMapper);
+		long linhas = cupomRepository.exportByFilter(filtro, escritor::write);
+		escritor.finish();
+		return linhas;
+	}
+
+	@Override
+	public CupomResponseDTO findById(UUID id) {
+		return cupomMetrics.medir("findById", () -> buscarPorId(id));
+	}
+
+	private CupomResponseDTO buscarPorId(UUID id) {
+		CupomResponseDTO cupom = cupomCache.getById(id,
+				chave -> cupomRepository.findById(chave).map(CupomResponseToDtoMapper::toResponseDTO).orElse(null));
+		if (cupom == null) {
+			throw CupomErrors.COUPON_NOT_FOUND;
+		}
+		return cupom;
+	}
+
+	@Override
+	public CupomResponseDTO findByCode(String code) {
+		return cupomMetrics.medir("findByCode", () -> buscarPorCodigo(code));
+	}
+
+	private CupomResponseDTO buscarPorCodigo(String code) {
+		long chave = CupomCodeNormalizer.normalizeToKey(code);
+		if (chave == CupomCodeNormalizer.INVALIDO) {
+			throw CupomErrors.COUPON_CODE_LENGTH;
+		}
+		CupomResponseDTO cupom = cupomCache.getByCodeKey(chave, this::carregarPorCodigo);
+		if (cupom == null) {
+			throw CupomErrors.COUPON_NOT_FOUND;
+		}
+		return cupom;
+	}
+
+	@Override
+	public CupomResponseDTO redeem(String code) {
+		return cupomMetrics.medir("redeem", () -> resgatar(code));
+	}
+
+	private CupomResponseDTO resgatar(String code) {
+		long chave = CupomCodeNormalizer.normalizeToKey(code);
+		if (chave == CupomCodeNormalizer.INVALIDO) {
+			throw CupomErrors.COUPON_CODE_LENGTH;
+		}
+		String rejeicaoConhecida = cupomCache.getRedemptionRejection(chave);
+		if (rejeicaoConhecida != null) {
+			throw erroResgate(rejeicaoConhecida);
+		}
+		if (codeIndex.isReady() && !codeIndex.containsKey(chave)) {
+			throw CupomErrors.COUPON_NOT_FOUND;
+		}
+		CupomRedemptionCounters.Alvo alvo = redemptionCounters.getTarget(chave);
+		if (alvo != null) {
+			return resgatarUsoMultiplo(chave, alvo);
+		}
+
+		int alterados = cupomMetrics.medirRepositorio("redeemByCodeKey",
+				() -> cupomRepository.redeemByCodeKey(chave, CupomStatus.ACTIVE, LocalDate.now()));
+		Cupom cupom = cupomRepository.findByCodeKey(chave)
+				.orElseThrow(() -> CupomErrors.COUPON_NOT_FOUND);
+		if (alterados == 1) {
+			cupomCache.invalidate(cupom.getId());
+			cupomCache.putRedemptionRejection(chave, "COUPON_ALREADY_REDEEMED");
+			publicarEvento(CupomEventType.REDEEMED, cupom.getId(), cupom.getCode());
+			return toResponseDTO(cupom);
+		}
+		if (cupom.getMaxRedemptions() != null) {
+			// primeiro resgate deste código desde a subida (ou desde que saiu do cache): daqui em diante vai
+			// direto para as fatias, sem tocar a linha do cupom
+			return resgatarUsoMultiplo(chave, redemptionCounters.registerTarget(chave, cupom.getId()));
+		}
+
+		throw rejeitarResgate(chave, cupom);
+	}
+
+	private CupomResponseDTO resgatarUsoMultiplo(long chave, CupomRedemptionCounters.Alvo alvo) {
+		LocalDate hoje = LocalDate.now();
+		CupomResponseDTO cupom = cupomCache.getById(alvo.id(),
+				id -> cupomRepository.findById(id).map(CupomResponseToDtoMapper::toResponseDTO).orElse(null));
+		// o cache descarta de cara o que não pode ser resgatado; o UPDATE da fatia repete as condições
+		boolean resgatavel = cupom != null && cupom.status() == CupomStatus.ACTIVE && cupom.published()
+				&& !cupom.redeemed() && !cupom.expirationDate().isBefore(hoje);
+		if (resgatavel && cupomMetrics.medirRepositorio("reserveRedemption",
+				() -> redemptionCounters.reserve(alvo, hoje))) {
+			publicarEvento(CupomEventType.REDEEMED, cupom.id(), cupom.code());
+			// o total de resgates devolvido é o da última consolidação
+			return cupom;
+		}
+		Cupom atual = cupomRepository.findById(alvo.id())
+				.orElseThrow(() -> CupomErrors.COUPON_NOT_FOUND);
+		throw rejeitarResgate(chave, atual);
+	}
+
+	private BusinessException rejeitarResgate(long chave, Cupom cupom) {
+		String rejeicao = motivoRejeicaoResgate(cupom);
+		if (rejeicao.equals("COUPON_ALREADY_REDEEMED") || rejeicao.equals("COUPON_REDEMPTION_LIMIT_REACHED")
+				|| rejeicao.equals("COUPON_DELETED")) {
+			cupomCache.putRedemptionRejection(chave, rejeicao);
+		}
+		return erroResgate(rejeicao);
+	}
+
 	@Override
 	public void delete(UUID id) {
-		Cupom cupom = cupomRepository.findById(id)
-				.orElseThrow(() -> new NotFoundException("Cupom não encontrado"));
+		cupomMetrics.medir("delete", () -> deletar(id));
+	}
+
+	private void deletar(UUID id) {
+		int alterados = cupomMetrics.medirRepositorio("softDeleteById",
+				() -> cupomRepository.softDeleteById(id, CupomStatus.DELETED, instanteDelecao()));
+		if (alterados == 0) {
+			if (!cupomRepository.existsById(id)) {
+				throw CupomErrors.COUPON_NOT_FOUND;
+			}
+			throw CupomErrors.COUPON_ALREADY_DELETED;
+		}
+		cupomCache.invalidate(id);
+		publicarEvento(CupomEventType.DELETED, id, null);
+	}
 
+	@Override
+	public CupomBulkDeleteResponseDTO deleteBulk(CupomBulkDeleteRequestDTO request) {
+		return cupomMetrics.medir("deleteBulk", () -> deletarEmLote(request));
+	}
+
+	private CupomBulkDeleteResponseDTO deletarEmLote(CupomBulkDeleteRequestDTO request) {
+		boolean porIds = request.ids() != null;
+		boolean porFiltro = request.filter() != null;
+		if (porIds == porFiltro) {
+			throw new BusinessException("COUPON_BULK_DELETE_CRITERIA", "Informe ids ou filter para a deleção em lote");
+		}
+		Instant agora = instanteDelecao();
+
+		if (porIds) {
+			List<UUID> ids = request.ids().stream().filter(Objects::nonNull).distinct().toList();
+			if (ids.isEmpty() || ids.size() > LIMITE_DELECAO_POR_IDS) {
+				throw new BusinessException("COUPON_BULK_DELETE_IDS",
+						"A deleção em lote aceita de 1 a " + LIMITE_DELECAO_POR_IDS + " ids");
+			}
+			int deletados = cupomRepository.softDeleteByIds(ids, CupomStatus.DELETED, agora);
+			ids.forEach(cupomCache::invalidate);
+			if (auditLog != null && deletados > 0) {
+				List<UUID> deletadosAgora = deletados == ids.size()
+						? ids : cupomRepository.findIdsByIdInAndDeletedAt(ids, agora);
+				deletadosAgora.forEach(deletado -> publicarEvento(CupomEventType.DELETED, deletado, null));
+			}
+			return new CupomBulkDeleteResponseDTO(deletados);
+		}
+
+		CupomFilterDTO filtro = request.filter();
+		if (filtro.status() == null && filtro.published() == null && filtro.redeemed() == null
+				&& filtro.expirationFrom() == null && filtro.expirationTo() == null) {
+			throw new BusinessException("COUPON_BULK_DELETE_CRITERIA", "O filtro da deleção em lote não pode ser vazio");
+		}
+		int deletados = cupomRepository.softDeleteByFilter(filtro, agora);
+		if (deletados > 0) {
+			cupomCache.invalidateAll();
+			if (auditLog != null) {
+				cupomRepository.findIdsByDeletedAt(agora)
+						.forEach(deletado -> publicarEvento(CupomEventType.DELETED, deletado, null));
+			}
+		}
+		return new CupomBulkDeleteResponseDTO(deletados);
+	}
+
+	private List<Cupom> buscarPagina(Specification<Cupom> especificacao, Specification<Cupom> ordem, int quantidade) {
+		// a ordem vai na Specification: sortBy() do fluent query repete a última coluna no ORDER BY,
+		// o que impede o H2 de usar o índice composto para ordenar
+		return cupomRepository.findBy(especificacao.and(ordem), consulta -> consulta.limit(quantidade).all());
+	}
+
+	private List<String> ordemPaginacao(CupomFilterDTO filtro, boolean porExpiracao) {
+		// colunas filtradas por igualdade no início da ordenação não mudam a ordem, mas permitem
+		// que o banco percorra o índice composto já ordenado em vez de ordenar todas as linhas filtradas
+		List<String> colunas = new ArrayList<>(4);
+		if (filtro.status() != null) {
+			colunas.add("status");
+			if (!porExpiracao && filtro.published() != null) {
+				colunas.add("published");
+				if (filtro.redeemed() != null) {
+					colunas.add("redeemed");
+				}
+			}
+		}
+		if (porExpiracao) {
+			colunas.add("expirationDate");
+		}
+		colunas.add("id");
+		return colunas;
+	}
+
+	private String codificarCursor(Cupom ultimo, boolean porExpiracao) {
+		ByteBuffer bytes = ByteBuffer.allocate(porExpiracao ? 24 : 16)
+				.putLong(ultimo.getId().getMostSignificantBits())
+				.putLong(ultimo.getId().getLeastSignificantBits());
+		if (porExpiracao) {
+			bytes.putLong(ultimo.getExpirationDate().toEpochDay());
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+	}
+
+	private PosicaoCursor decodificarCursor(String cursor, boolean porExpiracao) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+			if (bytes.length != (porExpiracao ? 24 : 16)) {
+				throw new IllegalArgumentException();
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			UUID id = new UUID(buffer.getLong(), buffer.getLong());
+			return new PosicaoCursor(id, porExpiracao ? LocalDate.ofEpochDay(buffer.getLong()) : null);
+		} catch (IllegalArgumentException | DateTimeException ex) {
+			throw new BusinessException("COUPON_INVALID_CURSOR", "Cursor de paginação inválido");
+		}
+	}
+
+	private String motivoRejeicaoResgate(Cupom cupom) {
 		if (cupom.isDeleted()) {
-			throw new BusinessException("COUPON_ALREADY_DELETED", "Cupom já foi deletado");
+			return "COUPON_DELETED";
+		}
+		String esgotado = cupom.getMaxRedemptions() != null
+				? "COUPON_REDEMPTION_LIMIT_REACHED" : "COUPON_ALREADY_REDEEMED";
+		if (cupom.getRedeemed()) {
+			return esgotado;
+		}
+		if (cupom.getStatus() != CupomStatus.ACTIVE) {
+			return "COUPON_INACTIVE";
+		}
+		if (!cupom.getPublished()) {
+			return "COUPON_NOT_PUBLISHED";
 		}
+		if (cupom.getExpirationDate().isBefore(LocalDate.now())) {
+			return "COUPON_EXPIRED";
+		}
+		// o update não alterou a linha, mas a leitura seguinte já não mostra o motivo: outro resgate venceu
+		// (ou, no uso múltiplo, levou a última unidade antes da consolidação marcar o cupom)
+		return esgotado;
+	}
+
+	private BusinessException erroResgate(String code) {
+		return switch (code) {
+			case "COUPON_DELETED" -> CupomErrors.COUPON_DELETED;
+			case "COUPON_INACTIVE" -> CupomErrors.COUPON_INACTIVE;
+			case "COUPON_NOT_PUBLISHED" -> CupomErrors.COUPON_NOT_PUBLISHED;
+			case "COUPON_EXPIRED" -> CupomErrors.COUPON_EXPIRED;
+			case "COUPON_REDEMPTION_LIMIT_REACHED" -> CupomErrors.COUPON_REDEMPTION_LIMIT_REACHED;
+			default -> CupomErrors.COUPON_ALREADY_REDEEMED;
+		};
+	}
+
+	private CupomCache.Leitura carregarPorCodigo(long codeKey) {
+		if (codeIndex.isReady() && !codeIndex.containsKey(codeKey)) {
+			return new CupomCache.Leitura(null, CupomCache.SEM_GERACAO);
+		}
+		return codeLookup.findByCodeKey(codeKey, cupomCache::generation,
+				chave -> cupomRepository.findByCodeKey(chave).map(CupomResponseToDtoMapper::toResponseDTO).orElse(null));
+	}
+
+	private void processarLote(List<CupomRequestDTO> dtos, int inicio, int fim,
+							   List<CupomResponseDTO> criados, List<CupomBatchErrorDTO> erros) {
+		Map<String, Integer> indicePorCodigo = new HashMap<>();
+		Set<String> gerados = new HashSet<>();
+		List<Cupom> validos = new ArrayList<>(fim - inicio);
+
+		for (int i = inicio; i < fim; i++) {
+			CupomRequestDTO dto = dtos.get(i);
+			try {
+				if (dto == null) {
+					throw CupomErrors.COUPON_REQUIRED;
+				}
+				validarCamposObrigatorios(dto);
+				String codigoLimpo = dto.code() != null ? removeCaracteresEspeciaisEValidaCupom(dto.code()) : null;
+				validarDescontoEData(dto);
+				validarLimiteResgates(dto);
+				if (codigoLimpo == null) {
+					codigoLimpo = codePool.next();
+					gerados.add(codigoLimpo);
+				}
+				if (indicePorCodigo.putIfAbsent(codigoLimpo, i) != null) {
+					throw CupomErrors.COUPON_CODE_DUPLICATED_IN_BATCH;
+				}
+				validos.add(montarCupom(dto, codigoLimpo));
+			} catch (BusinessException ex) {
+				erros.add(new CupomBatchErrorDTO(i, dto != null ? dto.code() : null, ex.getCode(), ex.getMessage()));
+			}
+		}
+
+		if (validos.isEmpty()) {
+			return;
+		}
+
+		Set<String> existentes = codeIndex.isReady()
+				? indicePorCodigo.keySet().stream()
+						.filter(codigo -> !gerados.contains(codigo) && codeIndex.contains(codigo))
+						.collect(Collectors.toSet())
+				: cupomMetrics.medirRepositorio("findExistingCodes",
+						() -> cupomRepository.findExistingCodes(indicePorCodigo.keySet()));
+		List<Cupom> novos = new ArrayList<>(validos.size());
+		for (Cupom cupom : validos) {
+			if (existentes.contains(cupom.getCode())) {
+				erros.add(erroCodigoDuplicado(indicePorCodigo.get(cupom.getCode()), cupom.getCode()));
+			} else {
+				novos.add(cupom);
+			}
+		}
+
+		salvarLote(novos, indicePorCodigo, criados, erros);
+	}
+
+	private void salvarLote(List<Cupom> novos, Map<String, Integer> indicePorCodigo,
+							List<CupomResponseDTO> criados, List<CupomBatchErrorDTO> erros) {
+		if (novos.isEmpty()) {
+			return;
+		}
+		try {
+			cupomMetrics.medirRepositorio("saveAll", () -> cupomRepository.saveAll(novos)).forEach(cupom -> {
+				codeIndex.add(cupom.getCode());
+				cupomCache.invalidateCode(cupom.getCode());
+				publicarEvento(CupomEventType.CREATED, cupom.getId(), cupom.getCode());
+				criados.add(toResponseDTO(cupom));
+			});
+		} catch (DataIntegrityViolationException ex) {
+			for (Cupom cupom : novos) {
+				cupom.setId(null);
+				try {
+					Cupom salvo = cupomRepository.save(cupom);
+					criados.add(toResponseDTO(salvo));
+					codeIndex.add(cupom.getCode());
+					cupomCache.invalidateCode(cupom.getCode());
+					publicarEvento(CupomEventType.CREATED, salvo.getId(), salvo.getCode());
+				} catch (DataIntegrityViolationException conflito) {
+					erros.add(erroCodigoDuplicado(indicePorCodigo.get(cupom.getCode()), cupom.getCode()));
+				}
+			}
+		}
+	}
+
+	private void publicarEvento(CupomEventType tipo, UUID id, String code) {
+		if (auditLog != null) {
+			auditLog.append(tipo, id, code);
+		}
+	}
+
+	private Instant instanteDelecao() {
+		// cada deleção grava um deleted_at diferente: é por ele que se descobre quais linhas uma deleção em lote
+		// alterou de fato, para publicar os eventos
+		long agora = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+		long micros = ultimaDelecaoMicros.updateAndGet(ultimo -> Math.max(ultimo + 1, agora));
+		return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+	}
+
+	private Cupom montarCupom(CupomRequestDTO dto, String codigoLimpo) {
+		return Cupom.builder()
+				.code(codigoLimpo)
+				.description(dto.description().trim())
+				.discountValue(dto.discountValue())
+				.expirationDate(dto.expirationDate())
+				.published(dto.published() != null ? dto.published() : false)
+				.maxRedemptions(dto.maxRedemptions())
+				.redemptionShards(dto.maxRedemptions() != null
+						? redemptionCounters.allowances(dto.maxRedemptions()) : new ArrayList<>())
+				.build();
+	}
 
-		cupom.setStatus(CupomStatus.DELETED);
-		cupom.setDeletedAt(Instant.now());
-		cupomRepository.save(cupom);
+	private CupomBatchErrorDTO erroCodigoDuplicado(int indice, String code) {
+		return new CupomBatchErrorDTO(indice, code, "COUPON_CODE_DELETED", "Código do cupom com Status deletado");
 	}
 
 	private void validarCamposObrigatorios(CupomRequestDTO dto) {
-		if (dto.code() == null || dto.code().isBlank()) {
-			throw new BusinessException("COUPON_CODE_REQUIRED", "Código do cupom é obrigatório");
+		// sem código o servidor gera um, se o pool de códigos estiver ligado; em branco continua inválido
+		if (dto.code() == null ? codePool == null : dto.code().isBlank()) {
+			throw CupomErrors.COUPON_CODE_REQUIRED;
 		}
 		if (dto.description() == null || dto.description().isBlank()) {
-			throw new BusinessException("COUPON_DESCRIPTION_REQUIRED", "Descrição do cupom é obrigatória");
+			throw CupomErrors.COUPON_DESCRIPTION_REQUIRED;
 		}
 		if (dto.discountValue() == null) {
-			throw new BusinessException("COUPON_DISCOUNT_REQUIRED", "Valor de desconto é obrigatório");
+			throw CupomErrors.COUPON_DISCOUNT_REQUIRED;
 		}
 		if (dto.expirationDate() == null) {
-			throw new BusinessException("COUPON_EXPIRATION_REQUIRED", "Data de expiração é obrigatória");
+			throw CupomErrors.COUPON_EXPIRATION_REQUIRED;
 		}
 	}
 
 	private String removeCaracteresEspeciaisEValidaCupom(String code) {
-		String codigoLimpo = code.replaceAll("[^A-Za-z0-9]", "");
-		if (codigoLimpo.length() != 6) {
-			throw new BusinessException("COUPON_CODE_LENGTH", "Código do cupom deve ter 6 caracteres alfanuméricos");
+		String codigoLimpo = CupomCodeNormalizer.normalize(code);
+		if (codigoLimpo == null) {
+			throw CupomErrors.COUPON_CODE_LENGTH;
 		}
-		return codigoLimpo.toUpperCase();
+		return codigoLimpo;
 	}
 
 	private void validarDescontoEData(CupomRequestDTO dto) {
-		if (dto.discountValue().compareTo(new BigDecimal("0.5")) < 0) {
-			throw new BusinessException("COUPON_DISCOUNT_MIN", "Valor de desconto deve ser no mínimo 0.5");
+		if (dto.discountValue().compareTo(DESCONTO_MINIMO) < 0) {
+			throw CupomErrors.COUPON_DISCOUNT_MIN;
 		}
 
 		if (dto.expirationDate().isBefore(LocalDate.now())) {
-			throw new BusinessException("COUPON_EXPIRATION_PAST", "Data de expiração não pode estar no passado");
+			throw CupomErrors.COUPON_EXPIRATION_PAST;
+		}
+	}
+
+	private void validarLimiteResgates(CupomRequestDTO dto) {
+		if (dto.maxRedemptions() != null && dto.maxRedemptions() < 1) {
+			throw CupomErrors.COUPON_MAX_REDEMPTIONS_MIN;
 		}
 	}
 
 	private void validarCodigoDuplicado(String code) {
-		cupomRepository.findByCode(code).ifPresent(cupom -> {
-			throw new BusinessException("COUPON_CODE_DELETED", "Código do cupom com Status deletado");
-		});
+		boolean existe = codeIndex.isReady()
+				? codeIndex.contains(code)
+				: cupomMetrics.medirRepositorio("findByCode", () -> codeLookup.findByCodeKey(CupomCodeCodec.encode(code),
+						chave -> cupomRepository.findByCode(code).map(CupomResponseToDtoMapper::toResponseDTO).orElse(null))) != null;
+		if (existe) {
+			throw CupomErrors.COUPON_CODE_DELETED;
+		}
 	}
-}
 
+	private record PosicaoCursor(UUID id, LocalDate expirationDate) {
+	}
+}
@@ -0,0 +1,16 @@
+package com.outforce.desafio.sql;
+
+/**
+ * Uma execução de comando SQL: texto, parâmetros ligados (somando todos os itens de um lote), itens do lote
+ * (0 fora de lote), linhas lidas ou alteradas (-1 quando o driver não informa), duração e se passou do limite.
+ */
+public record SqlTrace(
+		String sql,
+		int binds,
+		int batch,
+		long rows,
+		long durationMicros,
+		boolean slow,
+		String thread
+) {
+}
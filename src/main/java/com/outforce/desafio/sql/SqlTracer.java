@@ -0,0 +1,114 @@
+package com.outforce.desafio.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rastreamento de SQL amostrado. Cada comando é medido no {@link TracingDataSource}; os sorteados pela taxa de
+ * amostragem e os que passam do limite de lentidão entram em uma fila limitada, escrita como JSON por uma thread
+ * própria no logger {@code cupom.sql}. Quem executa o SQL nunca espera pelo log: com a fila cheia, o registro
+ * é descartado e contado em {@code cupom.sql.trace.dropped}.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.sql-trace.enabled", havingValue = "true")
+public class SqlTracer implements MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger("cupom.sql");
+
+	private final double taxaAmostragem;
+	private final long limiteLentoNanos;
+	private final BlockingQueue<SqlTrace> fila;
+	private final Thread escritor;
+	private final ObjectMapper json = new ObjectMapper();
+	private final LongAdder descartados = new LongAdder();
+	private final LongAdder lentos = new LongAdder();
+	private volatile boolean ativo = true;
+
+	public SqlTracer(@Value("${cupom.sql-trace.sample-rate:0.01}") double taxaAmostragem,
+					 @Value("${cupom.sql-trace.slow-threshold-ms:50}") long limiteLentoMs,
+					 @Value("${cupom.sql-trace.queue-capacity:8192}") int capacidadeFila) {
+		this.taxaAmostragem = taxaAmostragem;
+		this.limiteLentoNanos = TimeUnit.MILLISECONDS.toNanos(limiteLentoMs);
+		this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+		this.escritor = new Thread(this::escrever, "sql-trace-writer");
+		this.escritor.setDaemon(true);
+		this.escritor.start();
+	}
+
+	boolean sortear() {
+		return taxaAmostragem >= 1.0 || (taxaAmostragem > 0 && ThreadLocalRandom.current().nextDouble() < taxaAmostragem);
+	}
+
+	void registrar(boolean amostrado, String sql, int binds, int lote, long linhas, long duracaoNanos) {
+		boolean lento = duracaoNanos >= limiteLentoNanos;
+		if (lento) {
+			lentos.increment();
+		}
+		if (!amostrado && !lento) {
+			return;
+		}
+		SqlTrace trace = new SqlTrace(sql, binds, lote, linhas, TimeUnit.NANOSECONDS.toMicros(duracaoNanos), lento,
+				Thread.currentThread().getName());
+		if (!fila.offer(trace)) {
+			descartados.increment();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("cupom.sql.trace.dropped", descartados, LongAdder::sum)
+				.description("Registros de SQL descartados com a fila de escrita cheia")
+				.register(registry);
+		FunctionCounter.builder("cupom.sql.slow", lentos, LongAdder::sum)
+				.description("Comandos SQL acima do limite de lentidão")
+				.register(registry);
+	}
+
+	@PreDestroy
+	public void encerrar() throws InterruptedException {
+		ativo = false;
+		escritor.interrupt();
+		escritor.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	private void escrever() {
+		while (ativo || !fila.isEmpty()) {
+			try {
+				SqlTrace trace = ativo ? fila.take() : fila.poll();
+				if (trace != null) {
+					escrever(trace);
+				}
+			} catch (InterruptedException ex) {
+				// segue o laço para esvaziar a fila antes de sair
+			}
+		}
+	}
+
+	void escrever(SqlTrace trace) {
+		try {
+			String linha = json.writeValueAsString(trace);
+			if (trace.slow()) {
+				log.warn(linha);
+			} else {
+				log.info(linha);
+			}
+		} catch (JsonProcessingException ex) {
+			log.warn("Falha ao serializar registro de SQL: {}", ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package com.outforce.desafio.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.BitSet;
+
+/**
+ * Envolve as conexões do pool para medir cada comando: tempo de execução, parâmetros ligados e linhas. A linha
+ * de um {@code SELECT} só é conhecida quando o {@link ResultSet} é fechado (ou o comando, o que vier antes),
+ * então é nesse momento que o registro vai para o {@link SqlTracer}; a duração é só a da execução.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+	private final SqlTracer tracer;
+
+	public TracingDataSource(DataSource alvo, SqlTracer tracer) {
+		super(alvo);
+		this.tracer = tracer;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return envolver(obtainTargetDataSource().getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return envolver(obtainTargetDataSource().getConnection(username, password));
+	}
+
+	private Connection envolver(Connection conexao) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+				new ConexaoRastreada(conexao));
+	}
+
+	private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+		try {
+			return metodo.invoke(alvo, args);
+		} catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private final class ConexaoRastreada implements InvocationHandler {
+
+		private final Connection conexao;
+
+		private ConexaoRastreada(Connection conexao) {
+			this.conexao = conexao;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+			Object resultado = invocar(conexao, metodo, args);
+			return switch (metodo.getName()) {
+				case "prepareStatement" ->
+						envolver(PreparedStatement.class, (Statement) resultado, (String) args[0]);
+				case "prepareCall" -> envolver(CallableStatement.class, (Statement) resultado, (String) args[0]);
+				case "createStatement" -> envolver(Statement.class, (Statement) resultado, null);
+				default -> resultado;
+			};
+		}
+
+		private Object envolver(Class<?> tipo, Statement comando, String sql) {
+			return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo},
+					new ComandoRastreado(comando, sql, tracer.sortear()));
+		}
+	}
+
+	private final class ComandoRastreado implements InvocationHandler {
+
+		private final Statement comando;
+		private final String sqlPreparado;
+		private final boolean amostrado;
+		private final BitSet parametros = new BitSet();
+		private int bindsLote;
+		private int itensLote;
+		private Consulta consultaAberta;
+
+		private ComandoRastreado(Statement comando, String sqlPreparado, boolean amostrado) {
+			this.comando = comando;
+			this.sqlPreparado = sqlPreparado;
+			this.amostrado = amostrado;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+			String nome = metodo.getName();
+			if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+				parametros.set(indice);
+				return invocar(comando, metodo, args);
+			}
+			switch (nome) {
+				case "addBatch" -> {
+					bindsLote += parametros.cardinality();
+					itensLote++;
+					parametros.clear();
+					return invocar(comando, metodo, args);
+				}
+				case "clearParameters" -> {
+					parametros.clear();
+					return invocar(comando, metodo, args);
+				}
+				case "executeQuery" -> {
+					fecharConsulta();
+					String sql = sql(args);
+					long inicio = System.nanoTime();
+					ResultSet resultado = (ResultSet) invocar(comando, metodo, args);
+					consultaAberta = new Consulta(sql, parametros.cardinality(), System.nanoTime() - inicio);
+					return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+							new ResultadoRastreado(resultado, consultaAberta));
+				}
+				case "executeUpdate", "executeLargeUpdate", "execute" -> {
+					fecharConsulta();
+					String sql = sql(args);
+					long inicio = System.nanoTime();
+					Object resultado = invocar(comando, metodo, args);
+					long duracao = System.nanoTime() - inicio;
+					long linhas = resultado instanceof Number numero ? numero.longValue()
+							: Boolean.TRUE.equals(resultado) ? -1 : comando.getUpdateCount();
+					tracer.registrar(amostrado, sql, parametros.cardinality(), 0, linhas, duracao);
+					return resultado;
+				}
+				case "executeBatch", "executeLargeBatch" -> {
+					fecharConsulta();
+					long inicio = System.nanoTime();
+					Object resultado = invocar(comando, metodo, args);
+					long duracao = System.nanoTime() - inicio;
+					tracer.registrar(amostrado, sqlPreparado, bindsLote, itensLote, somar(resultado), duracao);
+					bindsLote = 0;
+					itensLote = 0;
+					return resultado;
+				}
+				case "close" -> {
+					fecharConsulta();
+					return invocar(comando, metodo, args);
+				}
+				default -> {
+					return invocar(comando, metodo, args);
+				}
+			}
+		}
+
+		private String sql(Object[] args) {
+			return args != null && args.length > 0 && args[0] instanceof String sql ? sql : sqlPreparado;
+		}
+
+		private void fecharConsulta() {
+			if (consultaAberta != null) {
+				consultaAberta.concluir();
+				consultaAberta = null;
+			}
+		}
+
+		private static long somar(Object resultado) {
+			long total = 0;
+			if (resultado instanceof int[] contagens) {
+				for (int contagem : contagens) {
+					total += Math.max(contagem, 0);
+				}
+			} else if (resultado instanceof long[] contagens) {
+				for (long contagem : contagens) {
+					total += Math.max(contagem, 0);
+				}
+			}
+			return total;
+		}
+
+		private final class Consulta {
+
+			private final String sql;
+			private final int binds;
+			private final long duracaoNanos;
+			private long linhas;
+			private boolean concluida;
+
+			private Consulta(String sql, int binds, long duracaoNanos) {
+				this.sql = sql;
+				this.binds = binds;
+				this.duracaoNanos = duracaoNanos;
+			}
+
+			private void concluir() {
+				if (!concluida) {
+					concluida = true;
+					tracer.registrar(amostrado, sql, binds, 0, linhas, duracaoNanos);
+				}
+			}
+		}
+	}
+
+	private static final class ResultadoRastreado implements InvocationHandler {
+
+		private final ResultSet resultado;
+		private final ComandoRastreado.Consulta consulta;
+
+		private ResultadoRastreado(ResultSet resultado, ComandoRastreado.Consulta consulta) {
+			this.resultado = resultado;
+			this.consulta = consulta;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+			Object retorno = invocar(resultado, metodo, args);
+			switch (metodo.getName()) {
+				case "next" -> {
+					if (Boolean.TRUE.equals(retorno)) {
+						consulta.linhas++;
+					}
+				}
+				case "close" -> consulta.concluir();
+				default -> {
+				}
+			}
+			return retorno;
+		}
+	}
+}
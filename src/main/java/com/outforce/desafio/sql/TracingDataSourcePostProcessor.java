@@ -0,0 +1,31 @@
+package com.outforce.desafio.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Troca o {@link DataSource} do contexto por um {@link TracingDataSource} quando o rastreamento de SQL está ligado.
+ * O {@link SqlTracer} é obtido só na hora de envolver, para não ser criado antes dos demais post processors.
+ */
+@Component
+@ConditionalOnProperty(name = "cupom.sql-trace.enabled", havingValue = "true")
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+
+	private final ObjectProvider<SqlTracer> tracer;
+
+	public TracingDataSourcePostProcessor(ObjectProvider<SqlTracer> tracer) {
+		this.tracer = tracer;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+			return new TracingDataSource(dataSource, tracer.getObject());
+		}
+		return bean;
+	}
+}
@@ -0,0 +1,19 @@
+CREATE TABLE cupons (
+    id              UUID           NOT NULL,
+    code            VARCHAR(6)     NOT NULL,
+    code_key        BIGINT         NOT NULL,
+    description     VARCHAR(255)   NOT NULL,
+    discount_value  NUMERIC(12, 2) NOT NULL,
+    expiration_date DATE           NOT NULL,
+    status          VARCHAR(255)   NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'DELETED')),
+    published       BOOLEAN        NOT NULL,
+    redeemed        BOOLEAN        NOT NULL,
+    deleted_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_cupons PRIMARY KEY (id),
+    CONSTRAINT uk_cupons_code UNIQUE (code)
+);
+
+CREATE INDEX idx_cupons_code_key ON cupons (code_key);
+CREATE INDEX idx_cupons_status_flags ON cupons (status, published, redeemed, id);
+CREATE INDEX idx_cupons_status_expiration ON cupons (status, expiration_date, id);
+CREATE INDEX idx_cupons_expiration ON cupons (expiration_date, id);
@@ -0,0 +1,13 @@
+ALTER TABLE cupons ADD COLUMN max_redemptions INTEGER;
+ALTER TABLE cupons ADD COLUMN redemption_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE cupons SET redemption_count = 1 WHERE redeemed = TRUE;
+
+CREATE TABLE cupom_redemption_shards (
+    cupom_id  UUID    NOT NULL,
+    shard     INTEGER NOT NULL,
+    remaining BIGINT  NOT NULL,
+    used      BIGINT  NOT NULL,
+    CONSTRAINT pk_cupom_redemption_shards PRIMARY KEY (cupom_id, shard),
+    CONSTRAINT fk_cupom_redemption_shards_cupom FOREIGN KEY (cupom_id) REFERENCES cupons (id)
+);
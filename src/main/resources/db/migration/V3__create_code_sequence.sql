@@ -0,0 +1,7 @@
+CREATE TABLE cupom_code_sequence (
+    id         INTEGER NOT NULL,
+    next_value BIGINT  NOT NULL,
+    CONSTRAINT pk_cupom_code_sequence PRIMARY KEY (id)
+);
+
+INSERT INTO cupom_code_sequence (id, next_value) VALUES (1, 0);
@@ -0,0 +1,154 @@
+package com.outforce.desafio.audit;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.enums.CupomEventType;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Testes Unitários - Log de eventos dos cupons")
+class CupomAuditLogTest {
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	@DisplayName("Deve gravar os eventos em ordem e ler a partir de qualquer offset, atravessando segmentos")
+	void deveLerAPartirDeOffset() throws Exception {
+		CupomAuditLog auditLog = abrir(3);
+		List<UUID> ids = IntStream.range(0, 8).mapToObj(i -> UUID.randomUUID()).toList();
+		try {
+			for (int i = 0; i < ids.size(); i++) {
+				assertThat(auditLog.append(CupomEventType.CREATED, ids.get(i), "AUD00" + i)).isTrue();
+			}
+			auditLog.append(CupomEventType.DELETED, ids.get(0), null);
+			aguardarGravacao(auditLog, 9);
+
+			assertThat(auditLog.read(0, 100)).extracting(CupomEvent::offset)
+					.containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+			assertThat(auditLog.read(2, 3)).extracting(CupomEvent::offset, CupomEvent::couponId, CupomEvent::code)
+					.containsExactly(tuple(2L, ids.get(2), "AUD002"), tuple(3L, ids.get(3), "AUD003"),
+							tuple(4L, ids.get(4), "AUD004"));
+			CupomEvent ultimo = auditLog.read(8, 10).get(0);
+			assertThat(ultimo.type()).isEqualTo(CupomEventType.DELETED);
+			assertThat(ultimo.code()).isNull();
+			assertThat(ultimo.occurredAt()).isNotNull();
+			assertThat(auditLog.read(9, 10)).isEmpty();
+		} finally {
+			auditLog.encerrar();
+		}
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			assertThat(arquivos.map(arquivo -> arquivo.getFileName().toString()).sorted()).containsExactly(
+					"00000000000000000000.log", "00000000000000000003.log", "00000000000000000006.log");
+		}
+	}
+
+	@Test
+	@DisplayName("Deve continuar a numeração após reiniciar, descartando um registro gravado pela metade")
+	void deveRecuperarAposReiniciar() throws Exception {
+		CupomAuditLog auditLog = abrir(1000);
+		for (int i = 0; i < 5; i++) {
+			auditLog.append(CupomEventType.CREATED, UUID.randomUUID(), "REC00" + i);
+		}
+		aguardarGravacao(auditLog, 5);
+		auditLog.encerrar();
+
+		Path segmento = diretorio.resolve("00000000000000000000.log");
+		try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			canal.write(ByteBuffer.wrap(new byte[CupomAuditLog.TAMANHO_REGISTRO / 2]));
+		}
+
+		auditLog = abrir(1000);
+		try {
+			assertThat(auditLog.endOffset()).isEqualTo(5);
+			assertThat(Files.size(segmento)).isEqualTo(5L * CupomAuditLog.TAMANHO_REGISTRO);
+			auditLog.append(CupomEventType.REDEEMED, UUID.randomUUID(), "REC000");
+			aguardarGravacao(auditLog, 6);
+			assertThat(auditLog.read(0, 10)).extracting(CupomEvent::offset, CupomEvent::type)
+					.endsWith(tuple(4L, CupomEventType.CREATED), tuple(5L, CupomEventType.REDEEMED));
+		} finally {
+			auditLog.encerrar();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve publicar um evento por cupom criado, resgatado ou deletado pelo serviço")
+	void devePublicarEventosDoServico() throws Exception {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:audit;DB_CLOSE_DELAY=-1",
+						"--cupom.audit.enabled=true",
+						"--cupom.audit.dir=" + diretorio.toAbsolutePath(),
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN")) {
+			CupomService service = contexto.getBean(CupomService.class);
+			CupomAuditLog auditLog = contexto.getBean(CupomAuditLog.class);
+			LocalDate expiracao = LocalDate.now().plusDays(30);
+
+			UUID id = service.create(new CupomRequestDTO("EVT001", "Evento", new BigDecimal("10.00"), expiracao, true)).id();
+			CupomBatchResponseDTO lote = service.createBatch(List.of(
+					new CupomRequestDTO("EVT002", "Lote", new BigDecimal("10.00"), expiracao, true),
+					new CupomRequestDTO("EVT003", "Lote", new BigDecimal("10.00"), expiracao, false),
+					new CupomRequestDTO("EVT004", "Lote", new BigDecimal("10.00"), expiracao, false)));
+			UUID segundo = lote.cupons().get(0).id();
+			UUID terceiro = lote.cupons().get(1).id();
+			UUID quarto = lote.cupons().get(2).id();
+			service.redeem("EVT001");
+			service.delete(segundo);
+			// o segundo já estava deletado: só o terceiro gera evento
+			service.deleteBulk(new CupomBulkDeleteRequestDTO(List.of(segundo, terceiro), null));
+			service.deleteBulk(new CupomBulkDeleteRequestDTO(null,
+					new CupomFilterDTO(CupomStatus.ACTIVE, false, null, null, null)));
+
+			aguardarGravacao(auditLog, 8);
+			assertThat(auditLog.read(0, 100)).extracting(CupomEvent::type, CupomEvent::couponId)
+					.containsExactly(
+							tuple(CupomEventType.CREATED, id),
+							tuple(CupomEventType.CREATED, segundo),
+							tuple(CupomEventType.CREATED, terceiro),
+							tuple(CupomEventType.CREATED, quarto),
+							tuple(CupomEventType.REDEEMED, id),
+							tuple(CupomEventType.DELETED, segundo),
+							tuple(CupomEventType.DELETED, terceiro),
+							tuple(CupomEventType.DELETED, quarto));
+		}
+	}
+
+	private CupomAuditLog abrir(long eventosPorSegmento) throws IOException {
+		return new CupomAuditLog(diretorio.toString(), 64, 16, eventosPorSegmento, true, 5,
+				CupomAuditLog.Backpressure.BLOCK, 100);
+	}
+
+	private static void aguardarGravacao(CupomAuditLog auditLog, long eventos) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 5_000;
+		while (auditLog.endOffset() < eventos && System.currentTimeMillis() < limite) {
+			Thread.sleep(5);
+		}
+		assertThat(auditLog.endOffset()).isEqualTo(eventos);
+	}
+}
@@ -0,0 +1,77 @@
+package com.outforce.desafio.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - Buffer circular de eventos")
+class EventRingBufferTest {
+
+	@Test
+	@DisplayName("Deve recusar elementos com o buffer cheio e aceitar de novo após o consumo")
+	void deveRecusarComBufferCheio() {
+		EventRingBuffer<Integer> buffer = new EventRingBuffer<>(3);
+		assertThat(buffer.capacity()).isEqualTo(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+		assertThat(buffer.offer(4)).isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+
+		List<Integer> lidos = new ArrayList<>();
+		assertThat(buffer.drainTo(lidos, 2)).isEqualTo(2);
+		assertThat(buffer.offer(4)).isTrue();
+		assertThat(buffer.offer(5)).isTrue();
+		assertThat(buffer.drainTo(lidos, 10)).isEqualTo(4);
+		assertThat(lidos).containsExactly(0, 1, 2, 3, 4, 5);
+		assertThat(buffer.size()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve entregar cada elemento uma vez, na ordem de cada produtor, com produtores concorrentes")
+	void deveEntregarTodosComProdutoresConcorrentes() throws InterruptedException {
+		int produtores = 4;
+		int porProdutor = 50_000;
+		EventRingBuffer<long[]> buffer = new EventRingBuffer<>(1024);
+		ExecutorService executor = Executors.newFixedThreadPool(produtores);
+		CountDownLatch largada = new CountDownLatch(1);
+		for (int p = 0; p < produtores; p++) {
+			int produtor = p;
+			executor.submit(() -> {
+				largada.await();
+				for (int i = 0; i < porProdutor; i++) {
+					long[] elemento = {produtor, i};
+					while (!buffer.offer(elemento)) {
+						Thread.onSpinWait();
+					}
+				}
+				return null;
+			});
+		}
+
+		largada.countDown();
+		long[] proximoPorProdutor = new long[produtores];
+		List<long[]> lidos = new ArrayList<>();
+		int total = 0;
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (total < produtores * porProdutor && System.nanoTime() < limite) {
+			lidos.clear();
+			total += buffer.drainTo(lidos, 256);
+			for (long[] elemento : lidos) {
+				assertThat(elemento[1]).isEqualTo(proximoPorProdutor[(int) elemento[0]]++);
+			}
+		}
+		executor.shutdown();
+
+		assertThat(total).isEqualTo(produtores * porProdutor);
+		assertThat(proximoPorProdutor).containsOnly(porProdutor);
+	}
+}
@@ -0,0 +1,71 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.index.CodeKeySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CodeLookupBenchmark {
+
+	private static final int CONSULTAS = 1 << 12;
+
+	@Param({"1000000"})
+	public int codigos;
+
+	private Set<String> porString;
+	private CodeKeySet porChave;
+	private String[] consultas;
+	private int proxima;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		porString = new HashSet<>();
+		porChave = new CodeKeySet(codigos);
+		while (porString.size() < codigos) {
+			String codigo = CupomCodeCodec.decode(random.nextLong(CupomCodeCodec.TOTAL_CODIGOS));
+			porString.add(codigo);
+			porChave.add(CupomCodeCodec.encode(codigo));
+		}
+		consultas = new String[CONSULTAS];
+		for (int i = 0; i < CONSULTAS; i++) {
+			consultas[i] = CupomCodeCodec.decode(random.nextLong(CupomCodeCodec.TOTAL_CODIGOS));
+		}
+	}
+
+	@Benchmark
+	public boolean hashSetString() {
+		return porString.contains(proximaConsulta());
+	}
+
+	@Benchmark
+	public boolean codeKeySet() {
+		return porChave.contains(CupomCodeCodec.encode(proximaConsulta()));
+	}
+
+	private String proximaConsulta() {
+		// cópia nova a cada consulta, como um código que chega na requisição sem hash em cache
+		return new String(consultas[proxima++ & (CONSULTAS - 1)]);
+	}
+}
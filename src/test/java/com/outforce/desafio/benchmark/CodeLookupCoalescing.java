@@ -0,0 +1,182 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.service.CupomService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consultas por código com e sem a consulta compartilhada do {@code CupomCodeLookup}: {@code --threads} threads
+ * buscam por {@code --seconds} segundos códigos sorteados com distribuição Zipf (expoente {@code --zipf}) entre
+ * {@code --codes} cupons, depois de {@code --warmup} segundos de aquecimento. O cache de leitura fica desligado
+ * para que toda busca chegue ao banco, como em um lançamento de campanha com o cache ainda frio. Grava as consultas
+ * ao banco por requisição e a latência de cada modo em {@code target/code-lookup-coalescing.json};
+ * {@code --modes=coalesced,independent} inverte a ordem dos modos, para separar o efeito da consulta compartilhada
+ * do aquecimento da JVM.
+ * <pre>
+ * -Dbenchmark.main=com.outforce.desafio.benchmark.CodeLookupCoalescing
+ * -Dbenchmark.args="--codes=10000 --zipf=1.1 --threads=64 --warmup=3 --seconds=10"
+ * </pre>
+ */
+public class CodeLookupCoalescing {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		int codigos = Integer.parseInt(opcoes.getOrDefault("codes", "10000"));
+		double expoente = Double.parseDouble(opcoes.getOrDefault("zipf", "1.1"));
+		int threads = Integer.parseInt(opcoes.getOrDefault("threads", "64"));
+		int segundos = Integer.parseInt(opcoes.getOrDefault("seconds", "10"));
+		int aquecimento = Integer.parseInt(opcoes.getOrDefault("warmup", "3"));
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/code-lookup-coalescing.json"));
+
+		double[] acumulada = zipf(codigos, expoente);
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("codes", codigos);
+		relatorio.put("zipf", expoente);
+		relatorio.put("threads", threads);
+		relatorio.put("seconds", segundos);
+		for (String modo : opcoes.getOrDefault("modes", "independent,coalesced").split(",")) {
+			relatorio.put(modo, medir(modo.equals("coalesced"), codigos, acumulada, threads, aquecimento, segundos));
+		}
+
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		gravar(saida, relatorio);
+	}
+
+	private static Map<String, Object> medir(boolean compartilhar, int codigos, double[] acumulada, int threads,
+											 int aquecimento, int segundos) throws Exception {
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:coalescing-" + compartilhar + ";DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--cupom.cache.maximum-size=0",
+						"--cupom.cache.expire-after-write-seconds=0",
+						"--cupom.lookup.coalescing.enabled=" + compartilhar,
+						"--logging.level.root=WARN");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CupomService service = contexto.getBean(CupomService.class);
+			CupomCodeLookup lookup = contexto.getBean(CupomCodeLookup.class);
+			popular(service, codigos);
+
+			buscarDurante(executor, service, acumulada, threads, aquecimento, new Recorder(3), new LongAdder());
+			Recorder latencias = new Recorder(3);
+			LongAdder requisicoes = new LongAdder();
+			long consultasAntes = lookup.executed();
+			buscarDurante(executor, service, acumulada, threads, segundos, latencias, requisicoes);
+
+			long consultas = lookup.executed() - consultasAntes;
+			Map<String, Object> resultado = new LinkedHashMap<>();
+			resultado.put("requests", requisicoes.sum());
+			resultado.put("dbQueries", consultas);
+			resultado.put("dbQueriesPerRequest", String.format(Locale.ROOT, "%.3f", (double) consultas / requisicoes.sum()));
+			resultado.put("requestsPerSecond", requisicoes.sum() / segundos);
+			resultado.put("latency", resumo(latencias.getIntervalHistogram()));
+			return resultado;
+		} finally {
+			executor.shutdownNow();
+			contexto.close();
+		}
+	}
+
+	private static void buscarDurante(ExecutorService executor, CupomService service, double[] acumulada, int threads,
+									  int segundos, Recorder latencias, LongAdder requisicoes) throws Exception {
+		AtomicBoolean parar = new AtomicBoolean();
+		List<Future<?>> clientes = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			clientes.add(executor.submit(() -> {
+				while (!parar.get()) {
+					String codigo = CupomCodeCodec.decode(sortear(acumulada));
+					long inicio = System.nanoTime();
+					service.findByCode(codigo);
+					latencias.recordValue(System.nanoTime() - inicio);
+					requisicoes.increment();
+				}
+			}));
+		}
+		TimeUnit.SECONDS.sleep(segundos);
+		parar.set(true);
+		for (Future<?> cliente : clientes) {
+			cliente.get();
+		}
+	}
+
+	private static void popular(CupomService service, int codigos) {
+		LocalDate expiracao = LocalDate.now().plusYears(1);
+		List<CupomRequestDTO> lote = new ArrayList<>(1000);
+		for (int i = 0; i < codigos; i++) {
+			lote.add(new CupomRequestDTO(CupomCodeCodec.decode(i), "Cupom de campanha", new BigDecimal("10.00"), expiracao, true));
+			if (lote.size() == 1000) {
+				service.createBatch(lote);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			service.createBatch(lote);
+		}
+	}
+
+	private static double[] zipf(int codigos, double expoente) {
+		double[] acumulada = new double[codigos];
+		double soma = 0;
+		for (int i = 0; i < codigos; i++) {
+			soma += 1 / Math.pow(i + 1, expoente);
+			acumulada[i] = soma;
+		}
+		for (int i = 0; i < codigos; i++) {
+			acumulada[i] /= soma;
+		}
+		return acumulada;
+	}
+
+	private static int sortear(double[] acumulada) {
+		int posicao = Arrays.binarySearch(acumulada, ThreadLocalRandom.current().nextDouble());
+		return Math.min(posicao >= 0 ? posicao : -posicao - 1, acumulada.length - 1);
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("count", histograma.getTotalCount());
+		resumo.put("p50Us", histograma.getValueAtPercentile(50) / 1e3);
+		resumo.put("p99Us", histograma.getValueAtPercentile(99) / 1e3);
+		resumo.put("p999Us", histograma.getValueAtPercentile(99.9) / 1e3);
+		resumo.put("maxUs", histograma.getMaxValue() / 1e3);
+		return resumo;
+	}
+
+	private static void gravar(Path saida, Map<String, Object> relatorio) throws IOException {
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+}
@@ -0,0 +1,91 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.code.CupomCodeNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CodeNormalizationBenchmark {
+
+	private static final int LOTE = 1000;
+	private static final String SEPARADORES = "-$ _.#";
+
+	private String codigoRequisicao;
+	private String[] codigosLote;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		SplittableRandom random = new SplittableRandom(42);
+		codigoRequisicao = "ab-12$c3";
+		codigosLote = new String[LOTE];
+		for (int i = 0; i < LOTE; i++) {
+			StringBuilder sb = new StringBuilder();
+			for (int j = 0; j < 6; j++) {
+				int valor = random.nextInt(36);
+				sb.append((char) (valor < 10 ? '0' + valor : 'a' + valor - 10));
+				if (random.nextInt(4) == 0) {
+					sb.append(SEPARADORES.charAt(random.nextInt(SEPARADORES.length())));
+				}
+			}
+			codigosLote[i] = sb.toString();
+		}
+	}
+
+	@Benchmark
+	public String criacaoRegex() {
+		return regex(codigoRequisicao);
+	}
+
+	@Benchmark
+	public String criacaoNormalizer() {
+		return CupomCodeNormalizer.normalize(codigoRequisicao);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public void loteRegex(Blackhole blackhole) {
+		for (String codigo : codigosLote) {
+			blackhole.consume(regex(codigo));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public void loteNormalizer(Blackhole blackhole) {
+		for (String codigo : codigosLote) {
+			blackhole.consume(CupomCodeNormalizer.normalize(codigo));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public void loteNormalizerChave(Blackhole blackhole) {
+		for (String codigo : codigosLote) {
+			blackhole.consume(CupomCodeNormalizer.normalizeToKey(codigo));
+		}
+	}
+
+	private static String regex(String code) {
+		String codigoLimpo = code.replaceAll("[^A-Za-z0-9]", "");
+		return codigoLimpo.length() != 6 ? null : codigoLimpo.toUpperCase();
+	}
+}
@@ -0,0 +1,48 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.index.CodeKeySet;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Memória retida por milhão de códigos em {@code HashSet<String>}, {@code HashSet<Long>} e {@link CodeKeySet}.
+ * Execução: {@code -Dbenchmark.main=com.outforce.desafio.benchmark.CodeSetFootprint -Dbenchmark.args=1000000}.
+ */
+public class CodeSetFootprint {
+
+	public static void main(String[] args) throws IOException {
+		int codigos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		SplittableRandom random = new SplittableRandom(42);
+
+		Set<String> porString = new HashSet<>();
+		Set<Long> porLong = new HashSet<>();
+		CodeKeySet porChave = new CodeKeySet(codigos);
+		while (porString.size() < codigos) {
+			long chave = random.nextLong(CupomCodeCodec.TOTAL_CODIGOS);
+			porString.add(CupomCodeCodec.decode(chave));
+			porLong.add(chave);
+			porChave.add(chave);
+		}
+
+		long bytesString = GraphLayout.parseInstance(porString).totalSize();
+		long bytesLong = GraphLayout.parseInstance(porLong).totalSize();
+		long bytesChave = GraphLayout.parseInstance(porChave).totalSize();
+		double escala = 1_000_000.0 / codigos;
+
+		String json = String.format(Locale.ROOT,
+				"{\"codes\":%d,\"bytesPerMillion\":{\"HashSet<String>\":%.0f,\"HashSet<Long>\":%.0f,\"CodeKeySet\":%.0f}}",
+				codigos, bytesString * escala, bytesLong * escala, bytesChave * escala);
+		System.out.println(json);
+		Path saida = Path.of("target", "code-set-footprint.json");
+		Files.createDirectories(saida.getParent());
+		Files.writeString(saida, json);
+	}
+}
@@ -0,0 +1,158 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.generator.UuidV7;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.service.CupomService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem paginada em páginas rasas e profundas: cursor (keyset) do {@code GET /coupons} contra
+ * {@code OFFSET} equivalente, com filtro por status/published/redeemed ({@code flags}) e por
+ * status + faixa de expiração ({@code expiration}). O cache de resultados do H2 fica desligado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class CupomListingBenchmark {
+
+	private static final int LIMITE = 50;
+	private static final LocalDate HOJE = LocalDate.now();
+
+	@Param({"1000000"})
+	public int rows;
+
+	@Param({"1", "1000", "10000"})
+	public int page;
+
+	@Param({"flags", "expiration"})
+	public String filter;
+
+	private ConfigurableApplicationContext contexto;
+	private CupomService service;
+	private EntityManagerFactory entityManagerFactory;
+	private CupomFilterDTO filtro;
+	private String jpqlOffset;
+	private String cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:benchmark-listing;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN");
+		service = contexto.getBean(CupomService.class);
+		entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+		popular(contexto.getBean(JdbcTemplate.class));
+
+		boolean porExpiracao = filter.equals("expiration");
+		filtro = porExpiracao
+				? new CupomFilterDTO(CupomStatus.ACTIVE, null, null, HOJE.plusDays(1), HOJE.plusDays(300))
+				: new CupomFilterDTO(CupomStatus.ACTIVE, true, false, null, null);
+		String where = porExpiracao
+				? "status = 'ACTIVE' AND expiration_date BETWEEN DATEADD(DAY, 1, CURRENT_DATE) AND DATEADD(DAY, 300, CURRENT_DATE)"
+				: "status = 'ACTIVE' AND published AND NOT redeemed";
+		String ordem = porExpiracao ? "expiration_date, id" : "id";
+		jpqlOffset = porExpiracao
+				? "SELECT c FROM Cupom c WHERE c.status = :status AND c.expirationDate BETWEEN :de AND :ate ORDER BY c.expirationDate, c.id"
+				: "SELECT c FROM Cupom c WHERE c.status = :status AND c.published = true AND c.redeemed = false ORDER BY c.id";
+
+		if (page > 1) {
+			Map<String, Object> anterior = contexto.getBean(JdbcTemplate.class).queryForMap(
+					"SELECT id, expiration_date FROM cupons WHERE " + where + " ORDER BY " + ordem + " LIMIT 1 OFFSET ?",
+					(page - 1) * LIMITE - 1);
+			cursor = codificar((UUID) anterior.get("ID"),
+					porExpiracao ? ((Date) anterior.get("EXPIRATION_DATE")).toLocalDate() : null);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public CupomPageDTO keyset() {
+		return service.list(filtro, cursor, LIMITE);
+	}
+
+	@Benchmark
+	public List<Cupom> offset() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			TypedQuery<Cupom> consulta = entityManager.createQuery(jpqlOffset, Cupom.class)
+					.setParameter("status", CupomStatus.ACTIVE);
+			if (filtro.expirationFrom() != null) {
+				consulta.setParameter("de", filtro.expirationFrom()).setParameter("ate", filtro.expirationTo());
+			}
+			return consulta.setFirstResult((page - 1) * LIMITE)
+					.setMaxResults(LIMITE)
+					.getResultList();
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private void popular(JdbcTemplate jdbc) {
+		String sql = "INSERT INTO cupons (id, code, code_key, description, discount_value, expiration_date, status, "
+				+ "published, redeemed) VALUES (?, ?, ?, 'Cupom de benchmark', 10.00, ?, ?, ?, ?)";
+		List<Object[]> lote = new ArrayList<>(10_000);
+		for (int i = 0; i < rows; i++) {
+			lote.add(new Object[]{UuidV7.generate(), CupomCodeCodec.decode(i), (long) i, Date.valueOf(HOJE.plusDays(1 + i % 365)),
+					i % 10 == 0 ? "DELETED" : "ACTIVE", i % 3 != 0, i % 7 == 0});
+			if (lote.size() == 10_000) {
+				jdbc.batchUpdate(sql, lote);
+				lote.clear();
+			}
+		}
+		jdbc.batchUpdate(sql, lote);
+	}
+
+	private static String codificar(UUID id, LocalDate expiracao) {
+		ByteBuffer bytes = ByteBuffer.allocate(expiracao != null ? 24 : 16)
+				.putLong(id.getMostSignificantBits())
+				.putLong(id.getLeastSignificantBits());
+		if (expiracao != null) {
+			bytes.putLong(expiracao.toEpochDay());
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+	}
+}
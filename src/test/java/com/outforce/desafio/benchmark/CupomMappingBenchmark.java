@@ -0,0 +1,73 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.generator.UuidV7;
+import com.outforce.desafio.mapper.CupomResponseToDtoMapper;
+import com.outforce.desafio.model.Cupom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CupomMappingBenchmark {
+
+	private ObjectMapper objectMapper;
+	private Cupom cupom;
+	private CupomResponseDTO response;
+	private byte[] requestJson;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		cupom = Cupom.builder()
+				.id(UuidV7.generate())
+				.code("AB12C3")
+				.description("Summer sale")
+				.discountValue(new BigDecimal("10.00"))
+				.expirationDate(LocalDate.of(2030, 12, 31))
+				.status(CupomStatus.ACTIVE)
+				.published(true)
+				.redeemed(false)
+				.build();
+		response = CupomResponseToDtoMapper.toResponseDTO(cupom);
+		requestJson = objectMapper.writeValueAsBytes(new CupomRequestDTO(
+				"AB-12$C3", "Summer sale", new BigDecimal("10.00"), LocalDate.of(2030, 12, 31), true));
+	}
+
+	@Benchmark
+	public CupomResponseDTO mapearEntidadeParaDto() {
+		return CupomResponseToDtoMapper.toResponseDTO(cupom);
+	}
+
+	@Benchmark
+	public byte[] serializarResponse() throws IOException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public CupomRequestDTO desserializarRequest() throws IOException {
+		return objectMapper.readValue(requestJson, CupomRequestDTO.class);
+	}
+}
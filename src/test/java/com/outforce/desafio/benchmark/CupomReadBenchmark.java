@@ -0,0 +1,90 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.service.CupomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras por id e por código contra H2 em memória, com o cache desligado ({@code cacheSize=0})
+ * e dimensionado para o conjunto quente inteiro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+public class CupomReadBenchmark {
+
+	private static final int CUPONS = 10_000;
+
+	@Param({"0", "100000"})
+	public long cacheSize;
+
+	private ConfigurableApplicationContext contexto;
+	private CupomService service;
+	private UUID[] ids;
+	private String[] codigos;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:benchmark-read;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN",
+						"--cupom.cache.maximum-size=" + cacheSize);
+		service = contexto.getBean(CupomService.class);
+
+		ids = new UUID[CUPONS];
+		codigos = new String[CUPONS];
+		LocalDate expiracao = LocalDate.now().plusYears(1);
+		for (int i = 0; i < CUPONS; i++) {
+			codigos[i] = CupomCodeCodec.decode(i);
+			ids[i] = service.create(new CupomRequestDTO(codigos[i], "Cupom de benchmark",
+					new BigDecimal("10.00"), expiracao, true)).id();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public CupomResponseDTO buscarPorId() {
+		return service.findById(ids[ThreadLocalRandom.current().nextInt(CUPONS)]);
+	}
+
+	@Benchmark
+	public CupomResponseDTO buscarPorCodigo() {
+		return service.findByCode(codigos[ThreadLocalRandom.current().nextInt(CUPONS)]);
+	}
+}
@@ -0,0 +1,125 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.service.CupomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code create}, {@code createBatch} e {@code delete} completos do {@link CupomService} contra H2, com o contexto
+ * Spring real (sem camada web). {@code perfil}: {@code mem} é o padrão (H2 em memória), {@code file} é H2 em
+ * arquivo com as configurações padrão e {@code prod} é o perfil {@code prod} (arquivo, pool e Hibernate ajustados).
+ * {@code sql}: {@code off} sem log de SQL, {@code show-sql} com o log síncrono do Hibernate e {@code trace} com o
+ * rastreamento amostrado do {@code SqlTracer}. {@code auditoria} liga o log de eventos dos cupons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CupomServiceH2Benchmark {
+
+	private static final int TAMANHO_LOTE = 100;
+
+	private final AtomicLong sequencia = new AtomicLong();
+
+	@Param({"mem", "file", "prod"})
+	public String perfil;
+
+	@Param({"off"})
+	public String sql;
+
+	@Param({"false"})
+	public boolean auditoria;
+
+	private ConfigurableApplicationContext contexto;
+	private CupomService service;
+	private LocalDate expiracao;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE);
+		List<String> argumentos = new ArrayList<>(List.of(
+				"--spring.jpa.show-sql=" + sql.equals("show-sql"),
+				"--cupom.sql-trace.enabled=" + sql.equals("trace"),
+				"--logging.level.cupom.sql=INFO",
+				"--cupom.expiration.enabled=false",
+				"--logging.level.root=WARN"));
+		Path diretorio = Files.createTempDirectory("benchmark-" + perfil);
+		argumentos.add("--cupom.audit.enabled=" + auditoria);
+		argumentos.add("--cupom.audit.dir=" + diretorio.resolve("audit"));
+		switch (perfil) {
+			case "mem" -> argumentos.add("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+			case "file" -> argumentos.add("--spring.datasource.url=jdbc:h2:file:" + diretorio.resolve("desafio"));
+			case "prod" -> {
+				builder.profiles("prod");
+				argumentos.add("--cupom.data-dir=" + diretorio);
+			}
+			default -> throw new IllegalArgumentException(perfil);
+		}
+		contexto = builder.run(argumentos.toArray(String[]::new));
+		service = contexto.getBean(CupomService.class);
+		expiracao = LocalDate.now().plusYears(1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public CupomResponseDTO criar() {
+		return service.create(proximaRequisicao());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TAMANHO_LOTE)
+	public CupomBatchResponseDTO criarLote() {
+		List<CupomRequestDTO> lote = new ArrayList<>(TAMANHO_LOTE);
+		for (int i = 0; i < TAMANHO_LOTE; i++) {
+			lote.add(proximaRequisicao());
+		}
+		return service.createBatch(lote);
+	}
+
+	@Benchmark
+	public void criarEDeletar() {
+		service.delete(service.create(proximaRequisicao()).id());
+	}
+
+	private CupomRequestDTO proximaRequisicao() {
+		String codigo = CupomCodeCodec.decode(sequencia.getAndIncrement() % CupomCodeCodec.TOTAL_CODIGOS);
+		return new CupomRequestDTO(codigo, "Cupom de benchmark", new BigDecimal("10.00"), expiracao, true);
+	}
+}
@@ -0,0 +1,105 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.generator.UuidV7;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.metrics.CupomMetrics;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.repository.CupomRepository;
+import com.outforce.desafio.service.impl.CupomServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de criação sem banco: validação, normalização e mapeamento. O repositório é um proxy
+ * que não encontra duplicidade e devolve a entidade recebida no {@code save}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CupomValidationBenchmark {
+
+	private CupomServiceImpl service;
+	private CupomRequestDTO valido;
+	private CupomRequestDTO codigoInvalido;
+	private CupomRequestDTO descontoInvalido;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		CupomRepository repository = (CupomRepository) Proxy.newProxyInstance(
+				CupomRepository.class.getClassLoader(),
+				new Class<?>[]{CupomRepository.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("save")) {
+						Cupom cupom = (Cupom) args[0];
+						cupom.setId(UuidV7.generate());
+						return cupom;
+					}
+					if (method.getName().equals("findByCode")) {
+						return Optional.empty();
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		CupomCodeIndex index = new CupomCodeIndex(1_000, 0.01);
+
+		service = new CupomServiceImpl();
+		ReflectionTestUtils.setField(service, "cupomRepository", repository);
+		ReflectionTestUtils.setField(service, "codeIndex", index);
+		ReflectionTestUtils.setField(service, "cupomCache", new CupomCache(1_000, 60));
+		ReflectionTestUtils.setField(service, "codeLookup", new CupomCodeLookup(true, 5_000));
+		ReflectionTestUtils.setField(service, "cupomMetrics", new CupomMetrics(new SimpleMeterRegistry()));
+
+		LocalDate expiracao = LocalDate.now().plusYears(1);
+		valido = new CupomRequestDTO("AB-12$C3", "Summer sale", new BigDecimal("10.00"), expiracao, true);
+		codigoInvalido = new CupomRequestDTO("AB-12", "Summer sale", new BigDecimal("10.00"), expiracao, true);
+		descontoInvalido = new CupomRequestDTO("AB-12$C3", "Summer sale", new BigDecimal("0.10"), expiracao, true);
+	}
+
+	@Benchmark
+	public CupomResponseDTO criarValido() {
+		return service.create(valido);
+	}
+
+	@Benchmark
+	public String rejeitarCodigoInvalido() {
+		return rejeitar(codigoInvalido);
+	}
+
+	@Benchmark
+	public String rejeitarDescontoInvalido() {
+		return rejeitar(descontoInvalido);
+	}
+
+	private String rejeitar(CupomRequestDTO request) {
+		try {
+			service.create(request);
+			throw new IllegalStateException("Requisição deveria ter sido rejeitada");
+		} catch (BusinessException ex) {
+			return ex.getCode();
+		}
+	}
+}
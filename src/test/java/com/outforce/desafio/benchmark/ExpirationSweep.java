@@ -0,0 +1,160 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.expiration.CupomExpirationSweeper;
+import com.outforce.desafio.generator.UuidV7;
+import com.outforce.desafio.service.CupomService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Varredura de expiração sob carga de criação: popula {@code --rows} cupons {@code ACTIVE} já expirados, mede a
+ * latência de {@code create} em {@code --threads} threads por {@code --seconds} segundos sem varredura e depois
+ * enquanto a varredura expira todas as linhas. Grava o resultado em {@code target/expiration-sweep.json}.
+ * <pre>
+ * -Dbenchmark.main=com.outforce.desafio.benchmark.ExpirationSweep
+ * -Dbenchmark.args="--rows=500000 --batch-size=1000 --pause-ms=0 --threads=4 --seconds=10"
+ * </pre>
+ */
+public class ExpirationSweep {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		int linhas = Integer.parseInt(opcoes.getOrDefault("rows", "500000"));
+		int tamanhoLote = Integer.parseInt(opcoes.getOrDefault("batch-size", "1000"));
+		long pausaMs = Long.parseLong(opcoes.getOrDefault("pause-ms", "0"));
+		int threads = Integer.parseInt(opcoes.getOrDefault("threads", "4"));
+		int segundos = Integer.parseInt(opcoes.getOrDefault("seconds", "10"));
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/expiration-sweep.json"));
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:expiration;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=true",
+						"--cupom.expiration.initial-delay-ms=" + TimeUnit.DAYS.toMillis(1),
+						"--cupom.expiration.batch-size=" + tamanhoLote,
+						"--cupom.expiration.max-batches-per-run=" + Integer.MAX_VALUE,
+						"--cupom.expiration.pause-between-batches-ms=" + pausaMs,
+						"--logging.level.root=WARN");
+		CupomService service = contexto.getBean(CupomService.class);
+		CupomExpirationSweeper sweeper = contexto.getBean(CupomExpirationSweeper.class);
+		popular(contexto.getBean(JdbcTemplate.class), linhas);
+
+		AtomicLong sequencia = new AtomicLong(linhas);
+		LocalDate expiracao = LocalDate.now().plusYears(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		try {
+			relatorio.put("baseline", criarDurante(executor, threads, service, sequencia, expiracao, () -> {
+				TimeUnit.SECONDS.sleep(segundos);
+				return Map.of();
+			}));
+			relatorio.put("sweeping", criarDurante(executor, threads, service, sequencia, expiracao, () -> {
+				long inicio = System.nanoTime();
+				int expirados = sweeper.expirar(LocalDate.now());
+				double duracao = (System.nanoTime() - inicio) / 1e9;
+				Map<String, Object> varredura = new LinkedHashMap<>();
+				varredura.put("rowsExpired", expirados);
+				varredura.put("seconds", String.format(Locale.ROOT, "%.2f", duracao));
+				varredura.put("rowsPerSecond", Math.round(expirados / duracao));
+				return varredura;
+			}));
+		} finally {
+			executor.shutdownNow();
+			contexto.close();
+		}
+		relatorio.put("rows", linhas);
+		relatorio.put("batchSize", tamanhoLote);
+		relatorio.put("pauseMs", pausaMs);
+		relatorio.put("threads", threads);
+
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		gravar(saida, relatorio);
+	}
+
+	private static Map<String, Object> criarDurante(ExecutorService executor, int threads, CupomService service,
+													AtomicLong sequencia, LocalDate expiracao,
+													Callable<Map<String, Object>> fase) throws Exception {
+		Recorder latencias = new Recorder(3);
+		AtomicBoolean parar = new AtomicBoolean();
+		List<Future<?>> criadores = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			criadores.add(executor.submit(() -> {
+				while (!parar.get()) {
+					String codigo = CupomCodeCodec.decode(sequencia.getAndIncrement());
+					long inicio = System.nanoTime();
+					service.create(new CupomRequestDTO(codigo, "Cupom de benchmark", new BigDecimal("10.00"), expiracao, true));
+					latencias.recordValue(System.nanoTime() - inicio);
+				}
+			}));
+		}
+		Map<String, Object> resultado = new LinkedHashMap<>(executor.submit(fase).get());
+		parar.set(true);
+		for (Future<?> criador : criadores) {
+			criador.get();
+		}
+		resultado.put("create", resumo(latencias.getIntervalHistogram()));
+		return resultado;
+	}
+
+	private static void popular(JdbcTemplate jdbc, int linhas) {
+		String sql = "INSERT INTO cupons (id, code, code_key, description, discount_value, expiration_date, status, "
+				+ "published, redeemed) VALUES (?, ?, ?, 'Cupom de benchmark', 10.00, ?, 'ACTIVE', TRUE, FALSE)";
+		LocalDate hoje = LocalDate.now();
+		List<Object[]> lote = new ArrayList<>(10_000);
+		for (int i = 0; i < linhas; i++) {
+			lote.add(new Object[]{UuidV7.generate(), CupomCodeCodec.decode(i), (long) i, Date.valueOf(hoje.minusDays(1 + i % 365))});
+			if (lote.size() == 10_000) {
+				jdbc.batchUpdate(sql, lote);
+				lote.clear();
+			}
+		}
+		jdbc.batchUpdate(sql, lote);
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("count", histograma.getTotalCount());
+		resumo.put("p50Us", histograma.getValueAtPercentile(50) / 1e3);
+		resumo.put("p99Us", histograma.getValueAtPercentile(99) / 1e3);
+		resumo.put("p999Us", histograma.getValueAtPercentile(99.9) / 1e3);
+		resumo.put("maxUs", histograma.getMaxValue() / 1e3);
+		return resumo;
+	}
+
+	private static void gravar(Path saida, Map<String, Object> relatorio) throws IOException {
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+}
@@ -0,0 +1,166 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
+import com.outforce.desafio.generator.UuidV7;
+import com.outforce.desafio.service.CupomService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memória da exportação: garante {@code --rows} cupons em um H2 em arquivo ({@code --dir}, reaproveitado entre
+ * execuções), exporta todos em {@code --format} para uma saída que só conta bytes e amostra o heap a cada 100 ms.
+ * O heap vivo depois de cada GC deve ficar estável independente do número de linhas; rode com um {@code -Xmx}
+ * pequeno para confirmar. Grava o resultado em {@code target/export-footprint.json}.
+ * <pre>
+ * -Dbenchmark.main=com.outforce.desafio.benchmark.ExportFootprint
+ * -Dbenchmark.jvmArgs=-Xmx256m
+ * -Dbenchmark.args="--rows=50000000 --format=NDJSON"
+ * </pre>
+ */
+public class ExportFootprint {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		long linhas = Long.parseLong(opcoes.getOrDefault("rows", "1000000"));
+		CupomExportFormat formato = CupomExportFormat.valueOf(opcoes.getOrDefault("format", "NDJSON"));
+		Path diretorio = Path.of(opcoes.getOrDefault("dir", "target/export-footprint")).toAbsolutePath();
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/export-footprint.json"));
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:file:" + diretorio + "/cupons",
+						"--spring.jpa.hibernate.ddl-auto=update",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN");
+		ScheduledExecutorService amostragem = Executors.newSingleThreadScheduledExecutor();
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		try {
+			JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+			popular(jdbc, linhas);
+			CupomService service = contexto.getBean(CupomService.class);
+			// a base inclui o que a aplicação já mantém em memória (índice de códigos, caches); a exportação não
+			// deve somar nada que cresça com as linhas
+			System.gc();
+			long base = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+			AtomicLong maiorHeap = new AtomicLong();
+			AtomicLong maiorHeapVivo = new AtomicLong();
+			List<Long> heapVivoPorSegundo = new ArrayList<>();
+			AtomicLong amostras = new AtomicLong();
+			amostragem.scheduleAtFixedRate(() -> {
+				maiorHeap.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+				long vivo = heapAposGc();
+				maiorHeapVivo.accumulateAndGet(vivo, Math::max);
+				if (amostras.getAndIncrement() % 10 == 0) {
+					synchronized (heapVivoPorSegundo) {
+						heapVivoPorSegundo.add(vivo / (1024 * 1024));
+					}
+				}
+			}, 0, 100, TimeUnit.MILLISECONDS);
+
+			ContadorDeBytes contador = new ContadorDeBytes();
+			long inicio = System.nanoTime();
+			long exportadas = service.export(new CupomFilterDTO(null, null, null, null, null), formato, contador);
+			double segundos = (System.nanoTime() - inicio) / 1e9;
+			amostragem.shutdown();
+			amostragem.awaitTermination(1, TimeUnit.SECONDS);
+
+			relatorio.put("rows", exportadas);
+			relatorio.put("format", formato);
+			relatorio.put("bytes", contador.bytes);
+			relatorio.put("seconds", String.format(Locale.ROOT, "%.1f", segundos));
+			relatorio.put("rowsPerSecond", Math.round(exportadas / segundos));
+			relatorio.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+			relatorio.put("liveHeapBeforeExportMb", base / (1024 * 1024));
+			relatorio.put("peakHeapUsedMb", maiorHeap.get() / (1024 * 1024));
+			relatorio.put("peakLiveHeapAfterGcMb", maiorHeapVivo.get() / (1024 * 1024));
+			synchronized (heapVivoPorSegundo) {
+				relatorio.put("liveHeapAfterGcMbPerSecond", heapVivoPorSegundo);
+			}
+		} finally {
+			amostragem.shutdownNow();
+			contexto.close();
+		}
+
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		gravar(saida, relatorio);
+	}
+
+	private static long heapAposGc() {
+		long total = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage aposGc = pool.getCollectionUsage();
+			if (pool.getType() == MemoryType.HEAP && aposGc != null) {
+				total += aposGc.getUsed();
+			}
+		}
+		return total;
+	}
+
+	private static void popular(JdbcTemplate jdbc, long linhas) {
+		Long existentes = jdbc.queryForObject("SELECT COUNT(*) FROM cupons", Long.class);
+		String sql = "INSERT INTO cupons (id, code, code_key, description, discount_value, expiration_date, status, "
+				+ "published, redeemed) VALUES (?, ?, ?, 'Cupom de exportação', 10.00, ?, 'ACTIVE', TRUE, FALSE)";
+		Date expiracao = Date.valueOf(LocalDate.now().plusYears(1));
+		List<Object[]> lote = new ArrayList<>(10_000);
+		for (long i = existentes; i < linhas; i++) {
+			lote.add(new Object[]{UuidV7.generate(), CupomCodeCodec.decode(i), i, expiracao});
+			if (lote.size() == 10_000) {
+				jdbc.batchUpdate(sql, lote);
+				lote.clear();
+			}
+		}
+		jdbc.batchUpdate(sql, lote);
+	}
+
+	private static void gravar(Path saida, Map<String, Object> relatorio) throws IOException {
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+
+	private static final class ContadorDeBytes extends OutputStream {
+
+		private long bytes;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+		}
+	}
+}
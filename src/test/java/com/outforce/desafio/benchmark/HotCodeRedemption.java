@@ -0,0 +1,184 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
+import com.outforce.desafio.service.CupomService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Um único código de uso múltiplo sob carga: {@code --threads} clientes resgatam o mesmo código em ritmo fixo,
+ * somando {@code --rate} tentativas por segundo por {@code --seconds} segundos (depois de {@code --warmup} segundos
+ * em outro código). A latência conta a partir do instante planejado de cada tentativa, então um atraso do serviço
+ * aparece nos percentis em vez de só reduzir o ritmo. Roda uma vez para cada número de fatias em {@code --shards}
+ * ({@code 1} é a linha quente única; repita valores, como {@code 16,1,16,1}, para separar o efeito das fatias do
+ * aquecimento da JVM) e confere que os aceitos não passam de {@code --limit} e batem com a soma das
+ * fatias e com o total consolidado no cupom. Grava o resultado em {@code target/hot-code-redemption.json}.
+ * <pre>
+ * -Dbenchmark.main=com.outforce.desafio.benchmark.HotCodeRedemption
+ * -Dbenchmark.args="--rate=20000 --threads=64 --seconds=10 --shards=1,16"
+ * </pre>
+ */
+public class HotCodeRedemption {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		int ritmo = Integer.parseInt(opcoes.getOrDefault("rate", "20000"));
+		int threads = Integer.parseInt(opcoes.getOrDefault("threads", "64"));
+		int segundos = Integer.parseInt(opcoes.getOrDefault("seconds", "10"));
+		int aquecimento = Integer.parseInt(opcoes.getOrDefault("warmup", "5"));
+		// por padrão o limite não é atingido; um limite menor que ritmo * segundos mostra o corte exato
+		int limite = Integer.parseInt(opcoes.getOrDefault("limit", String.valueOf(ritmo * segundos * 2)));
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/hot-code-redemption.json"));
+
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("targetRate", ritmo);
+		relatorio.put("threads", threads);
+		relatorio.put("seconds", segundos);
+		relatorio.put("limit", limite);
+		boolean exato = true;
+		List<Map<String, Object>> execucoes = new ArrayList<>();
+		for (String fatias : opcoes.getOrDefault("shards", "1,16").split(",")) {
+			Map<String, Object> resultado = medir(Integer.parseInt(fatias), ritmo, threads, aquecimento, segundos, limite);
+			exato &= (Boolean) resultado.get("exact");
+			execucoes.add(resultado);
+		}
+		relatorio.put("runs", execucoes);
+
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		gravar(saida, relatorio);
+		if (!exato) {
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Object> medir(int fatias, int ritmo, int threads, int aquecimento, int segundos,
+											 int limite) throws Exception {
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:hot-code-" + fatias + ";DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--cupom.redemption.shards=" + fatias,
+						"--logging.level.root=WARN");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CupomService service = contexto.getBean(CupomService.class);
+			CupomRedemptionCounters contadores = contexto.getBean(CupomRedemptionCounters.class);
+			JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+			service.create(new CupomRequestDTO("AQUECE", "Aquecimento", new BigDecimal("10.00"),
+					LocalDate.now().plusDays(30), true, Integer.MAX_VALUE));
+			service.create(new CupomRequestDTO("QUENTE", "Primeiros clientes", new BigDecimal("10.00"),
+					LocalDate.now().plusDays(30), true, limite));
+
+			rodar(executor, service, "AQUECE", ritmo, threads, aquecimento, new Recorder(3), new ConcurrentHashMap<>());
+			Recorder latencias = new Recorder(3);
+			Map<String, LongAdder> respostas = new ConcurrentHashMap<>();
+			long inicio = System.nanoTime();
+			rodar(executor, service, "QUENTE", ritmo, threads, segundos, latencias, respostas);
+			double decorrido = (System.nanoTime() - inicio) / 1e9;
+			contadores.flush();
+
+			long aceitos = respostas.getOrDefault("REDEEMED", new LongAdder()).sum();
+			Long somaFatias = jdbc.queryForObject("SELECT SUM(s.used) FROM cupom_redemption_shards s "
+					+ "JOIN cupons c ON c.id = s.cupom_id WHERE c.code = 'QUENTE'", Long.class);
+			long consolidado = service.findByCode("QUENTE").redemptionCount();
+
+			Map<String, Object> resultado = new LinkedHashMap<>();
+			resultado.put("shards", fatias);
+			Histogram histograma = latencias.getIntervalHistogram();
+			resultado.put("attempts", histograma.getTotalCount());
+			resultado.put("attemptsPerSecond", Math.round(histograma.getTotalCount() / decorrido));
+			resultado.put("redeemedPerSecond", Math.round(aceitos / decorrido));
+			resultado.put("latency", resumo(histograma));
+			Map<String, Long> porResposta = new TreeMap<>();
+			respostas.forEach((chave, contador) -> porResposta.put(chave, contador.sum()));
+			resultado.put("responses", porResposta);
+			resultado.put("redeemed", aceitos);
+			resultado.put("shardSum", somaFatias);
+			resultado.put("flushedRedemptionCount", consolidado);
+			resultado.put("emptyShardAttempts", contadores.emptyShardAttempts());
+			resultado.put("exact", aceitos <= limite && somaFatias == aceitos && consolidado == aceitos);
+			return resultado;
+		} finally {
+			executor.shutdownNow();
+			contexto.close();
+		}
+	}
+
+	private static void rodar(ExecutorService executor, CupomService service, String codigo, int ritmo, int threads,
+							  int segundos, Recorder latencias, Map<String, LongAdder> respostas) throws Exception {
+		long intervalo = 1_000_000_000L * threads / ritmo;
+		long inicio = System.nanoTime() + 10_000_000L;
+		long fim = inicio + segundos * 1_000_000_000L;
+		List<Future<?>> clientes = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			// clientes defasados dentro do intervalo, para que as chegadas se espalhem em vez de vir em rajadas
+			long defasagem = intervalo * t / threads;
+			clientes.add(executor.submit(() -> {
+				for (long planejado = inicio + defasagem; planejado < fim; planejado += intervalo) {
+					long espera = planejado - System.nanoTime();
+					if (espera > 0) {
+						LockSupport.parkNanos(espera);
+					}
+					String resposta;
+					try {
+						service.redeem(codigo);
+						resposta = "REDEEMED";
+					} catch (BusinessException ex) {
+						resposta = ex.getCode();
+					}
+					latencias.recordValue(System.nanoTime() - planejado);
+					respostas.computeIfAbsent(resposta, k -> new LongAdder()).increment();
+				}
+			}));
+		}
+		for (Future<?> cliente : clientes) {
+			cliente.get();
+		}
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("p50Us", histograma.getValueAtPercentile(50) / 1e3);
+		resumo.put("p99Us", histograma.getValueAtPercentile(99) / 1e3);
+		resumo.put("p999Us", histograma.getValueAtPercentile(99.9) / 1e3);
+		resumo.put("maxUs", histograma.getMaxValue() / 1e3);
+		resumo.put("meanUs", String.format(Locale.ROOT, "%.1f", histograma.getMean() / 1e3));
+		return resumo;
+	}
+
+	private static void gravar(Path saida, Map<String, Object> relatorio) throws IOException {
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+}
@@ -0,0 +1,40 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.generator.IdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdGenerationBenchmark {
+
+	@Param({"RANDOM", "TIME_ORDERED"})
+	public IdStrategy strategy;
+
+	@Benchmark
+	public UUID gerar() {
+		return strategy.next();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public UUID gerarConcorrente() {
+		return strategy.next();
+	}
+}
@@ -0,0 +1,113 @@
+package com.outforce.desafio.benchmark;
+
+import com.outforce.desafio.generator.IdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de inserts na tabela de cupons depois de pré-popular {@code rows} linhas com a mesma
+ * estratégia de id. Usa H2 em arquivo para que a árvore da chave primária cresça fora do heap.
+ * O padrão é só 1M linhas, para que a rodada geral do perfil {@code benchmark} não popule dezenas de milhões;
+ * as tabelas grandes são explícitas: {@code -Djmh.args="IdInsertBenchmark -p rows=1000000,10000000,50000000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class IdInsertBenchmark {
+
+	private static final int LOTE = 1000;
+
+	@Param({"1000000"})
+	public long rows;
+
+	@Param({"RANDOM", "TIME_ORDERED"})
+	public IdStrategy strategy;
+
+	private Connection connection;
+	private PreparedStatement insert;
+	private long sequencia;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		Path arquivo = Path.of("target", "benchmark-db", strategy.name().toLowerCase() + "-" + rows, "cupons");
+		connection = DriverManager.getConnection("jdbc:h2:file:" + arquivo.toAbsolutePath(), "sa", "");
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS cupons");
+			statement.execute("""
+					CREATE TABLE cupons (
+						id UUID PRIMARY KEY,
+						code VARCHAR(6) NOT NULL,
+						description VARCHAR(255) NOT NULL,
+						discount_value NUMERIC(12, 2) NOT NULL,
+						expiration_date DATE NOT NULL
+					)""");
+		}
+		connection.commit();
+		insert = connection.prepareStatement(
+				"INSERT INTO cupons (id, code, description, discount_value, expiration_date) VALUES (?, ?, ?, ?, ?)");
+
+		while (sequencia < rows) {
+			inserirLote();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS DELETE FILES");
+		}
+		connection.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public void inserir() throws SQLException {
+		inserirLote();
+	}
+
+	private void inserirLote() throws SQLException {
+		Date expiracao = Date.valueOf(LocalDate.of(2030, 12, 31));
+		for (int i = 0; i < LOTE; i++) {
+			insert.setObject(1, strategy.next());
+			insert.setString(2, codigo(sequencia++));
+			insert.setString(3, "Cupom de benchmark");
+			insert.setBigDecimal(4, BigDecimal.TEN);
+			insert.setDate(5, expiracao);
+			insert.addBatch();
+		}
+		insert.executeBatch();
+		connection.commit();
+	}
+
+	private static String codigo(long sequencia) {
+		String base36 = Long.toString(sequencia % 2_176_782_336L, 36).toUpperCase();
+		return "000000".substring(base36.length()) + base36;
+	}
+}
@@ -0,0 +1,52 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara dois resultados JSON do JMH (ex.: de commits diferentes) e imprime a variação de cada benchmark.
+ * Execução: {@code -Dbenchmark.main=com.outforce.desafio.benchmark.JmhResultDiff -Dbenchmark.args="base.json novo.json"}.
+ */
+public class JmhResultDiff {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Uso: JmhResultDiff <base.json> <novo.json>");
+			System.exit(2);
+		}
+		Map<String, JsonNode> base = carregar(Path.of(args[0]));
+		Map<String, JsonNode> novo = carregar(Path.of(args[1]));
+
+		System.out.printf(Locale.ROOT, "%-80s %14s %14s %9s  %s%n", "Benchmark", "Base", "Novo", "Delta", "Unidade");
+		novo.forEach((chave, resultado) -> {
+			JsonNode anterior = base.get(chave);
+			double scoreNovo = resultado.path("primaryMetric").path("score").asDouble();
+			String unidade = resultado.path("primaryMetric").path("scoreUnit").asText();
+			if (anterior == null) {
+				System.out.printf(Locale.ROOT, "%-80s %14s %14.3f %9s  %s%n", chave, "-", scoreNovo, "novo", unidade);
+				return;
+			}
+			double scoreBase = anterior.path("primaryMetric").path("score").asDouble();
+			double delta = (scoreNovo - scoreBase) / scoreBase * 100;
+			System.out.printf(Locale.ROOT, "%-80s %14.3f %14.3f %+8.1f%%  %s%n", chave, scoreBase, scoreNovo, delta, unidade);
+		});
+	}
+
+	private static Map<String, JsonNode> carregar(Path arquivo) throws IOException {
+		Map<String, JsonNode> resultados = new LinkedHashMap<>();
+		for (JsonNode resultado : new ObjectMapper().readTree(arquivo.toFile())) {
+			StringBuilder chave = new StringBuilder(resultado.path("benchmark").asText()
+					.replace("com.outforce.desafio.benchmark.", ""));
+			resultado.path("params").fields().forEachRemaining(parametro ->
+					chave.append(' ').append(parametro.getKey()).append('=').append(parametro.getValue().asText()));
+			resultados.put(chave.toString(), resultado);
+		}
+		return resultados;
+	}
+}
@@ -0,0 +1,156 @@
+package com.outforce.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.service.CupomService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Disputa de resgate: a cada rodada, {@code --codes} cupons novos recebem {@code --clients} tentativas de resgate
+ * cada, todas liberadas ao mesmo tempo. Verifica que há exatamente um vencedor por código e reporta os percentis
+ * de latência de vencedores e perdedores, gravando o resultado em {@code target/redeem-contention.json}.
+ * <pre>
+ * -Dbenchmark.main=com.outforce.desafio.benchmark.RedeemContention
+ * -Dbenchmark.args="--codes=5 --clients=2000 --rounds=10 --threads=64"
+ * </pre>
+ */
+public class RedeemContention {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		int codigos = Integer.parseInt(opcoes.getOrDefault("codes", "5"));
+		int clientes = Integer.parseInt(opcoes.getOrDefault("clients", "2000"));
+		int rodadas = Integer.parseInt(opcoes.getOrDefault("rounds", "10"));
+		int threads = Integer.parseInt(opcoes.getOrDefault("threads", "64"));
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/redeem-contention.json"));
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:redeem;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN");
+		CupomService service = contexto.getBean(CupomService.class);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		Recorder vencedores = new Recorder(3);
+		Recorder perdedores = new Recorder(3);
+		Map<String, LongAdder> respostas = new ConcurrentHashMap<>();
+		List<String> violacoes = new ArrayList<>();
+		long sequencia = 0;
+		try {
+			for (int rodada = 0; rodada < rodadas; rodada++) {
+				String[] codigosRodada = new String[codigos];
+				for (int i = 0; i < codigos; i++) {
+					codigosRodada[i] = CupomCodeCodec.decode(sequencia++);
+					service.create(new CupomRequestDTO(codigosRodada[i], "Disputa de resgate", new BigDecimal("10.00"),
+							LocalDate.now().plusDays(30), true));
+				}
+
+				Map<String, AtomicInteger> vitorias = new ConcurrentHashMap<>();
+				CountDownLatch largada = new CountDownLatch(1);
+				CountDownLatch fim = new CountDownLatch(codigos * clientes);
+				for (int c = 0; c < clientes; c++) {
+					for (String codigo : codigosRodada) {
+						executor.execute(() -> {
+							try {
+								largada.await();
+								long inicio = System.nanoTime();
+								try {
+									service.redeem(codigo);
+									vencedores.recordValue(System.nanoTime() - inicio);
+									vitorias.computeIfAbsent(codigo, k -> new AtomicInteger()).incrementAndGet();
+									respostas.computeIfAbsent("REDEEMED", k -> new LongAdder()).increment();
+								} catch (BusinessException ex) {
+									perdedores.recordValue(System.nanoTime() - inicio);
+									respostas.computeIfAbsent(ex.getCode(), k -> new LongAdder()).increment();
+								}
+							} catch (InterruptedException ex) {
+								Thread.currentThread().interrupt();
+							} finally {
+								fim.countDown();
+							}
+						});
+					}
+				}
+				largada.countDown();
+				if (!fim.await(5, TimeUnit.MINUTES)) {
+					throw new IllegalStateException("Rodada " + rodada + " não terminou em 5 minutos");
+				}
+				for (String codigo : codigosRodada) {
+					int total = vitorias.getOrDefault(codigo, new AtomicInteger()).get();
+					if (total != 1) {
+						violacoes.add(codigo + ": " + total + " vencedores");
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			contexto.close();
+		}
+
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("codesPerRound", codigos);
+		relatorio.put("clientsPerCode", clientes);
+		relatorio.put("rounds", rodadas);
+		relatorio.put("threads", threads);
+		relatorio.put("winnerViolations", violacoes);
+		relatorio.put("winners", resumo(vencedores.getIntervalHistogram()));
+		relatorio.put("losers", resumo(perdedores.getIntervalHistogram()));
+		Map<String, Long> porResposta = new TreeMap<>();
+		respostas.forEach((chave, contador) -> porResposta.put(chave, contador.sum()));
+		relatorio.put("responses", porResposta);
+
+		System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		gravar(saida, relatorio);
+		if (!violacoes.isEmpty()) {
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("count", histograma.getTotalCount());
+		resumo.put("p50Us", histograma.getValueAtPercentile(50) / 1e3);
+		resumo.put("p99Us", histograma.getValueAtPercentile(99) / 1e3);
+		resumo.put("p999Us", histograma.getValueAtPercentile(99.9) / 1e3);
+		resumo.put("maxUs", histograma.getMaxValue() / 1e3);
+		resumo.put("stdDevUs", String.format(Locale.ROOT, "%.1f", histograma.getStdDeviation() / 1e3));
+		return resumo;
+	}
+
+	private static void gravar(Path saida, Map<String, Object> relatorio) throws IOException {
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+}
@@ -0,0 +1,88 @@
+package com.outforce.desafio.cache;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - CupomCache")
+class CupomCacheTest {
+
+	private final CupomCache cache = new CupomCache(1_000, 60);
+
+	@Test
+	@DisplayName("Não deve guardar valor carregado pelo código quando o id é invalidado durante o carregamento")
+	void naoDeveGuardarValorVelhoAposInvalidacaoConcorrente() {
+		CupomResponseDTO ativo = cupom(UUID.randomUUID(), CupomStatus.ACTIVE);
+		long chave = CupomCodeCodec.encode("ABC123");
+
+		cache.getByCodeKey(chave, codeKey -> {
+			long geracao = cache.generation();
+			cache.invalidate(ativo.id());
+			return new CupomCache.Leitura(ativo, geracao);
+		});
+
+		AtomicInteger carregamentos = new AtomicInteger();
+		CupomResponseDTO deletado = cache.getById(ativo.id(), id -> {
+			carregamentos.incrementAndGet();
+			return cupom(id, CupomStatus.DELETED);
+		});
+
+		assertThat(carregamentos).hasValue(1);
+		assertThat(deletado.status()).isEqualTo(CupomStatus.DELETED);
+	}
+
+	@Test
+	@DisplayName("Não deve guardar valor carregado pelo id quando há invalidação geral durante o carregamento")
+	void naoDeveGuardarValorVelhoAposInvalidacaoGeral() {
+		UUID id = UUID.randomUUID();
+
+		CupomResponseDTO lido = cache.getById(id, chave -> {
+			// a deleção em lote por filtro termina enquanto a linha ativa já foi lida
+			cache.invalidateAll();
+			return cupom(chave, CupomStatus.ACTIVE);
+		});
+
+		AtomicInteger carregamentos = new AtomicInteger();
+		CupomResponseDTO deletado = cache.getById(id, chave -> {
+			carregamentos.incrementAndGet();
+			return cupom(chave, CupomStatus.DELETED);
+		});
+
+		assertThat(lido.status()).isEqualTo(CupomStatus.ACTIVE);
+		assertThat(carregamentos).hasValue(1);
+		assertThat(deletado.status()).isEqualTo(CupomStatus.DELETED);
+	}
+
+	@Test
+	@DisplayName("Não deve guardar ausências")
+	void naoDeveGuardarAusencias() {
+		AtomicInteger carregamentos = new AtomicInteger();
+		UUID id = UUID.randomUUID();
+
+		cache.getById(id, chave -> {
+			carregamentos.incrementAndGet();
+			return null;
+		});
+		cache.getById(id, chave -> {
+			carregamentos.incrementAndGet();
+			return null;
+		});
+
+		assertThat(carregamentos).hasValue(2);
+		assertThat(cache.size()).isZero();
+	}
+
+	private static CupomResponseDTO cupom(UUID id, CupomStatus status) {
+		return new CupomResponseDTO(id, "ABC123", "Cupom", new BigDecimal("10.00"),
+				LocalDate.now().plusYears(1), status, true, false);
+	}
+}
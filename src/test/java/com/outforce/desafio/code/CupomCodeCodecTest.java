@@ -0,0 +1,49 @@
+package com.outforce.desafio.code;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - CupomCodeCodec")
+class CupomCodeCodecTest {
+
+	@Test
+	@DisplayName("Deve codificar os extremos do espaço de códigos")
+	void deveCodificarExtremos() {
+		assertThat(CupomCodeCodec.encode("000000")).isZero();
+		assertThat(CupomCodeCodec.encode("ZZZZZZ")).isEqualTo(CupomCodeCodec.TOTAL_CODIGOS - 1);
+		assertThat(CupomCodeCodec.decode(CupomCodeCodec.TOTAL_CODIGOS - 1)).isEqualTo("ZZZZZZ");
+	}
+
+	@Test
+	@DisplayName("Deve ida e volta entre código, long e int compactado")
+	void deveFazerIdaEVolta() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < 100_000; i++) {
+			long chave = random.nextLong(CupomCodeCodec.TOTAL_CODIGOS);
+			String codigo = CupomCodeCodec.decode(chave);
+
+			assertThat(CupomCodeCodec.encode(codigo)).isEqualTo(chave);
+			assertThat(CupomCodeCodec.unpack(CupomCodeCodec.pack(chave))).isEqualTo(chave);
+		}
+	}
+
+	@Test
+	@DisplayName("Deve preservar a ordem lexicográfica dos códigos")
+	void devePreservarOrdem() {
+		assertThat(CupomCodeCodec.encode("ABC123")).isLessThan(CupomCodeCodec.encode("ABC124"));
+		assertThat(CupomCodeCodec.encode("99ZZZZ")).isLessThan(CupomCodeCodec.encode("A00000"));
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar códigos fora do formato normalizado")
+	void deveRejeitarCodigoInvalido() {
+		assertThatThrownBy(() -> CupomCodeCodec.encode("abc123")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CupomCodeCodec.encode("ABC12")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CupomCodeCodec.decode(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,70 @@
+package com.outforce.desafio.code;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.constraints.StringLength;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Label("Testes de Propriedade - CupomCodeNormalizer")
+class CupomCodeNormalizerTest {
+
+	@Property(tries = 5000)
+	@Label("Deve produzir o mesmo resultado que replaceAll + toUpperCase para qualquer texto")
+	void deveEquivalerAoRegexParaQualquerTexto(@ForAll @StringLength(max = 24) String code) {
+		assertThat(CupomCodeNormalizer.normalize(code)).isEqualTo(referencia(code));
+	}
+
+	@Property(tries = 5000)
+	@Label("Deve produzir o mesmo resultado que replaceAll + toUpperCase para códigos com separadores")
+	void deveEquivalerAoRegexParaCodigosComSeparadores(@ForAll("codigosComSeparadores") String code) {
+		assertThat(CupomCodeNormalizer.normalize(code)).isEqualTo(referencia(code));
+	}
+
+	@Property(tries = 2000)
+	@Label("A chave normalizada deve corresponder ao código normalizado")
+	void chaveDeveCorresponderAoCodigo(@ForAll("codigosComSeparadores") String code) {
+		long chave = CupomCodeNormalizer.normalizeToKey(code);
+		String normalizado = referencia(code);
+
+		if (normalizado == null) {
+			assertThat(chave).isEqualTo(CupomCodeNormalizer.INVALIDO);
+		} else {
+			assertThat(chave).isEqualTo(CupomCodeCodec.encode(normalizado));
+		}
+	}
+
+	@Example
+	@Label("Deve limpar o exemplo da documentação")
+	void deveLimparExemploDaDocumentacao() {
+		assertThat(CupomCodeNormalizer.normalize("ab-12$c3")).isEqualTo("AB12C3");
+		assertThat(CupomCodeNormalizer.normalize("ABCDEFG")).isNull();
+		assertThat(CupomCodeNormalizer.normalize("ÁBC123")).isNull();
+	}
+
+	@Provide
+	Arbitrary<String> codigosComSeparadores() {
+		Arbitrary<Character> alfanumericos = Arbitraries.chars().alpha().numeric();
+		Arbitrary<Character> separadores = Arbitraries.of('-', '$', ' ', '_', '.', '#', 'ç', 'É', '٣', '\u0000');
+		return Arbitraries.frequencyOf(
+						Tuple.of(8, alfanumericos),
+						Tuple.of(2, separadores))
+				.list().ofMinSize(0).ofMaxSize(12)
+				.map(caracteres -> {
+					StringBuilder sb = new StringBuilder(caracteres.size());
+					caracteres.forEach(sb::append);
+					return sb.toString();
+				});
+	}
+
+	private static String referencia(String code) {
+		String codigoLimpo = code.replaceAll("[^A-Za-z0-9]", "");
+		return codigoLimpo.length() != 6 ? null : codigoLimpo.toUpperCase();
+	}
+}
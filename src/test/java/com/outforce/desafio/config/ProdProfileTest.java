@@ -0,0 +1,72 @@
+package com.outforce.desafio.config;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.audit.CupomAuditLog;
+import com.outforce.desafio.audit.CupomEvent;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.enums.CupomEventType;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes de Integração - Perfil prod")
+class ProdProfileTest {
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	@DisplayName("Deve criar o esquema por migração e manter os cupons e eventos após reiniciar a aplicação")
+	void deveManterCuponsAposReiniciar() {
+		UUID id;
+		try (ConfigurableApplicationContext contexto = subir()) {
+			CupomService service = contexto.getBean(CupomService.class);
+			id = service.create(new CupomRequestDTO("PRD001", "Persistente", new BigDecimal("10.00"),
+					LocalDate.now().plusDays(30), true)).id();
+			CupomBatchResponseDTO lote = service.createBatch(List.of(
+					new CupomRequestDTO("PRD002", "Lote", new BigDecimal("10.00"), LocalDate.now().plusDays(30), true),
+					new CupomRequestDTO("PRD003", "Lote", new BigDecimal("10.00"), LocalDate.now().plusDays(30), true)));
+			assertThat(lote.created()).isEqualTo(2);
+			service.delete(lote.cupons().get(0).id());
+		}
+
+		try (ConfigurableApplicationContext contexto = subir()) {
+			CupomService service = contexto.getBean(CupomService.class);
+			JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+
+			assertThat(service.findById(id).code()).isEqualTo("PRD001");
+			assertThat(service.findByCode("PRD002").status()).isEqualTo(CupomStatus.DELETED);
+			assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM cupons", Long.class)).isEqualTo(3);
+			assertThat(jdbc.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL",
+					String.class)).containsExactly("1", "2", "3");
+			assertThat(contexto.getBean(CupomAuditLog.class).read(0, 10)).extracting(CupomEvent::type)
+					.containsExactly(CupomEventType.CREATED, CupomEventType.CREATED, CupomEventType.CREATED,
+							CupomEventType.DELETED);
+		}
+	}
+
+	private ConfigurableApplicationContext subir() {
+		return new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("prod")
+				.run("--cupom.data-dir=" + diretorio.toAbsolutePath(),
+						"--cupom.expiration.enabled=false",
+						"--cupom.code-pool.secret=5eed",
+						"--logging.level.root=WARN");
+	}
+}
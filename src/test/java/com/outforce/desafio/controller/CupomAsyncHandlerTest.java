@@ -0,0 +1,115 @@
+package com.outforce.desafio.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.config.CupomAsyncConfig;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.exception.NotFoundException;
+import com.outforce.desafio.idempotency.CupomIdempotencyStore;
+import com.outforce.desafio.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = CupomController.class, properties = "cupom.async.enabled=true")
+@Import({CupomAsyncConfig.class, CupomAsyncHandler.class, CupomIdempotencyStore.class})
+@DisplayName("Testes Unitários - CupomAsyncHandler")
+class CupomAsyncHandlerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockBean
+	private CupomService cupomService;
+
+	private final CupomRequestDTO requestValido = new CupomRequestDTO("ABC123", "Teste", new BigDecimal("15.00"),
+			LocalDate.of(2030, 12, 31), true);
+
+	@Test
+	@DisplayName("POST /coupons - Deve criar o cupom fora da thread da requisição e responder 201")
+	void deveCriarEmModoAssincrono() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(new CupomResponseDTO(UUID.randomUUID(),
+				"ABC123", "Teste", new BigDecimal("15.00"), LocalDate.of(2030, 12, 31), CupomStatus.ACTIVE, true, false));
+
+		despachar(post("/coupons").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(requestValido)))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.code", is("ABC123")));
+	}
+
+	@Test
+	@DisplayName("POST /coupons - Deve mapear BusinessException como o controller síncrono")
+	void deveMapearErrosDeNegocio() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class)))
+				.thenThrow(new BusinessException("COUPON_CODE_DUPLICATED", "Código de cupom já existe"));
+
+		despachar(post("/coupons").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(requestValido)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("COUPON_CODE_DUPLICATED")));
+	}
+
+	@Test
+	@DisplayName("POST /coupons - Deve validar o corpo antes de liberar a thread")
+	void deveValidarOCorpo() throws Exception {
+		CupomRequestDTO semDescricao = new CupomRequestDTO("ABC123", " ", new BigDecimal("15.00"),
+				LocalDate.of(2030, 12, 31), true);
+
+		mockMvc.perform(post("/coupons").contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(semDescricao)))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("VALIDATION_ERROR")));
+
+		verifyNoInteractions(cupomService);
+	}
+
+	@Test
+	@DisplayName("DELETE /coupons/{id} - Deve responder 204, 409 na segunda deleção e 404 para id inexistente")
+	void deveDeletarEmModoAssincrono() throws Exception {
+		UUID deletado = UUID.randomUUID();
+		UUID inexistente = UUID.randomUUID();
+		doThrow(new BusinessException("COUPON_ALREADY_DELETED", "Cupom já foi deletado"))
+				.when(cupomService).delete(deletado);
+		doThrow(new NotFoundException("Cupom não encontrado")).when(cupomService).delete(inexistente);
+
+		despachar(delete("/coupons/{id}", UUID.randomUUID())).andExpect(status().isNoContent());
+		despachar(delete("/coupons/{id}", deletado))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.code", is("COUPON_ALREADY_DELETED")));
+		despachar(delete("/coupons/{id}", inexistente))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.code", is("COUPON_NOT_FOUND")));
+		mockMvc.perform(delete("/coupons/nao-e-uuid"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("INVALID_PARAMETER")));
+	}
+
+	private ResultActions despachar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		MvcResult iniciado = mockMvc.perform(requisicao).andExpect(request().asyncStarted()).andReturn();
+		return mockMvc.perform(asyncDispatch(iniciado));
+	}
+}
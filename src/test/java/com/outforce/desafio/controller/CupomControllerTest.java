@@ -1,11 +1,19 @@
 package com.outforce.desafio.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.dto.CupomBatchErrorDTO;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
 import com.outforce.desafio.enums.CupomStatus;
 import com.outforce.desafio.exception.BusinessException;
 import com.outforce.desafio.exception.NotFoundException;
+import com.outforce.desafio.idempotency.CupomIdempotencyStore;
 import com.outforce.desafio.service.CupomService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,20 +21,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CupomController.class)
+@Import(CupomIdempotencyStore.class)
 @DisplayName("Testes Unitários - CupomController")
 class CupomControllerTest {
 
@@ -130,6 +146,21 @@ class CupomControllerTest {
 		verify(cupomService, never()).create(any(CupomRequestDTO.class));
 	}
 
+	@Test
+	@DisplayName("POST /coupons - Deve retornar 503 com Retry-After quando não há códigos gerados")
+	void deveRetornar503QuandoPoolDeCodigosVazio() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class)))
+				.thenThrow(new BusinessException("COUPON_CODE_POOL_EMPTY",
+						"Não há códigos gerados disponíveis; informe o código do cupom"));
+
+		mockMvc.perform(post("/coupons")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(requestValido)))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.code", is("COUPON_CODE_POOL_EMPTY")));
+	}
+
 	@Test
 	@DisplayName("POST /coupons - Deve retornar 400 quando data no passado")
 	void deveRetornar400QuandoDataNoPassado() throws Exception {
@@ -183,6 +214,45 @@ class CupomControllerTest {
 				.andExpect(jsonPath("$.code", is("AB12C3")));
 	}
 
+	@Test
+	@DisplayName("POST /coupons - Deve devolver a primeira resposta ao repetir a mesma Idempotency-Key")
+	void deveDevolverPrimeiraRespostaComMesmaIdempotencyKey() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(responseValido);
+
+		for (int tentativa = 0; tentativa < 2; tentativa++) {
+			mockMvc.perform(post("/coupons")
+							.header("Idempotency-Key", "pedido-42")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(requestValido)))
+					.andExpect(status().isCreated())
+					.andExpect(jsonPath("$.id", is(responseValido.id().toString())));
+		}
+
+		verify(cupomService, times(1)).create(any(CupomRequestDTO.class));
+	}
+
+	@Test
+	@DisplayName("POST /coupons - Deve retornar 409 quando a Idempotency-Key é reusada com outros dados")
+	void deveRetornar409QuandoIdempotencyKeyReusada() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(responseValido);
+		CupomRequestDTO outro = new CupomRequestDTO("XYZ789", "Outro", new BigDecimal("15.00"),
+				LocalDate.of(2026, 12, 31), true);
+
+		mockMvc.perform(post("/coupons")
+						.header("Idempotency-Key", "pedido-43")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(requestValido)))
+				.andExpect(status().isCreated());
+		mockMvc.perform(post("/coupons")
+						.header("Idempotency-Key", "pedido-43")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(outro)))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.code", is("IDEMPOTENCY_KEY_REUSED")));
+
+		verify(cupomService, times(1)).create(any(CupomRequestDTO.class));
+	}
+
 	@Test
 	@DisplayName("DELETE /coupons/{id} - Deve deletar cupom e retornar 204 No Content")
 	void deveDeletarCupomComSucesso() throws Exception {
@@ -336,5 +406,198 @@ class CupomControllerTest {
 
 		verify(cupomService, times(1)).create(any(CupomRequestDTO.class));
 	}
-}
 
+	@Test
+	@DisplayName("POST /coupons/batch - Deve retornar 201 quando todos os cupons são criados")
+	void deveCriarLoteComSucesso() throws Exception {
+		when(cupomService.createBatch(anyList()))
+				.thenReturn(new CupomBatchResponseDTO(1, 1, 0, List.of(responseValido), List.of()));
+
+		mockMvc.perform(post("/coupons/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(requestValido))))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.created", is(1)))
+				.andExpect(jsonPath("$.cupons[0].code", is("ABC123")));
+
+		verify(cupomService, times(1)).createBatch(anyList());
+	}
+
+	@Test
+	@DisplayName("POST /coupons/batch - Deve retornar 207 com erros por item em sucesso parcial")
+	void deveRetornar207QuandoLoteParcial() throws Exception {
+		CupomBatchErrorDTO erro = new CupomBatchErrorDTO(1, "AB12", "COUPON_CODE_LENGTH",
+				"Código do cupom deve ter 6 caracteres alfanuméricos");
+		when(cupomService.createBatch(anyList()))
+				.thenReturn(new CupomBatchResponseDTO(2, 1, 1, List.of(responseValido), List.of(erro)));
+
+		mockMvc.perform(post("/coupons/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(requestValido, requestValido))))
+				.andExpect(status().isMultiStatus())
+				.andExpect(jsonPath("$.failed", is(1)))
+				.andExpect(jsonPath("$.errors[0].index", is(1)))
+				.andExpect(jsonPath("$.errors[0].errorCode", is("COUPON_CODE_LENGTH")));
+	}
+
+	@Test
+	@DisplayName("GET /coupons/{id} - Deve retornar 200 OK com o cupom")
+	void deveBuscarCupomPorId() throws Exception {
+		when(cupomService.findById(responseValido.id())).thenReturn(responseValido);
+
+		mockMvc.perform(get("/coupons/{id}", responseValido.id()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(responseValido.id().toString()))
+				.andExpect(jsonPath("$.status").value("ACTIVE"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons/{id} - Deve retornar 404 Not Found quando cupom não existe")
+	void deveRetornar404AoBuscarCupomInexistente() throws Exception {
+		UUID cupomId = UUID.randomUUID();
+		when(cupomService.findById(cupomId)).thenThrow(new NotFoundException("Cupom não encontrado"));
+
+		mockMvc.perform(get("/coupons/{id}", cupomId))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.code").value("COUPON_NOT_FOUND"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons/code/{code} - Deve retornar 200 OK com o cupom")
+	void deveBuscarCupomPorCodigo() throws Exception {
+		when(cupomService.findByCode("ABC123")).thenReturn(responseValido);
+
+		mockMvc.perform(get("/coupons/code/{code}", "ABC123"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.code").value("ABC123"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons/code/{code} - Deve retornar 400 Bad Request para código inválido")
+	void deveRetornar400AoBuscarCodigoInvalido() throws Exception {
+		when(cupomService.findByCode("AB1"))
+				.thenThrow(new BusinessException("COUPON_CODE_LENGTH", "Código do cupom deve ter 6 caracteres alfanuméricos"));
+
+		mockMvc.perform(get("/coupons/code/{code}", "AB1"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("COUPON_CODE_LENGTH"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons - Deve listar cupons aplicando os filtros informados")
+	void deveListarCuponsComFiltros() throws Exception {
+		CupomFilterDTO filtro = new CupomFilterDTO(CupomStatus.ACTIVE, true, null,
+				LocalDate.of(2026, 1, 1), null);
+		when(cupomService.list(filtro, null, 20)).thenReturn(new CupomPageDTO(List.of(responseValido), "abc"));
+
+		mockMvc.perform(get("/coupons")
+						.param("status", "ACTIVE")
+						.param("published", "true")
+						.param("expirationFrom", "2026-01-01")
+						.param("limit", "20"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.cupons", hasSize(1)))
+				.andExpect(jsonPath("$.nextCursor").value("abc"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons - Deve retornar 400 Bad Request para status inválido")
+	void deveRetornar400ParaStatusInvalido() throws Exception {
+		mockMvc.perform(get("/coupons").param("status", "QUALQUER"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+
+		verify(cupomService, never()).list(any(), any(), anyInt());
+	}
+
+	@Test
+	@DisplayName("GET /coupons/export - Deve exportar em CSV com o filtro da listagem direto na resposta")
+	void deveExportarCuponsEmCsv() throws Exception {
+		CupomFilterDTO filtro = new CupomFilterDTO(CupomStatus.ACTIVE, true, null, null, null);
+		when(cupomService.export(eq(filtro), eq(CupomExportFormat.CSV), any(OutputStream.class))).thenAnswer(chamada -> {
+			chamada.getArgument(2, OutputStream.class).write("id,code\n".getBytes(StandardCharsets.UTF_8));
+			return 0L;
+		});
+
+		mockMvc.perform(get("/coupons/export")
+						.param("status", "ACTIVE")
+						.param("published", "true")
+						.param("format", "CSV"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("text/csv;charset=UTF-8"))
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"cupons.csv\""))
+				.andExpect(content().string("id,code\n"));
+	}
+
+	@Test
+	@DisplayName("GET /coupons/export - Deve retornar 400 Bad Request para formato inválido")
+	void deveRetornar400ParaFormatoDeExportacaoInvalido() throws Exception {
+		mockMvc.perform(get("/coupons/export").param("format", "XML"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+
+		verify(cupomService, never()).export(any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("POST /coupons/{code}/redeem - Deve resgatar cupom e retornar 200 OK")
+	void deveResgatarCupom() throws Exception {
+		CupomResponseDTO resgatado = new CupomResponseDTO(responseValido.id(), "ABC123", "Teste Description",
+				new BigDecimal("15.00"), LocalDate.of(2026, 12, 31), CupomStatus.ACTIVE, true, true);
+		when(cupomService.redeem("ABC123")).thenReturn(resgatado);
+
+		mockMvc.perform(post("/coupons/{code}/redeem", "ABC123"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.redeemed").value(true));
+	}
+
+	@Test
+	@DisplayName("POST /coupons/{code}/redeem - Deve retornar 409 Conflict quando cupom já foi resgatado")
+	void deveRetornar409AoResgatarCupomJaResgatado() throws Exception {
+		when(cupomService.redeem("ABC123"))
+				.thenThrow(new BusinessException("COUPON_ALREADY_REDEEMED", "Cupom já foi resgatado"));
+
+		mockMvc.perform(post("/coupons/{code}/redeem", "ABC123"))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.code").value("COUPON_ALREADY_REDEEMED"));
+	}
+
+	@Test
+	@DisplayName("POST /coupons/{code}/redeem - Deve retornar 400 Bad Request quando cupom está expirado")
+	void deveRetornar400AoResgatarCupomExpirado() throws Exception {
+		when(cupomService.redeem("ABC123"))
+				.thenThrow(new BusinessException("COUPON_EXPIRED", "Cupom expirado"));
+
+		mockMvc.perform(post("/coupons/{code}/redeem", "ABC123"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("COUPON_EXPIRED"));
+	}
+
+	@Test
+	@DisplayName("POST /coupons/batch/delete - Deve deletar em lote por filtro e retornar a quantidade deletada")
+	void deveDeletarEmLotePorFiltro() throws Exception {
+		when(cupomService.deleteBulk(any(CupomBulkDeleteRequestDTO.class))).thenReturn(new CupomBulkDeleteResponseDTO(3));
+
+		mockMvc.perform(post("/coupons/batch/delete")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"filter\":{\"status\":\"INACTIVE\",\"expirationTo\":\"2026-12-31\"}}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(3));
+
+		verify(cupomService).deleteBulk(new CupomBulkDeleteRequestDTO(null,
+				new CupomFilterDTO(CupomStatus.INACTIVE, null, null, null, LocalDate.of(2026, 12, 31))));
+	}
+
+	@Test
+	@DisplayName("POST /coupons/batch/delete - Deve retornar 400 quando o critério é inválido")
+	void deveRetornar400NaDelecaoEmLoteSemCriterio() throws Exception {
+		when(cupomService.deleteBulk(any(CupomBulkDeleteRequestDTO.class)))
+				.thenThrow(new BusinessException("COUPON_BULK_DELETE_CRITERIA", "Informe ids ou filter para a deleção em lote"));
+
+		mockMvc.perform(post("/coupons/batch/delete")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("COUPON_BULK_DELETE_CRITERIA"));
+	}
+}
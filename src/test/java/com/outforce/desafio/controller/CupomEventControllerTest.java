@@ -0,0 +1,65 @@
+package com.outforce.desafio.controller;
+
+import com.outforce.desafio.audit.CupomAuditLog;
+import com.outforce.desafio.audit.CupomEvent;
+import com.outforce.desafio.enums.CupomEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = CupomEventController.class, properties = "cupom.audit.enabled=true")
+@DisplayName("Testes Unitários - CupomEventController")
+class CupomEventControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private CupomAuditLog auditLog;
+
+	@Test
+	@DisplayName("Deve retornar os eventos a partir do offset com o próximo offset")
+	void deveRetornarEventos() throws Exception {
+		UUID id = UUID.randomUUID();
+		when(auditLog.read(10, 2)).thenReturn(List.of(
+				new CupomEvent(10, CupomEventType.CREATED, id, "ABC123", Instant.parse("2026-01-01T10:00:00Z")),
+				new CupomEvent(11, CupomEventType.REDEEMED, id, "ABC123", Instant.parse("2026-01-01T10:05:00Z"))));
+		when(auditLog.endOffset()).thenReturn(42L);
+
+		mockMvc.perform(get("/coupons/events").param("offset", "10").param("limit", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events", hasSize(2)))
+				.andExpect(jsonPath("$.events[0].type").value("CREATED"))
+				.andExpect(jsonPath("$.events[1].offset").value(11))
+				.andExpect(jsonPath("$.events[1].couponId").value(id.toString()))
+				.andExpect(jsonPath("$.nextOffset").value(12))
+				.andExpect(jsonPath("$.endOffset").value(42));
+	}
+
+	@Test
+	@DisplayName("Deve retornar 400 para offset negativo ou limite fora do intervalo")
+	void deveRejeitarParametrosInvalidos() throws Exception {
+		mockMvc.perform(get("/coupons/events").param("offset", "-1"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("COUPON_EVENTS_OFFSET"));
+		mockMvc.perform(get("/coupons/events").param("limit", "1001"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code").value("COUPON_EVENTS_LIMIT"));
+
+		verify(auditLog, never()).read(anyLong(), anyInt());
+	}
+}
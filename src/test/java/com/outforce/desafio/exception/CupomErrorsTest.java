@@ -0,0 +1,44 @@
+package com.outforce.desafio.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - CupomErrors")
+class CupomErrorsTest {
+
+	@Test
+	@DisplayName("Deve lançar a mesma instância sem stack trace, mantendo código e mensagem")
+	void deveSerSemStackTrace() {
+		BusinessException erro = CupomErrors.COUPON_CODE_LENGTH;
+
+		assertThatThrownBy(() -> {
+			throw erro;
+		}).isSameAs(erro);
+		assertThat(erro.getStackTrace()).isEmpty();
+		assertThat(erro.getCode()).isEqualTo("COUPON_CODE_LENGTH");
+		assertThat(erro.getMessage()).isEqualTo("Código do cupom deve ter 6 caracteres alfanuméricos");
+		assertThat(CupomErrors.COUPON_NOT_FOUND.getStackTrace()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Não deve acumular estado entre lançamentos")
+	void naoDeveAcumularEstado() {
+		BusinessException erro = CupomErrors.COUPON_DISCOUNT_MIN;
+
+		erro.addSuppressed(new IllegalStateException());
+		erro.fillInStackTrace();
+
+		assertThat(erro.getSuppressed()).isEmpty();
+		assertThat(erro.getStackTrace()).isEmpty();
+		assertThat(erro.getCause()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve manter a stack trace nos erros criados na hora")
+	void deveManterStackTraceNosDemais() {
+		assertThat(new BusinessException("COUPON_PAGE_LIMIT", "Limite").getStackTrace()).isNotEmpty();
+	}
+}
@@ -0,0 +1,110 @@
+package com.outforce.desafio.expiration;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.repository.CupomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CupomExpirationSweeper.class, CupomCache.class, CupomExpirationSweeperTest.Metricas.class})
+@TestPropertySource(properties = {
+		"cupom.expiration.enabled=true",
+		"cupom.expiration.batch-size=4",
+		"cupom.expiration.max-batches-per-run=3",
+		"cupom.expiration.pause-between-batches-ms=0"
+})
+@DisplayName("Testes de Integração - Varredura de expiração")
+class CupomExpirationSweeperTest {
+
+	private static final LocalDate HOJE = LocalDate.of(2030, 6, 1);
+
+	@Autowired
+	private CupomExpirationSweeper sweeper;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private final List<Cupom> cupons = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		cupomRepository.deleteAllInBatch();
+		// 15 expirados ACTIVE, 3 expirados já DELETED e 5 ACTIVE que expiram hoje ou depois
+		for (int i = 0; i < 23; i++) {
+			LocalDate expiracao = i < 18 ? HOJE.minusDays(1 + i % 4) : HOJE.plusDays(i - 18);
+			cupons.add(Cupom.builder()
+					.code(String.format("EXP%03d", i))
+					.description("Cupom " + i)
+					.discountValue(new BigDecimal("10.00"))
+					.expirationDate(expiracao)
+					.status(i >= 15 && i < 18 ? CupomStatus.DELETED : CupomStatus.ACTIVE)
+					.build());
+		}
+		cupomRepository.saveAllAndFlush(cupons);
+	}
+
+	@Test
+	@DisplayName("Deve expirar em lotes limitados por execução e continuar na execução seguinte")
+	void deveExpirarEmLotesEContinuar() {
+		assertThat(sweeper.expirar(HOJE)).isEqualTo(12);
+		assertThat(sweeper.expirar(HOJE)).isEqualTo(3);
+		assertThat(sweeper.expirar(HOJE)).isZero();
+
+		assertThat(cupomRepository.findAll()).allSatisfy(cupom -> {
+			if (cupom.getStatus() == CupomStatus.ACTIVE) {
+				assertThat(cupom.getExpirationDate()).isAfterOrEqualTo(HOJE);
+			}
+		});
+		assertThat(cupomRepository.findAll()).filteredOn(cupom -> cupom.getStatus() == CupomStatus.INACTIVE).hasSize(15);
+		assertThat(cupomRepository.findAll()).filteredOn(cupom -> cupom.getStatus() == CupomStatus.DELETED).hasSize(3);
+	}
+
+	@Test
+	@DisplayName("Deve publicar linhas processadas e duração de cada execução")
+	void devePublicarMetricas() {
+		double linhasAntes = registry.get("cupom.expiration.rows").counter().count();
+		long execucoesAntes = registry.get("cupom.expiration.run.duration").timer().count();
+		double totalPorExecucaoAntes = registry.get("cupom.expiration.run.rows").summary().totalAmount();
+
+		sweeper.expirar(HOJE);
+		sweeper.expirar(HOJE);
+
+		assertThat(registry.get("cupom.expiration.rows").counter().count() - linhasAntes).isEqualTo(15);
+		assertThat(registry.get("cupom.expiration.run.duration").timer().count() - execucoesAntes).isEqualTo(2);
+		assertThat(registry.get("cupom.expiration.run.rows").summary().totalAmount() - totalPorExecucaoAntes)
+				.isEqualTo(15);
+	}
+
+	@TestConfiguration
+	static class Metricas {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.outforce.desafio.generator;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - CupomCodePermutation")
+class CupomCodePermutationTest {
+
+	@Test
+	@DisplayName("Deve levar posições distintas a chaves distintas dentro do espaço de códigos")
+	void deveSerInjetora() {
+		CupomCodePermutation permutacao = new CupomCodePermutation(42);
+		Set<Long> chaves = new HashSet<>();
+
+		for (long posicao = 0; posicao < 200_000; posicao++) {
+			long chave = permutacao.apply(posicao);
+			assertThat(chave).isBetween(0L, CupomCodeCodec.TOTAL_CODIGOS - 1);
+			chaves.add(chave);
+		}
+
+		assertThat(chaves).hasSize(200_000);
+	}
+
+	@Test
+	@DisplayName("Deve repetir a sequência com o mesmo segredo e mudá-la com outro")
+	void deveDependerDoSegredo() {
+		long[] primeira = LongStream.range(0, 100).map(new CupomCodePermutation(7)::apply).toArray();
+		long[] mesma = LongStream.range(0, 100).map(new CupomCodePermutation(7)::apply).toArray();
+		long[] outra = LongStream.range(0, 100).map(new CupomCodePermutation(8)::apply).toArray();
+
+		assertThat(mesma).containsExactly(primeira);
+		assertThat(outra).isNotEqualTo(primeira);
+	}
+
+	@Test
+	@DisplayName("Deve recusar posições fora do espaço de códigos")
+	void deveRecusarPosicaoInvalida() {
+		CupomCodePermutation permutacao = new CupomCodePermutation(0);
+
+		assertThatThrownBy(() -> permutacao.apply(CupomCodeCodec.TOTAL_CODIGOS))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,135 @@
+package com.outforce.desafio.generator;
+
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.repository.CupomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes Unitários - CupomCodePool")
+class CupomCodePoolTest {
+
+	private static final long SEGREDO = 99;
+
+	private final CupomRepository repository = mock(CupomRepository.class);
+	private final AtomicLong sequencia = new AtomicLong();
+	private CupomCodeIndex index;
+	private CupomCodePool pool;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.reserveCodeBlock(anyInt())).thenAnswer(chamada -> sequencia.getAndAdd(chamada.<Integer>getArgument(0)));
+		index = new CupomCodeIndex(10_000, 0.01);
+		ReflectionTestUtils.setField(index, "cupomRepository", repository);
+		pool = new CupomCodePool(100, 50, Long.toHexString(SEGREDO));
+		ReflectionTestUtils.setField(pool, "cupomRepository", repository);
+		ReflectionTestUtils.setField(pool, "codeIndex", index);
+	}
+
+	@Test
+	@DisplayName("Deve pular códigos que já estão em uso e entregar códigos únicos, reservados no índice")
+	void devePularCodigosEmUso() {
+		CupomCodePermutation permutacao = new CupomCodePermutation(SEGREDO);
+		List<Long> emUso = LongStream.range(0, 5).map(permutacao::apply).boxed().toList();
+		when(repository.streamAllCodeKeys()).thenAnswer(chamada -> emUso.stream());
+		index.aquecer();
+
+		Set<String> entregues = new HashSet<>();
+		for (int i = 0; i < 250; i++) {
+			entregues.add(pool.next());
+		}
+
+		assertThat(entregues).hasSize(250).allMatch(codigo -> codigo.length() == 6).allMatch(index::contains);
+		assertThat(entregues).doesNotContainAnyElementsOf(emUso.stream().map(CupomCodeCodec::decode).toList());
+		assertThat(pool.skipped()).isEqualTo(5);
+	}
+
+	@Test
+	@DisplayName("Deve manter a fila cheia em blocos, sem ultrapassar a capacidade")
+	void deveReporEmBlocos() {
+		when(repository.streamAllCodeKeys()).thenAnswer(chamada -> LongStream.empty().boxed());
+		index.aquecer();
+
+		pool.fill();
+		assertThat(pool.depth()).isEqualTo(100);
+		assertThat(sequencia.get()).isEqualTo(100);
+
+		pool.next();
+		pool.fill();
+		assertThat(pool.depth()).isEqualTo(99);
+		assertThat(sequencia.get()).isEqualTo(100);
+	}
+
+	@Test
+	@DisplayName("Deve repor um único bloco na requisição que encontra a fila vazia")
+	void deveReporUmBlocoNaRequisicao() {
+		when(repository.streamAllCodeKeys()).thenAnswer(chamada -> LongStream.empty().boxed());
+		index.aquecer();
+
+		pool.next();
+
+		assertThat(sequencia.get()).isEqualTo(50);
+		assertThat(pool.depth()).isEqualTo(49);
+	}
+
+	@Test
+	@DisplayName("Deve esperar os códigos da reposição em andamento em vez de repor de novo")
+	void deveEsperarReposicaoEmAndamento() throws Exception {
+		when(repository.streamAllCodeKeys()).thenAnswer(chamada -> LongStream.empty().boxed());
+		index.aquecer();
+		CountDownLatch reservando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		when(repository.reserveCodeBlock(anyInt())).thenAnswer(chamada -> {
+			reservando.countDown();
+			liberar.await(5, TimeUnit.SECONDS);
+			return sequencia.getAndAdd(chamada.<Integer>getArgument(0));
+		});
+
+		CompletableFuture<Void> reposicao = CompletableFuture.runAsync(pool::fill);
+		assertThat(reservando.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> entrega = CompletableFuture.supplyAsync(pool::next);
+		Thread.sleep(100);
+		assertThat(entrega).isNotDone();
+		liberar.countDown();
+
+		assertThat(entrega.get(5, TimeUnit.SECONDS)).hasSize(6);
+		reposicao.get(5, TimeUnit.SECONDS);
+		assertThat(sequencia.get()).isEqualTo(100);
+	}
+
+	@Test
+	@DisplayName("Não deve aceitar o gerador sem segredo configurado")
+	void naoDeveAceitarSemSegredo() {
+		assertThatThrownBy(() -> new CupomCodePool(100, 50, ""))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("cupom.code-pool.secret");
+		assertThatThrownBy(() -> new CupomCodePool(100, 50, "segredo"))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	@DisplayName("Deve recusar a geração enquanto o índice não estiver aquecido")
+	void deveRecusarSemIndice() {
+		assertThatThrownBy(pool::next)
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_CODE_POOL_EMPTY");
+	}
+}
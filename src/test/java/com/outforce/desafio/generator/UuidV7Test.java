@@ -0,0 +1,56 @@
+package com.outforce.desafio.generator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - UuidV7")
+class UuidV7Test {
+
+	@Test
+	@DisplayName("Deve gerar UUID versão 7 com variante RFC 4122")
+	void deveGerarVersao7() {
+		UUID uuid = UuidV7.generate();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve embutir o timestamp atual em milissegundos")
+	void deveEmbutirTimestamp() {
+		long antes = System.currentTimeMillis();
+		UUID uuid = UuidV7.generate();
+		long depois = System.currentTimeMillis();
+
+		assertThat(UuidV7.timestamp(uuid)).isBetween(antes, depois + 1);
+	}
+
+	@Test
+	@DisplayName("Deve gerar ids estritamente crescentes na mesma thread")
+	void deveGerarIdsCrescentes() {
+		UUID anterior = UuidV7.generate();
+		for (int i = 0; i < 100_000; i++) {
+			UUID atual = UuidV7.generate();
+			assertThat(Long.compareUnsigned(atual.getMostSignificantBits(), anterior.getMostSignificantBits()))
+					.isPositive();
+			anterior = atual;
+		}
+	}
+
+	@Test
+	@DisplayName("Deve gerar ids únicos sob concorrência")
+	void deveGerarIdsUnicosSobConcorrencia() {
+		Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+		IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+
+		assertThat(ids).hasSize(200_000);
+	}
+}
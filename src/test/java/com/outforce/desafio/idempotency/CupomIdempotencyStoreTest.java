@@ -0,0 +1,147 @@
+package com.outforce.desafio.idempotency;
+
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - CupomIdempotencyStore")
+class CupomIdempotencyStoreTest {
+
+	private final CupomIdempotencyStore store = new CupomIdempotencyStore(1_000, 60, 5_000);
+	private final CupomRequestDTO request = new CupomRequestDTO("ABC123", "Idempotente", new BigDecimal("10.00"),
+			LocalDate.now().plusDays(30), true);
+
+	@Test
+	@DisplayName("Deve devolver a primeira resposta nas repetições sem executar de novo")
+	void deveDevolverPrimeiraResposta() {
+		AtomicInteger execucoes = new AtomicInteger();
+
+		CupomResponseDTO primeira = store.execute("chave-1", request, () -> criar(execucoes));
+		CupomResponseDTO repetida = store.execute("chave-1", request, () -> criar(execucoes));
+
+		assertThat(repetida).isSameAs(primeira);
+		assertThat(execucoes).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("Deve juntar requisições simultâneas com a mesma chave em uma única execução")
+	void deveJuntarRequisicoesSimultaneas() throws Exception {
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<CupomResponseDTO> primeira = executor.submit(() -> store.execute("chave-1", request, () -> {
+				emAndamento.countDown();
+				aguardar(liberar);
+				return criar(execucoes);
+			}));
+			assertThat(emAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<CupomResponseDTO> segunda = executor.submit(() -> store.execute("chave-1", request, () -> criar(execucoes)));
+			Future<CupomResponseDTO> terceira = executor.submit(() -> store.execute("chave-1", request, () -> criar(execucoes)));
+			liberar.countDown();
+
+			CupomResponseDTO resposta = primeira.get(5, TimeUnit.SECONDS);
+			assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(resposta);
+			assertThat(terceira.get(5, TimeUnit.SECONDS)).isSameAs(resposta);
+			assertThat(execucoes).hasValue(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Não deve guardar falhas: a próxima tentativa executa de novo")
+	void naoDeveGuardarFalhas() {
+		AtomicInteger execucoes = new AtomicInteger();
+
+		assertThatThrownBy(() -> store.execute("chave-1", request, () -> {
+			execucoes.incrementAndGet();
+			throw new BusinessException("COUPON_DISCOUNT_MIN", "Valor de desconto deve ser no mínimo 0.5");
+		})).isInstanceOf(BusinessException.class);
+		CupomResponseDTO resposta = store.execute("chave-1", request, () -> criar(execucoes));
+
+		assertThat(resposta).isNotNull();
+		assertThat(execucoes).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("Deve recusar com IDEMPOTENCY_KEY_IN_PROGRESS a repetição que espera demais pela primeira")
+	void deveLimitarEsperaPelaPrimeira() throws Exception {
+		CupomIdempotencyStore comPrazoCurto = new CupomIdempotencyStore(1_000, 60, 50);
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<CupomResponseDTO> primeira = executor.submit(() -> comPrazoCurto.execute("chave-1", request, () -> {
+				emAndamento.countDown();
+				aguardar(liberar);
+				return criar(new AtomicInteger());
+			}));
+			assertThat(emAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThatThrownBy(() -> comPrazoCurto.execute("chave-1", request, () -> criar(new AtomicInteger())))
+					.isInstanceOf(BusinessException.class)
+					.hasFieldOrPropertyWithValue("code", "IDEMPOTENCY_KEY_IN_PROGRESS");
+
+			liberar.countDown();
+			CupomResponseDTO resposta = primeira.get(5, TimeUnit.SECONDS);
+			assertThat(comPrazoCurto.execute("chave-1", request, () -> criar(new AtomicInteger()))).isSameAs(resposta);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar a mesma chave com outros dados de cupom")
+	void deveRejeitarChaveReusadaComOutrosDados() {
+		store.execute("chave-1", request, () -> criar(new AtomicInteger()));
+		CupomRequestDTO outro = new CupomRequestDTO("XYZ789", "Outro", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), true);
+
+		assertThatThrownBy(() -> store.execute("chave-1", outro, () -> criar(new AtomicInteger())))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "IDEMPOTENCY_KEY_REUSED");
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar chave vazia ou longa demais")
+	void deveRejeitarChaveInvalida() {
+		assertThatThrownBy(() -> store.execute(" ", request, () -> criar(new AtomicInteger())))
+				.hasFieldOrPropertyWithValue("code", "IDEMPOTENCY_KEY_INVALID");
+		assertThatThrownBy(() -> store.execute("k".repeat(CupomIdempotencyStore.TAMANHO_MAXIMO_CHAVE + 1), request,
+				() -> criar(new AtomicInteger())))
+				.hasFieldOrPropertyWithValue("code", "IDEMPOTENCY_KEY_INVALID");
+		assertThat(store.size()).isZero();
+	}
+
+	private CupomResponseDTO criar(AtomicInteger execucoes) {
+		execucoes.incrementAndGet();
+		return new CupomResponseDTO(UUID.randomUUID(), request.code(), request.description(), request.discountValue(),
+				request.expirationDate(), CupomStatus.ACTIVE, request.published(), false);
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.outforce.desafio.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - CupomCodeIndex")
+class CupomCodeIndexTest {
+
+	@Test
+	@DisplayName("Deve responder presença exata para códigos adicionados")
+	void deveResponderPresencaExata() {
+		CupomCodeIndex index = new CupomCodeIndex(1_000, 0.01);
+
+		index.add("ABC123");
+
+		assertThat(index.contains("ABC123")).isTrue();
+		assertThat(index.contains("ABC124")).isFalse();
+		assertThat(index.isReady()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Bloom filter não deve ter falso negativo e deve respeitar a taxa de falso positivo")
+	void bloomFilterSemFalsoNegativo() {
+		BloomFilter filtro = new BloomFilter(100_000, 0.01);
+		for (long i = 0; i < 100_000; i++) {
+			filtro.put(i);
+		}
+
+		int falsosPositivos = 0;
+		for (long i = 0; i < 100_000; i++) {
+			assertThat(filtro.mightContain(i)).isTrue();
+			if (filtro.mightContain(i + 1_000_000)) {
+				falsosPositivos++;
+			}
+		}
+
+		assertThat(falsosPositivos).isLessThan(2_000);
+	}
+}
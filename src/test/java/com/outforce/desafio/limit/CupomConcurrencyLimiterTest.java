@@ -0,0 +1,76 @@
+package com.outforce.desafio.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - CupomConcurrencyLimiter")
+class CupomConcurrencyLimiterTest {
+
+	private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(500);
+
+	@Test
+	@DisplayName("Deve recusar quando as vagas do limite estão tomadas e admitir de novo após a liberação")
+	void deveRecusarNoLimite() {
+		CupomConcurrencyLimiter limiter = new CupomConcurrencyLimiter(2, 1, 10, 100, 0.5);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isFalse();
+
+		limiter.release(RAPIDA, false);
+		assertThat(limiter.inflight()).isEqualTo(1);
+		assertThat(limiter.tryAcquire()).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve reduzir o limite até o mínimo quando a latência passa do alvo")
+	void deveReduzirComLatenciaAlta() {
+		CupomConcurrencyLimiter limiter = new CupomConcurrencyLimiter(20, 4, 100, 100, 0.5);
+
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+			limiter.release(LENTA, false);
+		}
+
+		assertThat(limiter.limit()).isEqualTo(4);
+	}
+
+	@Test
+	@DisplayName("Deve crescer com respostas rápidas só quando o limite está em uso")
+	void deveCrescerComLimiteEmUso() {
+		CupomConcurrencyLimiter limiter = new CupomConcurrencyLimiter(4, 1, 100, 100, 0.5);
+
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire();
+			limiter.release(RAPIDA, false);
+		}
+		assertThat(limiter.limit()).isEqualTo(4);
+
+		for (int rodada = 0; rodada < 20; rodada++) {
+			int admitidas = 0;
+			while (limiter.tryAcquire()) {
+				admitidas++;
+			}
+			for (int i = 0; i < admitidas; i++) {
+				limiter.release(RAPIDA, false);
+			}
+		}
+		assertThat(limiter.limit()).isGreaterThan(10);
+	}
+
+	@Test
+	@DisplayName("Deve tratar falha por timeout como lentidão")
+	void deveReduzirComFalha() {
+		CupomConcurrencyLimiter limiter = new CupomConcurrencyLimiter(10, 1, 100, 100, 0.5);
+
+		limiter.tryAcquire();
+		limiter.release(RAPIDA, true);
+
+		assertThat(limiter.limit()).isEqualTo(5);
+	}
+}
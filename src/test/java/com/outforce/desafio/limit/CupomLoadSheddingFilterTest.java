@@ -0,0 +1,180 @@
+package com.outforce.desafio.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.controller.CupomController;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.idempotency.CupomIdempotencyStore;
+import com.outforce.desafio.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = CupomController.class, properties = {
+		"cupom.rate-limit.enabled=true", "cupom.rate-limit.rate-per-second=1", "cupom.rate-limit.burst=2",
+		"cupom.rate-limit.api-keys=inundador,bom,leitor,a,b,c",
+		"cupom.concurrency-limit.enabled=true", "cupom.concurrency-limit.initial-limit=1",
+		"cupom.concurrency-limit.min-limit=1", "cupom.concurrency-limit.max-limit=1"})
+@Import({CupomIdempotencyStore.class, CupomRateLimiter.class, CupomConcurrencyLimiter.class})
+@DisplayName("Testes Unitários - CupomLoadSheddingFilter")
+class CupomLoadSheddingFilterTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@SpyBean
+	private CupomConcurrencyLimiter concurrencyLimiter;
+
+	@MockBean
+	private CupomService cupomService;
+
+	private final CupomRequestDTO request = new CupomRequestDTO("ABC123", "Teste", new BigDecimal("10.00"),
+			LocalDate.of(2030, 12, 31), true);
+	private final CupomResponseDTO response = new CupomResponseDTO(UUID.randomUUID(), "ABC123", "Teste",
+			new BigDecimal("10.00"), LocalDate.of(2030, 12, 31), CupomStatus.ACTIVE, true, false);
+
+	@Test
+	@DisplayName("Deve responder 429 com Retry-After quando o cliente esgota o balde, sem afetar outro cliente")
+	void deveLimitarPorCliente() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(response);
+
+		mockMvc.perform(criar("inundador")).andExpect(status().isCreated());
+		mockMvc.perform(criar("inundador")).andExpect(status().isCreated());
+		mockMvc.perform(criar("inundador"))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.code", is("RATE_LIMITED")));
+
+		mockMvc.perform(criar("bom")).andExpect(status().isCreated());
+	}
+
+	@Test
+	@DisplayName("Deve limitar pelo IP quem troca de chave desconhecida a cada requisição")
+	void deveLimitarPorIpComChavesDesconhecidas() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(response);
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(criarDoIp("203.0.113.9", UUID.randomUUID().toString())).andExpect(status().isCreated());
+		}
+		mockMvc.perform(criarDoIp("203.0.113.9", UUID.randomUUID().toString()))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(jsonPath("$.code", is("RATE_LIMITED")));
+
+		mockMvc.perform(criar("bom")).andExpect(status().isCreated());
+	}
+
+	@Test
+	@DisplayName("Não deve aplicar o limite de taxa a leituras e resgates")
+	void naoDeveLimitarLeiturasEResgates() throws Exception {
+		when(cupomService.findById(any(UUID.class))).thenReturn(response);
+		when(cupomService.redeem("ABC123")).thenReturn(response);
+
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/coupons/{id}", UUID.randomUUID()).header("X-Api-Key", "leitor"))
+					.andExpect(status().isOk());
+			mockMvc.perform(post("/coupons/{code}/redeem", "ABC123").header("X-Api-Key", "leitor"))
+					.andExpect(status().isOk());
+		}
+	}
+
+	@Test
+	@DisplayName("Deve usar o IP resolvido pelo Tomcat quando não há chave de cliente")
+	void deveLimitarPorIpSemChave() throws Exception {
+		when(cupomService.create(any(CupomRequestDTO.class))).thenReturn(response);
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(criarSemChave("203.0.113.7")).andExpect(status().isCreated());
+		}
+		mockMvc.perform(criarSemChave("203.0.113.7")).andExpect(status().isTooManyRequests());
+		mockMvc.perform(criarSemChave("203.0.113.8")).andExpect(status().isCreated());
+	}
+
+	@Test
+	@DisplayName("Deve responder 503 quando o limite de requisições simultâneas está tomado")
+	void deveDescartarAcimaDoLimiteDeConcorrencia() throws Exception {
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		when(cupomService.findById(any(UUID.class))).thenAnswer(chamada -> {
+			emAndamento.countDown();
+			liberar.await(10, TimeUnit.SECONDS);
+			return response;
+		});
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> primeira = executor.submit(() -> mockMvc.perform(get("/coupons/{id}", UUID.randomUUID())
+					.header("X-Api-Key", "a")).andReturn().getResponse().getStatus());
+			emAndamento.await(10, TimeUnit.SECONDS);
+
+			mockMvc.perform(get("/coupons/{id}", UUID.randomUUID()).header("X-Api-Key", "b"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(jsonPath("$.code", is("SERVER_BUSY")));
+
+			liberar.countDown();
+			assertThat(primeira.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve contar como falha do limite adaptativo a exceção transformada em 500 pelo handler")
+	void deveContarRespostaDeErroComoFalha() throws Exception {
+		when(cupomService.findById(any(UUID.class))).thenThrow(new IllegalStateException("banco fora"));
+
+		mockMvc.perform(get("/coupons/{id}", UUID.randomUUID()).header("X-Api-Key", "c"))
+				.andExpect(status().isInternalServerError());
+
+		verify(concurrencyLimiter).release(anyLong(), eq(true));
+		assertThat(concurrencyLimiter.inflight()).isZero();
+	}
+
+	private MockHttpServletRequestBuilder criarDoIp(String ip, String chave) throws Exception {
+		return criarSemChave(ip).header("X-Api-Key", chave);
+	}
+
+	private MockHttpServletRequestBuilder criarSemChave(String ip) throws Exception {
+		return post("/coupons").with(requisicao -> {
+					requisicao.setRemoteAddr(ip);
+					return requisicao;
+				})
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request));
+	}
+
+	private MockHttpServletRequestBuilder criar(String chave) throws Exception {
+		return post("/coupons").header("X-Api-Key", chave)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request));
+	}
+}
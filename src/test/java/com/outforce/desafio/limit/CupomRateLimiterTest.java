@@ -0,0 +1,82 @@
+package com.outforce.desafio.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - CupomRateLimiter")
+class CupomRateLimiterTest {
+
+	private final AtomicLong agora = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	@Test
+	@DisplayName("Deve permitir a rajada, recusar o excesso com a espera até a próxima ficha e repor com o tempo")
+	void devePermitirRajadaERepor() {
+		CupomRateLimiter limiter = new CupomRateLimiter(10, 3, 100, agora::get);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("a")).isZero();
+		}
+		assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+		agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isPositive();
+
+		agora.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("a")).isZero();
+		}
+		assertThat(limiter.tryAcquire("a")).isPositive();
+	}
+
+	@Test
+	@DisplayName("Deve manter um balde por cliente")
+	void deveIsolarClientes() {
+		CupomRateLimiter limiter = new CupomRateLimiter(1, 1, 100, agora::get);
+
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isPositive();
+		assertThat(limiter.tryAcquire("b")).isZero();
+	}
+
+	@Test
+	@DisplayName("Não deve conceder mais que a rajada com muitas threads no mesmo balde")
+	void naoDeveUltrapassarRajadaConcorrente() throws Exception {
+		CupomRateLimiter limiter = new CupomRateLimiter(1, 500, 100, agora::get);
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> resultados = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				resultados.add(executor.submit(() -> {
+					largada.await();
+					int concedidas = 0;
+					for (int i = 0; i < 1_000; i++) {
+						concedidas += limiter.tryAcquire("a") == 0 ? 1 : 0;
+					}
+					return concedidas;
+				}));
+			}
+			largada.countDown();
+
+			int total = 0;
+			for (Future<Integer> resultado : resultados) {
+				total += resultado.get(30, TimeUnit.SECONDS);
+			}
+			assertThat(total).isEqualTo(500);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
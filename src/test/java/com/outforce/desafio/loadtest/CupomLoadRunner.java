@@ -0,0 +1,489 @@
+package com.outforce.desafio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga de ponta a ponta do {@code /coupons}. Sobe a aplicação em um servidor embarcado com H2
+ * (ou usa {@code --target=http://host:porta}) e dispara requisições em laço fechado com a concorrência e o
+ * mix configurados, reportando percentis HdrHistogram e a contagem de respostas por status e código de erro.
+ *
+ * <pre>
+ * --concurrency=64 --warmup=5 --duration=30          (ou --concurrency=1000,5000,10000 para rodar estágios em sequência)
+ * --mix=create:50,duplicate:10,delete:25,deleteMissing:10,deleteDeleted:5
+ * --profiles=prod --output=target/loadtest-result.json
+ * </pre>
+ * Argumentos {@code --spring.*}, {@code --server.*}, {@code --management.*} e {@code --cupom.*} são repassados à aplicação.
+ */
+public class CupomLoadRunner {
+
+	enum Operacao {
+		CREATE("create"),
+		DUPLICATE("duplicate"),
+		DELETE("delete"),
+		DELETE_MISSING("deleteMissing"),
+		DELETE_DELETED("deleteDeleted"),
+		READ("read"),
+		READ_CODE("readCode"),
+		REDEEM("redeem");
+
+		private final String nome;
+
+		Operacao(String nome) {
+			this.nome = nome;
+		}
+
+		static Operacao porNome(String nome) {
+			for (Operacao operacao : values()) {
+				if (operacao.nome.equals(nome)) {
+					return operacao;
+				}
+			}
+			throw new IllegalArgumentException("Operação desconhecida no mix: " + nome);
+		}
+	}
+
+	private static final int JANELA_CODIGOS = 1 << 16;
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final Map<String, String> opcoes;
+	private final List<String> propriedadesApp;
+	private final Operacao[] roleta;
+
+	private final Map<Operacao, Recorder> latencias = new EnumMap<>(Operacao.class);
+	private final Map<String, LongAdder> respostas = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<UUID> existentes = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<UUID> deletados = new ConcurrentLinkedQueue<>();
+	private final AtomicReferenceArray<String> codigosCriados = new AtomicReferenceArray<>(JANELA_CODIGOS);
+	private final AtomicReferenceArray<UUID> idsCriados = new AtomicReferenceArray<>(JANELA_CODIGOS);
+	private final AtomicLong totalCriados = new AtomicLong();
+	private final AtomicLong sequenciaCodigo = new AtomicLong(
+			ThreadLocalRandom.current().nextLong(CupomCodeCodec.TOTAL_CODIGOS));
+
+	private HttpClient http;
+	private String baseUrl;
+	private volatile boolean rodando;
+
+	CupomLoadRunner(String[] args) {
+		this.opcoes = new LinkedHashMap<>();
+		this.propriedadesApp = new ArrayList<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			if (partes[0].matches("^(spring|server|management|cupom)\\..*")) {
+				propriedadesApp.add(partes[0] + "=" + (partes.length > 1 ? partes[1] : ""));
+			} else {
+				opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+			}
+		}
+		this.roleta = montarRoleta(opcao("mix", "create:50,duplicate:10,delete:25,deleteMissing:10,deleteDeleted:5"));
+		for (Operacao operacao : Operacao.values()) {
+			latencias.put(operacao, new Recorder(3));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new CupomLoadRunner(args).executar();
+	}
+
+	void executar() throws Exception {
+		int[] niveis = Arrays.stream(opcao("concurrency", "64").split(",")).map(String::trim)
+				.mapToInt(Integer::parseInt).toArray();
+		int aquecimento = Integer.parseInt(opcao("warmup", "5"));
+		int duracao = Integer.parseInt(opcao("duration", "30"));
+
+		ConfigurableApplicationContext contexto = opcoes.containsKey("target") ? null : subirAplicacao();
+		baseUrl = contexto == null
+				? opcoes.get("target")
+				: "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+		http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(executor)
+				.build();
+		try {
+			Map<String, Object> relatorio = new LinkedHashMap<>();
+			relatorio.put("target", baseUrl);
+			relatorio.put("profiles", opcoes.getOrDefault("profiles", "default"));
+			relatorio.put("javaVersion", Runtime.version().toString());
+			if (contexto != null) {
+				relatorio.put("virtualThreads", contexto.getEnvironment()
+						.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+			}
+			List<Map<String, Object>> estagios = new ArrayList<>();
+			relatorio.put("stages", estagios);
+
+			for (int concorrencia : niveis) {
+				System.out.printf(Locale.ROOT, "%nAlvo %s | concorrência %d | aquecimento %ds | medição %ds%n",
+						baseUrl, concorrencia, aquecimento, duracao);
+				rodarFase(concorrencia, aquecimento);
+				zerarEstatisticas();
+
+				long inicio = System.nanoTime();
+				rodarFase(concorrencia, duracao);
+				double segundos = (System.nanoTime() - inicio) / 1e9;
+
+				Map<String, Object> estagio = estagio(concorrencia, segundos, contexto != null);
+				imprimir(estagio);
+				estagios.add(estagio);
+			}
+
+			Path saida = Path.of(opcao("output", "target/loadtest-result.json"));
+			Files.createDirectories(saida.toAbsolutePath().getParent());
+			JSON.writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+			System.out.println("Resultado gravado em " + saida);
+		} finally {
+			executor.shutdownNow();
+			if (contexto != null) {
+				contexto.close();
+			}
+		}
+	}
+
+	private ConfigurableApplicationContext subirAplicacao() {
+		List<String> propriedades = new ArrayList<>(List.of(
+				"server.port=0",
+				"spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+				"spring.jpa.show-sql=false",
+				// um único cliente gerando toda a carga: sem isso o teste mediria o limite de taxa, não a aplicação
+				"cupom.rate-limit.enabled=false",
+				"cupom.concurrency-limit.enabled=false",
+				"logging.level.root=WARN"));
+		propriedades.addAll(propriedadesApp);
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(DesafioApplication.class);
+		if (opcoes.containsKey("profiles")) {
+			builder.profiles(opcoes.get("profiles").split(","));
+		}
+		return builder.run(propriedades.stream().map(propriedade -> "--" + propriedade).toArray(String[]::new));
+	}
+
+	private void rodarFase(int concorrencia, int segundos) throws InterruptedException {
+		rodando = true;
+		CountDownLatch finalizados = new CountDownLatch(concorrencia);
+		for (int i = 0; i < concorrencia; i++) {
+			proxima(finalizados);
+		}
+		TimeUnit.SECONDS.sleep(segundos);
+		rodando = false;
+		if (!finalizados.await(60, TimeUnit.SECONDS)) {
+			System.err.println("Requisições ainda em andamento após 60s: " + finalizados.getCount());
+		}
+	}
+
+	private void proxima(CountDownLatch finalizados) {
+		if (!rodando) {
+			finalizados.countDown();
+			return;
+		}
+		Operacao operacao = roleta[ThreadLocalRandom.current().nextInt(roleta.length)];
+		UUID alvo = null;
+		HttpRequest requisicao;
+		switch (operacao) {
+			case DUPLICATE -> {
+				String codigo = codigoExistente();
+				if (codigo == null) {
+					operacao = Operacao.CREATE;
+				}
+				requisicao = criar(codigo != null ? codigo : proximoCodigo());
+			}
+			case DELETE -> {
+				alvo = existentes.poll();
+				if (alvo == null) {
+					operacao = Operacao.CREATE;
+					requisicao = criar(proximoCodigo());
+				} else {
+					requisicao = deletar(alvo);
+				}
+			}
+			case DELETE_MISSING -> requisicao = deletar(UUID.randomUUID());
+			case READ -> {
+				UUID idLido = idExistente();
+				if (idLido == null) {
+					operacao = Operacao.CREATE;
+					requisicao = criar(proximoCodigo());
+				} else {
+					requisicao = buscar("/coupons/" + idLido);
+				}
+			}
+			case REDEEM -> {
+				String codigo = codigoExistente();
+				if (codigo == null) {
+					operacao = Operacao.CREATE;
+					requisicao = criar(proximoCodigo());
+				} else {
+					requisicao = resgatar(codigo);
+				}
+			}
+			case READ_CODE -> {
+				String codigo = codigoExistente();
+				if (codigo == null) {
+					operacao = Operacao.CREATE;
+					requisicao = criar(proximoCodigo());
+				} else {
+					requisicao = buscar("/coupons/code/" + codigo);
+				}
+			}
+			case DELETE_DELETED -> {
+				alvo = deletados.peek();
+				if (alvo == null) {
+					operacao = Operacao.DELETE_MISSING;
+					alvo = UUID.randomUUID();
+				}
+				requisicao = deletar(alvo);
+			}
+			default -> requisicao = criar(proximoCodigo());
+		}
+
+		Operacao executada = operacao;
+		UUID id = alvo;
+		long inicio = System.nanoTime();
+		http.sendAsync(requisicao, HttpResponse.BodyHandlers.ofString())
+				.whenComplete((resposta, erro) -> {
+					latencias.get(executada).recordValue(System.nanoTime() - inicio);
+					registrar(executada, id, resposta, erro);
+				})
+				.whenCompleteAsync((resposta, erro) -> proxima(finalizados));
+	}
+
+	private void registrar(Operacao operacao, UUID id, HttpResponse<String> resposta, Throwable erro) {
+		String chave;
+		if (erro != null) {
+			chave = operacao.nome + " ERRO " + erro.getClass().getSimpleName();
+		} else if (resposta.statusCode() >= 400) {
+			chave = operacao.nome + " " + resposta.statusCode() + " " + codigoDeErro(resposta.body());
+		} else {
+			chave = operacao.nome + " " + resposta.statusCode();
+			if (operacao == Operacao.CREATE) {
+				lembrarCriado(resposta.body());
+			} else if (operacao == Operacao.DELETE) {
+				deletados.offer(id);
+				if (deletados.size() > JANELA_CODIGOS) {
+					deletados.poll();
+				}
+			}
+		}
+		respostas.computeIfAbsent(chave, k -> new LongAdder()).increment();
+	}
+
+	private void lembrarCriado(String corpo) {
+		try {
+			JsonNode criado = JSON.readTree(corpo);
+			UUID id = UUID.fromString(criado.path("id").asText());
+			existentes.offer(id);
+			long posicao = totalCriados.getAndIncrement();
+			idsCriados.set((int) (posicao & (JANELA_CODIGOS - 1)), id);
+			codigosCriados.set((int) (posicao & (JANELA_CODIGOS - 1)), criado.path("code").asText());
+		} catch (IOException | IllegalArgumentException ignorado) {
+			// resposta sem corpo utilizável não alimenta os pools de duplicidade/deleção
+		}
+	}
+
+	private String codigoExistente() {
+		int posicao = posicaoCriada();
+		return posicao < 0 ? null : codigosCriados.get(posicao);
+	}
+
+	private UUID idExistente() {
+		int posicao = posicaoCriada();
+		return posicao < 0 ? null : idsCriados.get(posicao);
+	}
+
+	private int posicaoCriada() {
+		long criados = totalCriados.get();
+		if (criados == 0) {
+			return -1;
+		}
+		long limite = Math.min(criados, JANELA_CODIGOS);
+		return (int) ThreadLocalRandom.current().nextLong(limite);
+	}
+
+	private String proximoCodigo() {
+		return CupomCodeCodec.decode(sequenciaCodigo.getAndIncrement() % CupomCodeCodec.TOTAL_CODIGOS);
+	}
+
+	private HttpRequest criar(String codigo) {
+		String corpo = String.format(Locale.ROOT,
+				"{\"code\":\"%s\",\"description\":\"Carga\",\"discountValue\":10.00,\"expirationDate\":\"%s\",\"published\":true}",
+				codigo, LocalDate.now().plusYears(1));
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/coupons"))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(corpo))
+				.build();
+	}
+
+	private HttpRequest buscar(String caminho) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+	}
+
+	private HttpRequest resgatar(String codigo) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/coupons/" + codigo + "/redeem"))
+				.timeout(Duration.ofSeconds(30))
+				.POST(HttpRequest.BodyPublishers.noBody())
+				.build();
+	}
+
+	private HttpRequest deletar(UUID id) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/coupons/" + id))
+				.timeout(Duration.ofSeconds(30))
+				.DELETE()
+				.build();
+	}
+
+	private void zerarEstatisticas() {
+		latencias.values().forEach(Recorder::reset);
+		respostas.clear();
+		ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+	}
+
+	private Map<String, Object> estagio(int concorrencia, double segundos, boolean embarcado) {
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("concurrency", concorrencia);
+		relatorio.put("durationSeconds", segundos);
+
+		Map<String, Object> operacoes = new LinkedHashMap<>();
+		Histogram total = new Histogram(3);
+		latencias.forEach((operacao, recorder) -> {
+			Histogram histograma = recorder.getIntervalHistogram();
+			if (histograma.getTotalCount() == 0) {
+				return;
+			}
+			total.add(histograma);
+			operacoes.put(operacao.nome, resumo(histograma, segundos));
+		});
+		relatorio.put("total", resumo(total, segundos));
+		relatorio.put("operations", operacoes);
+
+		Map<String, Long> porResposta = new TreeMap<>();
+		respostas.forEach((chave, contador) -> porResposta.put(chave, contador.sum()));
+		relatorio.put("responses", porResposta);
+
+		if (embarcado) {
+			// aplicação e cliente dividem a JVM: os números incluem as threads e o heap do próprio runner
+			Map<String, Object> jvm = new LinkedHashMap<>();
+			jvm.put("peakPlatformThreads", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+			jvm.put("heapUsedMb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024));
+			// pico de memória residente do processo: inclui as pilhas das threads, que o heap não mostra
+			long picoRssKb = memoriaDoProcessoKb("VmHWM:");
+			if (picoRssKb >= 0) {
+				jvm.put("peakRssMb", picoRssKb / 1024);
+			}
+			relatorio.put("jvm", jvm);
+		}
+		return relatorio;
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma, double segundos) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("count", histograma.getTotalCount());
+		resumo.put("throughput", histograma.getTotalCount() / segundos);
+		resumo.put("p50Ms", histograma.getValueAtPercentile(50) / 1e6);
+		resumo.put("p90Ms", histograma.getValueAtPercentile(90) / 1e6);
+		resumo.put("p99Ms", histograma.getValueAtPercentile(99) / 1e6);
+		resumo.put("p999Ms", histograma.getValueAtPercentile(99.9) / 1e6);
+		resumo.put("maxMs", histograma.getMaxValue() / 1e6);
+		return resumo;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void imprimir(Map<String, Object> relatorio) {
+		System.out.printf(Locale.ROOT, "%n[concorrência %d]%n%-15s %10s %10s %9s %9s %9s %9s %9s%n",
+				relatorio.get("concurrency"), "operação", "req", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		Map<String, Object> linhas = new LinkedHashMap<>((Map<String, Object>) relatorio.get("operations"));
+		linhas.put("TOTAL", relatorio.get("total"));
+		linhas.forEach((nome, valor) -> {
+			Map<String, Object> r = (Map<String, Object>) valor;
+			System.out.printf(Locale.ROOT, "%-15s %10d %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome,
+					r.get("count"), r.get("throughput"), r.get("p50Ms"), r.get("p90Ms"), r.get("p99Ms"),
+					r.get("p999Ms"), r.get("maxMs"));
+		});
+		System.out.println("\nRespostas por operação/status/código:");
+		((Map<String, Long>) relatorio.get("responses"))
+				.forEach((chave, total) -> System.out.printf(Locale.ROOT, "  %-50s %10d%n", chave, total));
+		if (relatorio.containsKey("jvm")) {
+			System.out.println("JVM: " + relatorio.get("jvm"));
+		}
+	}
+
+	private static long memoriaDoProcessoKb(String campo) {
+		try {
+			for (String linha : Files.readAllLines(Path.of("/proc/self/status"))) {
+				if (linha.startsWith(campo)) {
+					return Long.parseLong(linha.substring(campo.length()).replace("kB", "").trim());
+				}
+			}
+		} catch (IOException | NumberFormatException ignorado) {
+			// fora do Linux não há /proc; o relatório fica sem o campo
+		}
+		return -1;
+	}
+
+	private static String codigoDeErro(String corpo) {
+		try {
+			return JSON.readTree(corpo).path("code").asText("SEM_CODIGO");
+		} catch (IOException ex) {
+			return "CORPO_INVALIDO";
+		}
+	}
+
+	private static Operacao[] montarRoleta(String mix) {
+		List<Operacao> roleta = new ArrayList<>();
+		for (String item : mix.split(",")) {
+			String[] partes = item.trim().split(":");
+			Operacao operacao = Operacao.porNome(partes[0]);
+			int peso = Integer.parseInt(partes[1]);
+			for (int i = 0; i < peso; i++) {
+				roleta.add(operacao);
+			}
+		}
+		if (roleta.isEmpty()) {
+			throw new IllegalArgumentException("Mix vazio");
+		}
+		return roleta.toArray(Operacao[]::new);
+	}
+
+	private String opcao(String nome, String padrao) {
+		return opcoes.getOrDefault(nome, padrao);
+	}
+}
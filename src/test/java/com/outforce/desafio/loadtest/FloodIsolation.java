@@ -0,0 +1,181 @@
+package com.outforce.desafio.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.limit.CupomConcurrencyLimiter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Um cliente inunda {@code POST /coupons} ({@code --flood-rate} requisições por segundo, {@code X-Api-Key: flood})
+ * enquanto outro cria cupons em ritmo bem menor ({@code --good-rate} por segundo, {@code X-Api-Key: good}). Os dois
+ * enviam em ritmo fixo, sem esperar respostas, como um cliente real que não desacelera quando é recusado. Roda a
+ * mesma carga com a proteção de carga ligada e desligada, cada uma em uma aplicação nova, e compara a latência e
+ * as respostas do cliente bem-comportado. Grava o resultado em {@code target/flood-isolation.json}.
+ * <p>
+ * A primeira execução da JVM ainda paga a compilação JIT; alterne os modos ({@code --modes=off,on,off,on}) e
+ * compare as últimas.
+ * <pre>
+ * --flood-rate=700 --good-rate=20 --warmup=10 --seconds=20 --modes=off,on,off,on
+ * </pre>
+ * Argumentos {@code --cupom.*} e {@code --spring.*} são repassados à aplicação nos dois modos.
+ */
+public class FloodIsolation {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final Map<String, String> opcoes = new LinkedHashMap<>();
+	private final List<String> propriedadesApp = new ArrayList<>();
+	private final AtomicLong sequenciaCodigo = new AtomicLong();
+
+	private HttpClient http;
+	private String baseUrl;
+	private Recorder latenciaBom;
+	private Map<String, LongAdder> respostas;
+
+	FloodIsolation(String[] args) {
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			if (partes[0].matches("^(spring|server|cupom)\\..*")) {
+				propriedadesApp.add("--" + partes[0] + "=" + (partes.length > 1 ? partes[1] : ""));
+			} else {
+				opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new FloodIsolation(args).executar();
+	}
+
+	void executar() throws Exception {
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("floodRate", Integer.parseInt(opcoes.getOrDefault("flood-rate", "700")));
+		relatorio.put("goodRate", Integer.parseInt(opcoes.getOrDefault("good-rate", "20")));
+		relatorio.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+		List<Map<String, Object>> execucoes = new ArrayList<>();
+		for (String modo : opcoes.getOrDefault("modes", "off,on,off,on").split(",")) {
+			execucoes.add(rodar(modo.equals("on")));
+		}
+		relatorio.put("runs", execucoes);
+		System.out.println(JSON.writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/flood-isolation.json"));
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		JSON.writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+
+	private Map<String, Object> rodar(boolean protecao) throws Exception {
+		List<String> argumentos = new ArrayList<>(List.of(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:flood" + protecao + ";DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--cupom.rate-limit.enabled=" + protecao,
+				// os dois clientes saem do mesmo IP: só chaves conhecidas os separam
+				"--cupom.rate-limit.api-keys=flood,good",
+				"--cupom.concurrency-limit.enabled=" + protecao));
+		argumentos.addAll(propriedadesApp);
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.run(argumentos.toArray(String[]::new));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		ScheduledExecutorService ritmo = Executors.newScheduledThreadPool(2);
+		try {
+			baseUrl = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort();
+			http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+			latenciaBom = new Recorder(3);
+			respostas = new ConcurrentHashMap<>();
+
+			ritmo.scheduleAtFixedRate(() -> enviar("flood"), 0, periodo("flood-rate", "700"), TimeUnit.NANOSECONDS);
+			ritmo.scheduleAtFixedRate(() -> enviar("good"), 0, periodo("good-rate", "20"), TimeUnit.NANOSECONDS);
+
+			TimeUnit.SECONDS.sleep(Integer.parseInt(opcoes.getOrDefault("warmup", "10")));
+			latenciaBom.reset();
+			respostas.clear();
+			long inicio = System.nanoTime();
+			TimeUnit.SECONDS.sleep(Integer.parseInt(opcoes.getOrDefault("seconds", "20")));
+			double segundos = (System.nanoTime() - inicio) / 1e9;
+			Histogram bom = latenciaBom.getIntervalHistogram();
+			Map<String, Long> porResposta = new TreeMap<>();
+			respostas.forEach((chave, contador) -> porResposta.put(chave, contador.sum()));
+
+			ritmo.shutdownNow();
+			ritmo.awaitTermination(5, TimeUnit.SECONDS);
+
+			Map<String, Object> resultado = new LinkedHashMap<>();
+			resultado.put("protection", protecao);
+			resultado.put("seconds", String.format(Locale.ROOT, "%.1f", segundos));
+			resultado.put("goodP50Ms", bom.getValueAtPercentile(50) / 1e6);
+			resultado.put("goodP99Ms", bom.getValueAtPercentile(99) / 1e6);
+			resultado.put("goodMaxMs", bom.getMaxValue() / 1e6);
+			resultado.put("responses", porResposta);
+			if (protecao) {
+				resultado.put("finalConcurrencyLimit", contexto.getBean(CupomConcurrencyLimiter.class).limit());
+			}
+			System.out.println((protecao ? "proteção ligada: " : "proteção desligada: ") + resultado);
+			return resultado;
+		} finally {
+			ritmo.shutdownNow();
+			executor.shutdownNow();
+			contexto.close();
+		}
+	}
+
+	private long periodo(String opcao, String padrao) {
+		return TimeUnit.SECONDS.toNanos(1) / Integer.parseInt(opcoes.getOrDefault(opcao, padrao));
+	}
+
+	private void enviar(String cliente) {
+		long inicio = System.nanoTime();
+		http.sendAsync(criar(cliente), HttpResponse.BodyHandlers.discarding())
+				.whenComplete((resposta, erro) -> {
+					if (cliente.equals("good")) {
+						latenciaBom.recordValue(System.nanoTime() - inicio);
+					}
+					registrar(cliente, resposta, erro);
+				});
+	}
+
+	private void registrar(String cliente, HttpResponse<Void> resposta, Throwable erro) {
+		String chave = cliente + " " + (erro != null ? erro.getClass().getSimpleName() : resposta.statusCode());
+		respostas.computeIfAbsent(chave, k -> new LongAdder()).increment();
+	}
+
+	private HttpRequest criar(String cliente) {
+		String codigo = CupomCodeCodec.decode(sequenciaCodigo.getAndIncrement() % CupomCodeCodec.TOTAL_CODIGOS);
+		String corpo = String.format(Locale.ROOT,
+				"{\"code\":\"%s\",\"description\":\"Carga\",\"discountValue\":10.00,\"expirationDate\":\"%s\",\"published\":true}",
+				codigo, LocalDate.now().plusYears(1));
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/coupons"))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.header("X-Api-Key", cliente)
+				.POST(HttpRequest.BodyPublishers.ofString(corpo))
+				.build();
+	}
+}
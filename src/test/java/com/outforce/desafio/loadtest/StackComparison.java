@@ -0,0 +1,96 @@
+package com.outforce.desafio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara o modo síncrono e o assíncrono ({@code async}) de {@code POST/DELETE /coupons} com a mesma carga.
+ * Cada perfil roda o {@link CupomLoadRunner} em uma JVM própria, para que threads e memória de um não contaminem
+ * o outro, nos mesmos estágios de concorrência. A memória por conexão é a diferença do pico de RSS entre o
+ * primeiro e o último estágio dividida pela diferença de conexões; inclui o lado do cliente, que é igual nos
+ * dois perfis. Grava o resultado em {@code target/stack-comparison.json}.
+ * <pre>
+ * --profiles=default,async --concurrency=100,2000 --warmup=10 --duration=20
+ * "--jvmArgs=-Xms512m -Xmx512m -XX:+AlwaysPreTouch"     (heap fixo: a variação de RSS fica nas pilhas e buffers)
+ * --mix=create:70,delete:30
+ * </pre>
+ */
+public class StackComparison {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "true");
+		}
+		String concorrencia = opcoes.getOrDefault("concurrency", "100,2000");
+		Path saida = Path.of(opcoes.getOrDefault("output", "target/stack-comparison.json"));
+
+		Map<String, Object> relatorio = new LinkedHashMap<>();
+		relatorio.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+		relatorio.put("concurrency", concorrencia);
+		for (String perfil : opcoes.getOrDefault("profiles", "default,async").split(",")) {
+			Path resultado = Path.of("target/stack-comparison-" + perfil + ".json");
+			List<String> comando = new ArrayList<>(List.of(
+					Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+			if (opcoes.containsKey("jvmArgs")) {
+				comando.addAll(List.of(opcoes.get("jvmArgs").split(" ")));
+			}
+			comando.addAll(List.of("-cp", System.getProperty("java.class.path"), CupomLoadRunner.class.getName(),
+					"--concurrency=" + concorrencia,
+					"--warmup=" + opcoes.getOrDefault("warmup", "5"),
+					"--duration=" + opcoes.getOrDefault("duration", "20"),
+					"--mix=" + opcoes.getOrDefault("mix", "create:70,delete:30"),
+					"--output=" + resultado));
+			if (!perfil.equals("default")) {
+				comando.add("--profiles=" + perfil);
+			}
+			System.out.println("\n=== perfil " + perfil + " ===");
+			int codigo = new ProcessBuilder(comando).inheritIO().start().waitFor();
+			if (codigo != 0) {
+				throw new IllegalStateException("CupomLoadRunner terminou com código " + codigo + " no perfil " + perfil);
+			}
+			relatorio.put(perfil, resumo(JSON.readTree(resultado.toFile())));
+		}
+
+		System.out.println(JSON.writerWithDefaultPrettyPrinter().writeValueAsString(relatorio));
+		Files.createDirectories(saida.toAbsolutePath().getParent());
+		JSON.writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+	}
+
+	private static Map<String, Object> resumo(JsonNode resultado) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		List<Map<String, Object>> estagios = new ArrayList<>();
+		for (JsonNode estagio : resultado.path("stages")) {
+			Map<String, Object> linha = new LinkedHashMap<>();
+			linha.put("concurrency", estagio.path("concurrency").asInt());
+			linha.put("throughput", Math.round(estagio.path("total").path("throughput").asDouble()));
+			linha.put("p50Ms", estagio.path("total").path("p50Ms").asDouble());
+			linha.put("p99Ms", estagio.path("total").path("p99Ms").asDouble());
+			linha.put("peakPlatformThreads", estagio.path("jvm").path("peakPlatformThreads").asInt());
+			linha.put("peakRssMb", estagio.path("jvm").path("peakRssMb").asLong());
+			estagios.add(linha);
+		}
+		resumo.put("stages", estagios);
+		if (estagios.size() > 1) {
+			Map<String, Object> primeiro = estagios.get(0);
+			Map<String, Object> ultimo = estagios.get(estagios.size() - 1);
+			long conexoes = (int) ultimo.get("concurrency") - (int) primeiro.get("concurrency");
+			long rssKb = ((long) ultimo.get("peakRssMb") - (long) primeiro.get("peakRssMb")) * 1024;
+			resumo.put("rssKbPerConnection", String.format(Locale.ROOT, "%.1f", (double) rssKb / conexoes));
+			resumo.put("threadsPerConnection", String.format(Locale.ROOT, "%.3f",
+					(double) ((int) ultimo.get("peakPlatformThreads") - (int) primeiro.get("peakPlatformThreads")) / conexoes));
+		}
+		return resumo;
+	}
+}
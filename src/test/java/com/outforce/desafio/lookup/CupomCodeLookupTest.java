@@ -0,0 +1,176 @@
+package com.outforce.desafio.lookup;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - CupomCodeLookup")
+class CupomCodeLookupTest {
+
+	private final CupomCodeLookup lookup = new CupomCodeLookup(true, 5_000);
+
+	@Test
+	@DisplayName("Deve compartilhar a consulta em andamento entre chamadas simultâneas do mesmo código")
+	void deveCompartilharConsultaEmAndamento() throws Exception {
+		AtomicInteger consultas = new AtomicInteger();
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		CupomResponseDTO cupom = cupom();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<CupomResponseDTO> primeira = executor.submit(() -> lookup.findByCodeKey(42L, chave -> {
+				consultas.incrementAndGet();
+				emAndamento.countDown();
+				aguardar(liberar);
+				return cupom;
+			}));
+			assertThat(emAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+			List<Future<CupomResponseDTO>> demais = new ArrayList<>();
+			for (int i = 0; i < 7; i++) {
+				demais.add(executor.submit(() -> lookup.findByCodeKey(42L, chave -> {
+					consultas.incrementAndGet();
+					return cupom;
+				})));
+			}
+			while (lookup.coalesced() < 7) {
+				Thread.onSpinWait();
+			}
+			liberar.countDown();
+
+			assertThat(primeira.get(5, TimeUnit.SECONDS)).isSameAs(cupom);
+			for (Future<CupomResponseDTO> resultado : demais) {
+				assertThat(resultado.get(5, TimeUnit.SECONDS)).isSameAs(cupom);
+			}
+			assertThat(consultas).hasValue(1);
+			assertThat(lookup.executed()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Não deve guardar o resultado depois que a consulta termina")
+	void naoDeveGuardarResultado() {
+		AtomicInteger consultas = new AtomicInteger();
+
+		lookup.findByCodeKey(42L, chave -> {
+			consultas.incrementAndGet();
+			return null;
+		});
+		lookup.findByCodeKey(42L, chave -> {
+			consultas.incrementAndGet();
+			return cupom();
+		});
+
+		assertThat(consultas).hasValue(2);
+		assertThat(lookup.coalesced()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve repassar a falha da consulta e liberar o código para a próxima")
+	void deveRepassarFalha() {
+		assertThatThrownBy(() -> lookup.findByCodeKey(42L, chave -> {
+			throw new IllegalStateException("banco fora");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(lookup.findByCodeKey(42L, chave -> cupom())).isNotNull();
+	}
+
+	@Test
+	@DisplayName("Deve recusar quem espera demais por uma consulta em andamento")
+	void deveLimitarEsperaPelaConsultaEmAndamento() throws Exception {
+		CupomCodeLookup comPrazoCurto = new CupomCodeLookup(true, 50);
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<CupomResponseDTO> primeira = executor.submit(() -> comPrazoCurto.findByCodeKey(42L, chave -> {
+				emAndamento.countDown();
+				aguardar(liberar);
+				return cupom();
+			}));
+			assertThat(emAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThatThrownBy(() -> comPrazoCurto.findByCodeKey(42L, chave -> cupom()))
+					.isInstanceOf(RejectedExecutionException.class);
+
+			liberar.countDown();
+			assertThat(primeira.get(5, TimeUnit.SECONDS)).isNotNull();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("Não deve guardar no cache o resultado compartilhado de uma consulta aberta antes de uma deleção")
+	void naoDeveGuardarConsultaCompartilhadaAnteriorADelecao() throws Exception {
+		CupomCache cache = new CupomCache(1_000, 60);
+		CupomResponseDTO ativo = cupom();
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// a primeira consulta lê a linha ainda ativa e fica parada antes de devolver
+			Future<CupomResponseDTO> primeira = executor.submit(() -> cache.getByCodeKey(42L,
+					codeKey -> lookup.findByCodeKey(codeKey, cache::generation, chave -> {
+						emAndamento.countDown();
+						aguardar(liberar);
+						return ativo;
+					})));
+			assertThat(emAndamento.await(5, TimeUnit.SECONDS)).isTrue();
+
+			// a deleção é gravada e invalida; a segunda leitura chega depois e entra na consulta antiga
+			cache.invalidate(ativo.id());
+			Future<CupomResponseDTO> segunda = executor.submit(() -> cache.getByCodeKey(42L,
+					codeKey -> lookup.findByCodeKey(codeKey, cache::generation, chave -> ativo)));
+			while (lookup.coalesced() < 1) {
+				Thread.onSpinWait();
+			}
+			liberar.countDown();
+			primeira.get(5, TimeUnit.SECONDS);
+			segunda.get(5, TimeUnit.SECONDS);
+
+			AtomicInteger carregamentos = new AtomicInteger();
+			CupomResponseDTO lido = cache.getById(ativo.id(), id -> {
+				carregamentos.incrementAndGet();
+				return new CupomResponseDTO(id, ativo.code(), ativo.description(), ativo.discountValue(),
+						ativo.expirationDate(), CupomStatus.DELETED, ativo.published(), ativo.redeemed());
+			});
+			assertThat(carregamentos).hasValue(1);
+			assertThat(lido.status()).isEqualTo(CupomStatus.DELETED);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static CupomResponseDTO cupom() {
+		return new CupomResponseDTO(UUID.randomUUID(), "ABC123", "Consulta", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), CupomStatus.ACTIVE, true, false);
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
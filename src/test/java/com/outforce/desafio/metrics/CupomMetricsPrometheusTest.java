@@ -0,0 +1,51 @@
+package com.outforce.desafio.metrics;
+
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.service.CupomService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:metricas;DB_CLOSE_DELAY=-1",
+		"cupom.expiration.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Testes de Integração - Exposição das métricas em /actuator/prometheus")
+class CupomMetricsPrometheusTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Test
+	@DisplayName("Deve expor histogramas das operações, chamadas ao repositório, cache e índice")
+	void deveExporMetricasNoFormatoPrometheus() throws Exception {
+		cupomService.create(new CupomRequestDTO("MET001", "Métricas", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), true));
+		cupomService.findByCode("MET001");
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(
+						"cupom_operation_seconds_bucket{application=\"desafio\",operation=\"create\",outcome=\"success\"")))
+				.andExpect(content().string(containsString("cupom_repository_seconds_count{application=\"desafio\",query=\"save\"")))
+				.andExpect(content().string(containsString("cache_gets_total{application=\"desafio\",cache=\"cupom.by-id\"")))
+				.andExpect(content().string(containsString("cupom_index_lookups_total{application=\"desafio\",result=\"absent\"")));
+	}
+}
@@ -0,0 +1,63 @@
+package com.outforce.desafio.service;
+
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.model.CupomCodeSequence;
+import com.outforce.desafio.repository.CupomRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {"spring.datasource.url=jdbc:h2:mem:codigogerado;DB_CLOSE_DELAY=-1",
+				"cupom.code-pool.enabled=true", "cupom.code-pool.secret=5eed",
+				"cupom.code-pool.size=200", "cupom.code-pool.block-size=100"})
+@DisplayName("Testes de Integração - Códigos gerados pelo servidor")
+class CupomCodigoGeradoTest {
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	@DisplayName("Deve gerar um código de 6 caracteres quando a criação não informa o código")
+	void deveGerarCodigoNaCriacao() {
+		CupomResponseDTO criado = cupomService.create(requisicaoSemCodigo());
+
+		assertThat(criado.code()).hasSize(6).matches("[A-Z0-9]+");
+		assertThat(cupomService.findByCode(criado.code()).id()).isEqualTo(criado.id());
+		assertThat(entityManager.find(CupomCodeSequence.class, CupomCodeSequence.ID).getNextValue())
+				.isGreaterThanOrEqualTo(100);
+	}
+
+	@Test
+	@DisplayName("Deve gerar códigos distintos para os itens sem código de um lote")
+	void deveGerarCodigosNoLote() {
+		List<CupomRequestDTO> lote = Collections.nCopies(150, requisicaoSemCodigo());
+
+		CupomBatchResponseDTO resposta = cupomService.createBatch(lote);
+
+		assertThat(resposta.created()).isEqualTo(150);
+		assertThat(resposta.cupons()).extracting(CupomResponseDTO::code).doesNotHaveDuplicates();
+		assertThat(cupomRepository.count()).isGreaterThanOrEqualTo(150);
+	}
+
+	private CupomRequestDTO requisicaoSemCodigo() {
+		return new CupomRequestDTO(null, "Cupom gerado", new BigDecimal("5.00"), LocalDate.now().plusDays(10), true);
+	}
+}
@@ -0,0 +1,145 @@
+package com.outforce.desafio.service;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.metrics.CupomMetrics;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
+import com.outforce.desafio.repository.CupomRepository;
+import com.outforce.desafio.service.impl.CupomServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CupomServiceImpl.class, CupomCodeIndex.class, CupomCache.class, CupomCodeLookup.class,
+		CupomRedemptionCounters.class, CupomMetrics.class, SimpleMeterRegistry.class})
+@DisplayName("Testes de Integração - Deleção de cupons")
+class CupomDelecaoTest {
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	private final List<Cupom> cupons = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		cupomRepository.deleteAllInBatch();
+		for (int i = 0; i < 10; i++) {
+			cupons.add(Cupom.builder()
+					.code(String.format("DEL%03d", i))
+					.description("Cupom " + i)
+					.discountValue(new BigDecimal("10.00"))
+					.expirationDate(LocalDate.of(2030, 1, 1).plusDays(i % 2))
+					.status(i < 4 ? CupomStatus.INACTIVE : CupomStatus.ACTIVE)
+					.build());
+		}
+		cupomRepository.saveAllAndFlush(cupons);
+	}
+
+	@Test
+	@DisplayName("Deve marcar o cupom como deletado e recusar a segunda deleção")
+	void deveDeletarUmaUnicaVez() {
+		Cupom cupom = cupons.get(0);
+
+		cupomService.delete(cupom.getId());
+
+		Cupom deletado = cupomRepository.findById(cupom.getId()).orElseThrow();
+		assertThat(deletado.getStatus()).isEqualTo(CupomStatus.DELETED);
+		assertThat(deletado.getDeletedAt()).isNotNull();
+		assertThatThrownBy(() -> cupomService.delete(cupom.getId()))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_ALREADY_DELETED");
+	}
+
+	@Test
+	@DisplayName("Deve deletar em lote apenas os cupons do filtro que ainda não foram deletados")
+	void deveDeletarEmLotePorFiltro() {
+		cupomService.delete(cupons.get(0).getId());
+		CupomFilterDTO filtro = new CupomFilterDTO(CupomStatus.INACTIVE, null, null, null, LocalDate.of(2030, 1, 1));
+
+		int deletados = cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(null, filtro)).deleted();
+
+		// INACTIVE com expiração no primeiro dia: índices 0 e 2; o 0 já estava deletado
+		assertThat(deletados).isEqualTo(1);
+		assertThat(cupomRepository.findById(cupons.get(2).getId()).orElseThrow().getStatus()).isEqualTo(CupomStatus.DELETED);
+		assertThat(cupomRepository.findById(cupons.get(1).getId()).orElseThrow().getStatus()).isEqualTo(CupomStatus.INACTIVE);
+	}
+
+	@Test
+	@DisplayName("Deve deletar em lote por ids ignorando os já deletados")
+	void deveDeletarEmLotePorIds() {
+		cupomService.delete(cupons.get(5).getId());
+		List<UUID> ids = List.of(cupons.get(5).getId(), cupons.get(6).getId(), cupons.get(7).getId());
+
+		int deletados = cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(ids, null)).deleted();
+
+		assertThat(deletados).isEqualTo(2);
+		assertThat(cupomRepository.findAllById(ids)).allMatch(Cupom::isDeleted);
+		assertThat(cupomService.findById(cupons.get(7).getId()).status()).isEqualTo(CupomStatus.DELETED);
+	}
+
+	@Test
+	@DisplayName("Deve ter exatamente uma deleção vencedora com deleções simultâneas do mesmo cupom")
+	void deveTerUmaUnicaDelecaoConcorrente() throws Exception {
+		UUID id = cupons.get(8).getId();
+		int threads = 16;
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> resultados = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				resultados.add(executor.submit(() -> {
+					largada.await();
+					try {
+						cupomService.delete(id);
+						return true;
+					} catch (BusinessException ex) {
+						return false;
+					}
+				}));
+			}
+			largada.countDown();
+
+			int vencedores = 0;
+			for (Future<Boolean> resultado : resultados) {
+				vencedores += resultado.get(30, TimeUnit.SECONDS) ? 1 : 0;
+			}
+			assertThat(vencedores).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.outforce.desafio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomExportFormat;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.metrics.CupomMetrics;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
+import com.outforce.desafio.repository.CupomRepository;
+import com.outforce.desafio.service.impl.CupomServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CupomServiceImpl.class, CupomCodeIndex.class, CupomCache.class, CupomCodeLookup.class,
+		CupomRedemptionCounters.class, CupomMetrics.class, SimpleMeterRegistry.class})
+@DisplayName("Testes de Integração - Exportação de cupons")
+class CupomExportacaoTest {
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<Cupom> cupons = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		cupomRepository.deleteAllInBatch();
+		for (int i = 0; i < 12; i++) {
+			cupons.add(Cupom.builder()
+					.code(String.format("EXP%03d", i))
+					.description(i == 0 ? "Cupom \"especial\", com vírgula" : "Cupom " + i)
+					.discountValue(new BigDecimal("10.50"))
+					.expirationDate(LocalDate.of(2030, 1, 1))
+					.status(i % 4 == 0 ? CupomStatus.DELETED : CupomStatus.ACTIVE)
+					.published(i % 2 == 0)
+					.build());
+		}
+		cupomRepository.saveAllAndFlush(cupons);
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("Deve exportar em NDJSON um cupom por linha, em ordem de criação, com o filtro da listagem")
+	void deveExportarNdjsonComFiltro() throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+		long linhas = cupomService.export(new CupomFilterDTO(CupomStatus.ACTIVE, true, null, null, null),
+				CupomExportFormat.NDJSON, saida);
+
+		List<CupomResponseDTO> lidos = new ArrayList<>();
+		for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+			lidos.add(objectMapper.readValue(linha, CupomResponseDTO.class));
+		}
+		assertThat(lidos).extracting(CupomResponseDTO::id).containsExactlyElementsOf(cupons.stream()
+				.filter(cupom -> cupom.getStatus() == CupomStatus.ACTIVE && cupom.getPublished())
+				.map(Cupom::getId)
+				.toList());
+		assertThat(linhas).isEqualTo(lidos.size());
+		assertThat(lidos.get(0).discountValue()).isEqualByComparingTo("10.50");
+	}
+
+	@Test
+	@DisplayName("Deve exportar em CSV com cabeçalho e descrição entre aspas quando necessário")
+	void deveExportarCsv() {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+		long linhas = cupomService.export(new CupomFilterDTO(null, null, null, null, null), CupomExportFormat.CSV, saida);
+
+		String[] csv = saida.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(linhas).isEqualTo(cupons.size());
+		assertThat(csv).hasSize(cupons.size() + 1);
+		assertThat(csv[0]).isEqualTo("id,code,description,discountValue,expirationDate,status,published,redeemed,maxRedemptions,redemptionCount");
+		assertThat(csv[1]).isEqualTo(cupons.get(0).getId()
+				+ ",EXP000,\"Cupom \"\"especial\"\", com vírgula\",10.50,2030-01-01,DELETED,true,false,,0");
+	}
+
+	@Test
+	@DisplayName("Não deve carregar entidades no contexto de persistência durante a exportação")
+	void naoDeveCarregarEntidades() {
+		cupomService.export(new CupomFilterDTO(null, null, null, null, null), CupomExportFormat.NDJSON,
+				new ByteArrayOutputStream());
+
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+}
@@ -0,0 +1,110 @@
+package com.outforce.desafio.service;
+
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.enums.CupomStatus;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.metrics.CupomMetrics;
+import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
+import com.outforce.desafio.repository.CupomRepository;
+import com.outforce.desafio.service.impl.CupomServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CupomServiceImpl.class, CupomCodeIndex.class, CupomCache.class, CupomCodeLookup.class,
+		CupomRedemptionCounters.class, CupomMetrics.class, SimpleMeterRegistry.class})
+@DisplayName("Testes de Integração - Listagem paginada de cupons")
+class CupomListagemTest {
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomRepository cupomRepository;
+
+	private final List<Cupom> cupons = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 25; i++) {
+			cupons.add(Cupom.builder()
+					.code(String.format("CUP%03d", i))
+					.description("Cupom " + i)
+					.discountValue(new BigDecimal("10.00"))
+					.expirationDate(LocalDate.of(2030, 1, 1).plusDays(i % 3))
+					.status(i % 5 == 0 ? CupomStatus.DELETED : CupomStatus.ACTIVE)
+					.published(i % 2 == 0)
+					.build());
+		}
+		cupomRepository.saveAllAndFlush(cupons);
+	}
+
+	@Test
+	@DisplayName("Deve percorrer todas as páginas por cursor em ordem de criação, sem repetir cupons")
+	void devePercorrerPaginasPorCursor() {
+		List<UUID> lidos = percorrer(new CupomFilterDTO(null, null, null, null, null), 7);
+
+		assertThat(lidos).containsExactlyElementsOf(cupons.stream().map(Cupom::getId).toList());
+	}
+
+	@Test
+	@DisplayName("Deve paginar com filtros de igualdade mantendo a ordem de criação")
+	void devePaginarComFiltrosDeIgualdade() {
+		List<UUID> lidos = percorrer(new CupomFilterDTO(CupomStatus.ACTIVE, true, false, null, null), 3);
+
+		assertThat(lidos).containsExactlyElementsOf(cupons.stream()
+				.filter(cupom -> cupom.getStatus() == CupomStatus.ACTIVE && cupom.getPublished())
+				.map(Cupom::getId)
+				.toList());
+	}
+
+	@Test
+	@DisplayName("Deve paginar por faixa de expiração em ordem de expiração e id, atravessando dias")
+	void devePaginarPorFaixaDeExpiracao() {
+		CupomFilterDTO filtro = new CupomFilterDTO(CupomStatus.ACTIVE, null, null,
+				LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2));
+
+		List<UUID> lidos = percorrer(filtro, 4);
+
+		assertThat(lidos).containsExactlyElementsOf(cupons.stream()
+				.filter(cupom -> cupom.getStatus() == CupomStatus.ACTIVE
+						&& !cupom.getExpirationDate().isAfter(LocalDate.of(2030, 1, 2)))
+				.sorted(Comparator.comparing(Cupom::getExpirationDate).thenComparing(Cupom::getId))
+				.map(Cupom::getId)
+				.toList());
+	}
+
+	private List<UUID> percorrer(CupomFilterDTO filtro, int limite) {
+		List<UUID> lidos = new ArrayList<>();
+		String cursor = null;
+		do {
+			CupomPageDTO pagina = cupomService.list(filtro, cursor, limite);
+			assertThat(pagina.cupons()).hasSizeLessThanOrEqualTo(limite);
+			pagina.cupons().stream().map(CupomResponseDTO::id).forEach(lidos::add);
+			cursor = pagina.nextCursor();
+		} while (cursor != null);
+		return lidos;
+	}
+}
@@ -0,0 +1,72 @@
+package com.outforce.desafio.service;
+
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = "spring.datasource.url=jdbc:h2:mem:resgate;DB_CLOSE_DELAY=-1")
+@DisplayName("Testes de Integração - Resgate concorrente")
+class CupomResgateConcorrenteTest {
+
+	private static final int TENTATIVAS = 32;
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Test
+	@DisplayName("Deve ter exatamente um vencedor quando vários clientes resgatam o mesmo código ao mesmo tempo")
+	void deveTerUmUnicoVencedor() throws Exception {
+		cupomService.create(new CupomRequestDTO("RSG001", "Resgate concorrente", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), true));
+
+		AtomicInteger vencedores = new AtomicInteger();
+		Map<String, AtomicInteger> rejeicoes = new ConcurrentHashMap<>();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tentativas = new ArrayList<>();
+			for (int i = 0; i < TENTATIVAS; i++) {
+				tentativas.add(executor.submit((Callable<Void>) () -> {
+					largada.await();
+					try {
+						cupomService.redeem("RSG001");
+						vencedores.incrementAndGet();
+					} catch (BusinessException ex) {
+						rejeicoes.computeIfAbsent(ex.getCode(), k -> new AtomicInteger()).incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> tentativa : tentativas) {
+				tentativa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(vencedores).hasValue(1);
+		assertThat(rejeicoes).containsOnlyKeys("COUPON_ALREADY_REDEEMED");
+		assertThat(rejeicoes.get("COUPON_ALREADY_REDEEMED")).hasValue(TENTATIVAS - 1);
+		assertThat(cupomService.findByCode("RSG001").redeemed()).isTrue();
+	}
+}
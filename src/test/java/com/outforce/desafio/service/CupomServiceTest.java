@@ -1,29 +1,53 @@
 package com.outforce.desafio.service;
 
+import com.outforce.desafio.cache.CupomCache;
+import com.outforce.desafio.code.CupomCodeCodec;
+import com.outforce.desafio.dto.CupomBatchResponseDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteRequestDTO;
+import com.outforce.desafio.dto.CupomBulkDeleteResponseDTO;
+import com.outforce.desafio.dto.CupomFilterDTO;
+import com.outforce.desafio.dto.CupomPageDTO;
 import com.outforce.desafio.dto.CupomRequestDTO;
 import com.outforce.desafio.dto.CupomResponseDTO;
 import com.outforce.desafio.enums.CupomStatus;
 import com.outforce.desafio.exception.BusinessException;
 import com.outforce.desafio.exception.NotFoundException;
+import com.outforce.desafio.index.CupomCodeIndex;
+import com.outforce.desafio.lookup.CupomCodeLookup;
+import com.outforce.desafio.metrics.CupomMetrics;
 import com.outforce.desafio.model.Cupom;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
 import com.outforce.desafio.repository.CupomRepository;
 import com.outforce.desafio.service.impl.CupomServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +57,23 @@ class CupomServiceTest {
 	@Mock
 	private CupomRepository cupomRepository;
 
+	@Mock
+	private CupomCodeIndex codeIndex;
+
+	@Spy
+	private CupomCache cupomCache = new CupomCache(1_000, 60);
+
+	@Spy
+	private CupomCodeLookup codeLookup = new CupomCodeLookup(true, 5_000);
+
+	@Mock
+	private CupomRedemptionCounters redemptionCounters;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Spy
+	private CupomMetrics cupomMetrics = new CupomMetrics(registry);
+
 	@InjectMocks
 	private CupomServiceImpl cupomService;
 
@@ -69,7 +110,7 @@ class CupomServiceTest {
 				"AB-12$C3",
 				"Summer Sale",
 				new BigDecimal("15.00"),
-				LocalDate.of(2026, 6, 30),
+				LocalDate.of(2027, 6, 30),
 				true
 		);
 
@@ -78,7 +119,7 @@ class CupomServiceTest {
 				.code("AB12C3")
 				.description("Summer Sale")
 				.discountValue(new BigDecimal("15.00"))
-				.expirationDate(LocalDate.of(2026, 6, 30))
+				.expirationDate(LocalDate.of(2027, 6, 30))
 				.status(CupomStatus.ACTIVE)
 				.published(true)
 				.redeemed(false)
@@ -309,71 +350,106 @@ class CupomServiceTest {
 	}
 
 	@Test
-	@DisplayName("Deve deletar cupom com soft delete")
+	@DisplayName("Deve deletar cupom com soft delete em um único UPDATE, sem carregar a entidade")
 	void deveDeletarCupomComSoftDelete() {
 		UUID cupomId = UUID.randomUUID();
-		Cupom cupomExistente = Cupom.builder()
-				.id(cupomId)
-				.code("ABC123")
-				.description("Cupom")
-				.discountValue(new BigDecimal("10.00"))
-				.expirationDate(LocalDate.of(2026, 12, 31))
-				.status(CupomStatus.ACTIVE)
-				.published(false)
-				.redeemed(false)
-				.deletedAt(null)
-				.build();
-
-		when(cupomRepository.findById(cupomId)).thenReturn(Optional.of(cupomExistente));
-		when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomExistente);
+		when(cupomRepository.softDeleteById(eq(cupomId), eq(CupomStatus.DELETED), any(Instant.class))).thenReturn(1);
 
 		cupomService.delete(cupomId);
 
-		verify(cupomRepository, times(1)).findById(cupomId);
-		verify(cupomRepository, times(1)).save(any(Cupom.class));
+		verify(cupomRepository, times(1)).softDeleteById(eq(cupomId), eq(CupomStatus.DELETED), any(Instant.class));
+		verify(cupomRepository, never()).findById(any());
+		verify(cupomRepository, never()).save(any(Cupom.class));
+		verify(cupomCache).invalidate(cupomId);
 	}
 
 	@Test
 	@DisplayName("Deve lançar NotFoundException ao deletar cupom inexistente")
 	void deveLancarNotFoundAoDeletarCupomInexistente() {
 		UUID cupomId = UUID.randomUUID();
-		when(cupomRepository.findById(cupomId)).thenReturn(Optional.empty());
+		when(cupomRepository.softDeleteById(eq(cupomId), eq(CupomStatus.DELETED), any(Instant.class))).thenReturn(0);
+		when(cupomRepository.existsById(cupomId)).thenReturn(false);
 
 		assertThatThrownBy(() -> cupomService.delete(cupomId))
 				.isInstanceOf(NotFoundException.class)
 				.hasMessageContaining("não encontrado");
 
-		verify(cupomRepository, times(1)).findById(cupomId);
 		verify(cupomRepository, never()).save(any(Cupom.class));
+		verify(cupomCache, never()).invalidate(cupomId);
 	}
 
 	@Test
 	@DisplayName("Deve lançar BusinessException ao tentar deletar cupom já deletado")
 	void deveLancarExcecaoAoDeletarCupomJaDeletado() {
 		UUID cupomId = UUID.randomUUID();
-		Cupom cupomDeletado = Cupom.builder()
-				.id(cupomId)
-				.code("ABC123")
-				.description("Cupom")
-				.discountValue(new BigDecimal("10.00"))
-				.expirationDate(LocalDate.of(2026, 12, 31))
-				.status(CupomStatus.DELETED)
-				.published(false)
-				.redeemed(false)
-				.deletedAt(Instant.now())
-				.build();
-
-		when(cupomRepository.findById(cupomId)).thenReturn(Optional.of(cupomDeletado));
+		when(cupomRepository.softDeleteById(eq(cupomId), eq(CupomStatus.DELETED), any(Instant.class))).thenReturn(0);
+		when(cupomRepository.existsById(cupomId)).thenReturn(true);
 
 		assertThatThrownBy(() -> cupomService.delete(cupomId))
 				.isInstanceOf(BusinessException.class)
 				.hasFieldOrPropertyWithValue("code", "COUPON_ALREADY_DELETED")
 				.hasMessageContaining("já foi deletado");
 
-		verify(cupomRepository, times(1)).findById(cupomId);
 		verify(cupomRepository, never()).save(any(Cupom.class));
 	}
 
+	@Test
+	@DisplayName("Deve deletar em lote por ids e invalidar cada id no cache")
+	void deveDeletarEmLotePorIds() {
+		UUID primeiro = UUID.randomUUID();
+		UUID segundo = UUID.randomUUID();
+		when(cupomRepository.softDeleteByIds(eq(List.of(primeiro, segundo)), eq(CupomStatus.DELETED), any(Instant.class)))
+				.thenReturn(1);
+
+		CupomBulkDeleteResponseDTO response = cupomService.deleteBulk(
+				new CupomBulkDeleteRequestDTO(List.of(primeiro, segundo, primeiro), null));
+
+		assertThat(response.deleted()).isEqualTo(1);
+		verify(cupomCache).invalidate(primeiro);
+		verify(cupomCache).invalidate(segundo);
+	}
+
+	@Test
+	@DisplayName("Deve deletar em lote por filtro e descartar o cache por id")
+	void deveDeletarEmLotePorFiltro() {
+		CupomFilterDTO filtro = new CupomFilterDTO(CupomStatus.INACTIVE, null, null, null, null);
+		when(cupomRepository.softDeleteByFilter(eq(filtro), any(Instant.class))).thenReturn(42);
+
+		CupomBulkDeleteResponseDTO response = cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(null, filtro));
+
+		assertThat(response.deleted()).isEqualTo(42);
+		verify(cupomCache).invalidateAll();
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar criação em lote acima do limite sem tocar o banco")
+	void deveRejeitarCriacaoEmLoteAcimaDoLimite() {
+		List<CupomRequestDTO> lote = Collections.nCopies(100_001, requestValido);
+
+		assertThatThrownBy(() -> cupomService.createBatch(lote))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_BATCH_SIZE");
+
+		verifyNoInteractions(cupomRepository);
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar deleção em lote sem critério, com os dois critérios ou com filtro vazio")
+	void deveRejeitarDelecaoEmLoteSemCriterio() {
+		CupomFilterDTO vazio = new CupomFilterDTO(null, null, null, null, null);
+
+		assertThatThrownBy(() -> cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(null, null)))
+				.hasFieldOrPropertyWithValue("code", "COUPON_BULK_DELETE_CRITERIA");
+		assertThatThrownBy(() -> cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(List.of(UUID.randomUUID()), vazio)))
+				.hasFieldOrPropertyWithValue("code", "COUPON_BULK_DELETE_CRITERIA");
+		assertThatThrownBy(() -> cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(null, vazio)))
+				.hasFieldOrPropertyWithValue("code", "COUPON_BULK_DELETE_CRITERIA");
+		assertThatThrownBy(() -> cupomService.deleteBulk(new CupomBulkDeleteRequestDTO(List.of(), null)))
+				.hasFieldOrPropertyWithValue("code", "COUPON_BULK_DELETE_IDS");
+
+		verifyNoInteractions(cupomRepository);
+	}
+
 	@Test
 	@DisplayName("Deve criar cupom com published=false quando não informado")
 	void deveCriarCupomComPublishedFalseQuandoNaoInformado() {
@@ -446,5 +522,321 @@ class CupomServiceTest {
 
 		verify(cupomRepository, never()).save(any(Cupom.class));
 	}
-}
 
+	@Test
+	@DisplayName("Deve criar cupons em lote com uma única consulta de duplicidade")
+	void deveCriarCuponsEmLote() {
+		List<CupomRequestDTO> requests = List.of(
+				requestValido,
+				new CupomRequestDTO("XY-9Z8W", "Outro cupom", new BigDecimal("5.00"), LocalDate.of(2026, 12, 31), false)
+		);
+
+		when(cupomRepository.findExistingCodes(anyCollection())).thenReturn(Set.of());
+		when(cupomRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		CupomBatchResponseDTO response = cupomService.createBatch(requests);
+
+		assertThat(response.total()).isEqualTo(2);
+		assertThat(response.created()).isEqualTo(2);
+		assertThat(response.failed()).isZero();
+		assertThat(response.cupons()).extracting("code").containsExactly("ABC123", "XY9Z8W");
+
+		verify(cupomRepository, times(1)).findExistingCodes(anyCollection());
+		verify(cupomRepository, times(1)).saveAll(anyList());
+		verify(cupomRepository, never()).findByCode(any());
+		verify(cupomRepository, never()).save(any(Cupom.class));
+	}
+
+	@Test
+	@DisplayName("Deve retornar erros por item no lote sem impedir os cupons válidos")
+	void deveRetornarErrosPorItemNoLote() {
+		List<CupomRequestDTO> requests = List.of(
+				requestValido,
+				new CupomRequestDTO("AB-12", "Curto", new BigDecimal("10.00"), LocalDate.of(2026, 12, 31), false),
+				new CupomRequestDTO("abc123", "Repetido", new BigDecimal("10.00"), LocalDate.of(2026, 12, 31), false),
+				new CupomRequestDTO("EXI571", "Existente", new BigDecimal("10.00"), LocalDate.of(2026, 12, 31), false)
+		);
+
+		when(cupomRepository.findExistingCodes(anyCollection())).thenReturn(Set.of("EXI571"));
+		when(cupomRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		CupomBatchResponseDTO response = cupomService.createBatch(requests);
+
+		assertThat(response.created()).isEqualTo(1);
+		assertThat(response.failed()).isEqualTo(3);
+		assertThat(response.errors()).extracting("index").containsExactly(1, 2, 3);
+		assertThat(response.errors()).extracting("errorCode")
+				.containsExactly("COUPON_CODE_LENGTH", "COUPON_CODE_DUPLICATED_IN_BATCH", "COUPON_CODE_DELETED");
+	}
+
+	@Test
+	@DisplayName("Não deve consultar o banco quando nenhum cupom do lote é válido")
+	void naoDeveConsultarBancoQuandoLoteInvalido() {
+		List<CupomRequestDTO> requests = List.of(
+				new CupomRequestDTO("ABC123", "Descrição", new BigDecimal("0.10"), LocalDate.of(2026, 12, 31), false)
+		);
+
+		CupomBatchResponseDTO response = cupomService.createBatch(requests);
+
+		assertThat(response.failed()).isEqualTo(1);
+		assertThat(response.errors().get(0).errorCode()).isEqualTo("COUPON_DISCOUNT_MIN");
+		verifyNoInteractions(cupomRepository);
+	}
+
+	@Test
+	@DisplayName("Não deve consultar o banco na checagem de duplicidade quando o índice está pronto")
+	void naoDeveConsultarBancoQuandoIndiceAusente() {
+		when(codeIndex.isReady()).thenReturn(true);
+		when(codeIndex.contains("ABC123")).thenReturn(false);
+		when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomMock);
+
+		cupomService.create(requestValido);
+
+		verify(cupomRepository, never()).findByCode(any());
+		verify(codeIndex, times(1)).add("ABC123");
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar código presente no índice sem consultar o banco")
+	void deveRejeitarCodigoPresenteNoIndice() {
+		when(codeIndex.isReady()).thenReturn(true);
+		when(codeIndex.contains("ABC123")).thenReturn(true);
+
+		assertThatThrownBy(() -> cupomService.create(requestValido))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_CODE_DELETED");
+
+		verify(cupomRepository, never()).findByCode(any());
+		verify(cupomRepository, never()).save(any(Cupom.class));
+	}
+
+	@Test
+	@DisplayName("Deve traduzir violação da constraint unique em erro de código duplicado")
+	void deveTraduzirViolacaoDeUnicidade() {
+		when(cupomRepository.save(any(Cupom.class)))
+				.thenThrow(new DataIntegrityViolationException("unique"));
+
+		assertThatThrownBy(() -> cupomService.create(requestValido))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_CODE_DELETED");
+
+		verify(codeIndex, never()).add(any());
+	}
+
+	@Test
+	@DisplayName("Deve buscar cupom por id no banco uma única vez e servir as leituras seguintes do cache")
+	void deveBuscarPorIdUsandoCache() {
+		when(cupomRepository.findById(cupomMock.getId())).thenReturn(Optional.of(cupomMock));
+
+		CupomResponseDTO primeiro = cupomService.findById(cupomMock.getId());
+		CupomResponseDTO segundo = cupomService.findById(cupomMock.getId());
+
+		assertThat(primeiro.code()).isEqualTo("ABC123");
+		assertThat(segundo).isSameAs(primeiro);
+		verify(cupomRepository, times(1)).findById(cupomMock.getId());
+	}
+
+	@Test
+	@DisplayName("Deve lançar NotFoundException ao buscar id inexistente sem guardar a ausência no cache")
+	void deveLancarNotFoundAoBuscarIdInexistente() {
+		UUID cupomId = UUID.randomUUID();
+		when(cupomRepository.findById(cupomId)).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> cupomService.findById(cupomId)).isInstanceOf(NotFoundException.class);
+		assertThatThrownBy(() -> cupomService.findById(cupomId)).isInstanceOf(NotFoundException.class);
+
+		verify(cupomRepository, times(2)).findById(cupomId);
+	}
+
+	@Test
+	@DisplayName("Deve buscar cupom pelo código normalizado e reaproveitar o cache por id")
+	void deveBuscarPorCodigoNormalizado() {
+		when(cupomRepository.findByCodeKey(CupomCodeCodec.encode("ABC123"))).thenReturn(Optional.of(cupomMock));
+
+		CupomResponseDTO porCodigo = cupomService.findByCode("ab-c1$23");
+		CupomResponseDTO porId = cupomService.findById(cupomMock.getId());
+
+		assertThat(porCodigo.id()).isEqualTo(cupomMock.getId());
+		assertThat(porId).isSameAs(porCodigo);
+		verify(cupomRepository, never()).findById(any());
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar código inválido na busca por código")
+	void deveRejeitarCodigoInvalidoNaBusca() {
+		assertThatThrownBy(() -> cupomService.findByCode("AB1"))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_CODE_LENGTH");
+
+		verify(cupomRepository, never()).findByCodeKey(anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve responder 404 sem consultar o banco quando o código não está no índice")
+	void deveResponderNotFoundPeloIndice() {
+		when(codeIndex.isReady()).thenReturn(true);
+		when(codeIndex.containsKey(CupomCodeCodec.encode("ABC123"))).thenReturn(false);
+
+		assertThatThrownBy(() -> cupomService.findByCode("ABC123")).isInstanceOf(NotFoundException.class);
+
+		verify(cupomRepository, never()).findByCodeKey(anyLong());
+	}
+
+	@Test
+	@DisplayName("Não deve servir cupom deletado como ACTIVE a partir do cache")
+	void naoDeveServirCupomDeletadoDoCache() {
+		when(cupomRepository.findByCodeKey(CupomCodeCodec.encode("ABC123"))).thenReturn(Optional.of(cupomMock));
+		when(cupomRepository.softDeleteById(eq(cupomMock.getId()), eq(CupomStatus.DELETED), any(Instant.class)))
+				.thenAnswer(invocation -> {
+					cupomMock.setStatus(CupomStatus.DELETED);
+					cupomMock.setDeletedAt(invocation.getArgument(2));
+					return 1;
+				});
+		when(cupomRepository.findById(cupomMock.getId())).thenReturn(Optional.of(cupomMock));
+		assertThat(cupomService.findByCode("ABC123").status()).isEqualTo(CupomStatus.ACTIVE);
+
+		cupomService.delete(cupomMock.getId());
+
+		assertThat(cupomService.findById(cupomMock.getId()).status()).isEqualTo(CupomStatus.DELETED);
+		assertThat(cupomService.findByCode("ABC123").status()).isEqualTo(CupomStatus.DELETED);
+		verify(cupomCache).invalidate(cupomMock.getId());
+	}
+
+	@Test
+	@DisplayName("Deve listar página com cursor para a próxima quando há mais resultados")
+	void deveListarPaginaComProximoCursor() {
+		Cupom segundo = Cupom.builder().id(UUID.randomUUID()).code("ABC124").description("Cupom")
+				.discountValue(new BigDecimal("10.00")).expirationDate(LocalDate.of(2027, 6, 30))
+				.status(CupomStatus.ACTIVE).published(true).redeemed(false).build();
+		when(cupomRepository.findBy(any(Specification.class), any())).thenReturn(List.of(cupomMock, segundo));
+
+		CupomPageDTO pagina = cupomService.list(new CupomFilterDTO(null, null, null, null, null), null, 1);
+
+		assertThat(pagina.cupons()).extracting(CupomResponseDTO::code).containsExactly("ABC123");
+		assertThat(pagina.nextCursor()).isNotBlank();
+
+		when(cupomRepository.findBy(any(Specification.class), any())).thenReturn(List.of(segundo));
+		CupomPageDTO ultima = cupomService.list(new CupomFilterDTO(null, null, null, null, null), pagina.nextCursor(), 1);
+
+		assertThat(ultima.cupons()).extracting(CupomResponseDTO::code).containsExactly("ABC124");
+		assertThat(ultima.nextCursor()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar limite de página fora do intervalo permitido")
+	void deveRejeitarLimiteDePaginaInvalido() {
+		assertThatThrownBy(() -> cupomService.list(new CupomFilterDTO(null, null, null, null, null), null, 501))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_PAGE_LIMIT");
+
+		verify(cupomRepository, never()).findBy(any(Specification.class), any());
+	}
+
+	@Test
+	@DisplayName("Deve rejeitar cursor malformado")
+	void deveRejeitarCursorInvalido() {
+		assertThatThrownBy(() -> cupomService.list(new CupomFilterDTO(null, null, null, null, null), "%%%", 10))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_INVALID_CURSOR");
+	}
+
+	@Test
+	@DisplayName("Deve resgatar cupom com um único update condicional")
+	void deveResgatarCupom() {
+		long chave = CupomCodeCodec.encode("ABC123");
+		cupomMock.setRedeemed(true);
+		when(cupomRepository.redeemByCodeKey(eq(chave), eq(CupomStatus.ACTIVE), any(LocalDate.class))).thenReturn(1);
+		when(cupomRepository.findByCodeKey(chave)).thenReturn(Optional.of(cupomMock));
+
+		CupomResponseDTO resgatado = cupomService.redeem("abc-123");
+
+		assertThat(resgatado.redeemed()).isTrue();
+		verify(cupomRepository, never()).save(any(Cupom.class));
+		verify(cupomCache).invalidate(cupomMock.getId());
+	}
+
+	@Test
+	@DisplayName("Deve responder resgates repetidos de cupom já resgatado sem consultar o banco")
+	void deveResponderResgateRepetidoSemBanco() {
+		long chave = CupomCodeCodec.encode("ABC123");
+		cupomMock.setRedeemed(true);
+		when(cupomRepository.redeemByCodeKey(eq(chave), eq(CupomStatus.ACTIVE), any(LocalDate.class))).thenReturn(0);
+		when(cupomRepository.findByCodeKey(chave)).thenReturn(Optional.of(cupomMock));
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> cupomService.redeem("ABC123"))
+					.isInstanceOf(BusinessException.class)
+					.hasFieldOrPropertyWithValue("code", "COUPON_ALREADY_REDEEMED");
+		}
+
+		verify(cupomRepository, times(1)).redeemByCodeKey(anyLong(), any(), any());
+		verify(cupomRepository, times(1)).findByCodeKey(chave);
+	}
+
+	@Test
+	@DisplayName("Deve distinguir o motivo da rejeição do resgate")
+	void deveDistinguirMotivoDaRejeicaoDoResgate() {
+		assertThat(motivoRejeicao("XYZ781", cupom -> cupom.setDeletedAt(Instant.now()))).isEqualTo("COUPON_DELETED");
+		assertThat(motivoRejeicao("XYZ782", cupom -> cupom.setStatus(CupomStatus.INACTIVE))).isEqualTo("COUPON_INACTIVE");
+		assertThat(motivoRejeicao("XYZ783", cupom -> cupom.setPublished(false))).isEqualTo("COUPON_NOT_PUBLISHED");
+		assertThat(motivoRejeicao("XYZ784", cupom -> cupom.setExpirationDate(LocalDate.now().minusDays(1))))
+				.isEqualTo("COUPON_EXPIRED");
+	}
+
+	@Test
+	@DisplayName("Deve lançar NotFoundException ao resgatar código inexistente")
+	void deveLancarNotFoundAoResgatarCodigoInexistente() {
+		when(cupomRepository.findByCodeKey(anyLong())).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> cupomService.redeem("ZZZ999")).isInstanceOf(NotFoundException.class);
+	}
+
+	private String motivoRejeicao(String codigo, Consumer<Cupom> estado) {
+		Cupom cupom = Cupom.builder().id(UUID.randomUUID()).code(codigo).description("Cupom")
+				.discountValue(new BigDecimal("10.00")).expirationDate(LocalDate.now().plusDays(10))
+				.status(CupomStatus.ACTIVE).published(true).redeemed(false).build();
+		estado.accept(cupom);
+		long chave = CupomCodeCodec.encode(codigo);
+		when(cupomRepository.redeemByCodeKey(eq(chave), eq(CupomStatus.ACTIVE), any(LocalDate.class))).thenReturn(0);
+		when(cupomRepository.findByCodeKey(chave)).thenReturn(Optional.of(cupom));
+		try {
+			cupomService.redeem(codigo);
+			throw new AssertionError("Resgate deveria ter sido rejeitado");
+		} catch (BusinessException ex) {
+			return ex.getCode();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve medir latência por operação e contar rejeições por código de erro")
+	void deveRegistrarMetricasPorOperacaoECodigo() {
+		when(cupomRepository.findByCode("ABC123")).thenReturn(Optional.empty());
+		when(cupomRepository.save(any(Cupom.class))).thenReturn(cupomMock);
+		cupomService.create(requestValido);
+		CupomRequestDTO semCodigo = new CupomRequestDTO(null, "Cupom", new BigDecimal("10.00"), LocalDate.of(2026, 12, 31), true);
+		assertThatThrownBy(() -> cupomService.create(semCodigo)).isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> cupomService.findById(UUID.randomUUID())).isInstanceOf(NotFoundException.class);
+
+		assertThat(registry.get("cupom.operation").tags("operation", "create", "outcome", "success").timer().count()).isEqualTo(1);
+		assertThat(registry.get("cupom.operation").tags("operation", "create", "outcome", "error").timer().count()).isEqualTo(1);
+		assertThat(registry.get("cupom.repository").tag("query", "save").timer().count()).isEqualTo(1);
+		assertThat(registry.get("cupom.repository").tag("query", "findByCode").timer().count()).isEqualTo(1);
+		assertThat(registry.get("cupom.errors").tags("operation", "create", "code", "COUPON_CODE_REQUIRED").counter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("cupom.errors").tags("operation", "findById", "code", "COUPON_NOT_FOUND").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve medir e contar falhas inesperadas como erro interno")
+	void deveRegistrarMetricasDeFalhaInesperada() {
+		UUID id = UUID.randomUUID();
+		when(cupomRepository.findById(id)).thenThrow(new QueryTimeoutException("timeout"));
+
+		assertThatThrownBy(() -> cupomService.findById(id)).isInstanceOf(QueryTimeoutException.class);
+
+		assertThat(registry.get("cupom.operation").tags("operation", "findById", "outcome", "error").timer().count()).isEqualTo(1);
+		assertThat(registry.get("cupom.errors").tags("operation", "findById", "code", "INTERNAL_ERROR").counter().count())
+				.isEqualTo(1);
+	}
+}
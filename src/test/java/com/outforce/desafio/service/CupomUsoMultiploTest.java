@@ -0,0 +1,128 @@
+package com.outforce.desafio.service;
+
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.dto.CupomResponseDTO;
+import com.outforce.desafio.exception.BusinessException;
+import com.outforce.desafio.model.CupomRedemptionShard;
+import com.outforce.desafio.redemption.CupomRedemptionCounters;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {"spring.datasource.url=jdbc:h2:mem:usomultiplo;DB_CLOSE_DELAY=-1", "cupom.redemption.shards=4"})
+@DisplayName("Testes de Integração - Cupons de uso múltiplo")
+class CupomUsoMultiploTest {
+
+	private static final int LIMITE = 50;
+	private static final int TENTATIVAS = 200;
+
+	@Autowired
+	private CupomService cupomService;
+
+	@Autowired
+	private CupomRedemptionCounters redemptionCounters;
+
+	@Test
+	@DisplayName("Deve dividir o limite em fatias quase iguais, sem fatias vazias")
+	void deveDividirOLimiteEmFatias() {
+		assertThat(redemptionCounters.allowances(10)).extracting(CupomRedemptionShard::getRemaining)
+				.containsExactly(3L, 3L, 2L, 2L);
+		assertThat(redemptionCounters.allowances(2)).extracting(CupomRedemptionShard::getRemaining)
+				.containsExactly(1L, 1L);
+	}
+
+	@Test
+	@DisplayName("Deve aceitar exatamente o limite de resgates com clientes simultâneos no mesmo código")
+	void deveRespeitarOLimiteComResgatesSimultaneos() throws Exception {
+		cupomService.create(new CupomRequestDTO("MUL001", "Primeiros 50", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), true, LIMITE));
+
+		AtomicInteger aceitos = new AtomicInteger();
+		Map<String, AtomicInteger> rejeicoes = new ConcurrentHashMap<>();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tentativas = new ArrayList<>();
+			for (int i = 0; i < TENTATIVAS; i++) {
+				tentativas.add(executor.submit((Callable<Void>) () -> {
+					largada.await();
+					try {
+						cupomService.redeem("MUL001");
+						aceitos.incrementAndGet();
+					} catch (BusinessException ex) {
+						rejeicoes.computeIfAbsent(ex.getCode(), k -> new AtomicInteger()).incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> tentativa : tentativas) {
+				tentativa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		redemptionCounters.flush();
+
+		assertThat(aceitos).hasValue(LIMITE);
+		assertThat(rejeicoes).containsOnlyKeys("COUPON_REDEMPTION_LIMIT_REACHED");
+		CupomResponseDTO cupom = cupomService.findByCode("MUL001");
+		assertThat(cupom.redemptionCount()).isEqualTo(LIMITE);
+		assertThat(cupom.redeemed()).isTrue();
+	}
+
+	@Test
+	@DisplayName("Deve consolidar no cupom o total parcial de resgates")
+	void deveConsolidarTotalParcial() {
+		cupomService.create(new CupomRequestDTO("MUL002", "Dez usos", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), true, 10));
+
+		for (int i = 0; i < 3; i++) {
+			CupomResponseDTO resgatado = cupomService.redeem("MUL002");
+			assertThat(resgatado.maxRedemptions()).isEqualTo(10);
+		}
+		redemptionCounters.flush();
+
+		CupomResponseDTO cupom = cupomService.findByCode("MUL002");
+		assertThat(cupom.redemptionCount()).isEqualTo(3);
+		assertThat(cupom.redeemed()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Deve recusar resgate de cupom de uso múltiplo não publicado")
+	void deveRecusarCupomNaoPublicado() {
+		cupomService.create(new CupomRequestDTO("MUL003", "Rascunho", new BigDecimal("10.00"),
+				LocalDate.now().plusDays(30), false, 10));
+
+		assertThatThrownBy(() -> cupomService.redeem("MUL003"))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_NOT_PUBLISHED");
+	}
+
+	@Test
+	@DisplayName("Deve recusar limite de resgates menor que 1")
+	void deveRecusarLimiteInvalido() {
+		assertThatThrownBy(() -> cupomService.create(new CupomRequestDTO("MUL004", "Inválido",
+				new BigDecimal("10.00"), LocalDate.now().plusDays(30), true, 0)))
+				.isInstanceOf(BusinessException.class)
+				.hasFieldOrPropertyWithValue("code", "COUPON_MAX_REDEMPTIONS_MIN");
+	}
+}
@@ -0,0 +1,160 @@
+package com.outforce.desafio.sql;
+
+import com.outforce.desafio.DesafioApplication;
+import com.outforce.desafio.dto.CupomRequestDTO;
+import com.outforce.desafio.service.CupomService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - Rastreamento de SQL")
+class SqlTracerTest {
+
+	private static final Duration ESPERA = Duration.ofSeconds(5);
+
+	private ColetorSqlTracer tracer;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (tracer != null) {
+			tracer.encerrar();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve registrar texto, parâmetros, linhas e duração de updates, consultas e lotes")
+	void deveRegistrarComandos() throws Exception {
+		tracer = new ColetorSqlTracer(1.0, 10_000);
+		DataSource dataSource = new TracingDataSource(h2("sql-trace-comandos"), tracer);
+
+		try (Connection conexao = dataSource.getConnection()) {
+			try (Statement comando = conexao.createStatement()) {
+				comando.execute("CREATE TABLE t (id INT PRIMARY KEY, nome VARCHAR(10))");
+			}
+			try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO t VALUES (?, ?)")) {
+				insert.setInt(1, 1);
+				insert.setString(2, "um");
+				insert.executeUpdate();
+			}
+			try (PreparedStatement lote = conexao.prepareStatement("INSERT INTO t VALUES (?, ?)")) {
+				for (int i = 2; i <= 4; i++) {
+					lote.setInt(1, i);
+					lote.setString(2, "n" + i);
+					lote.addBatch();
+				}
+				lote.executeBatch();
+			}
+			try (PreparedStatement select = conexao.prepareStatement("SELECT nome FROM t WHERE id > ?")) {
+				select.setInt(1, 1);
+				try (ResultSet resultado = select.executeQuery()) {
+					while (resultado.next()) {
+						assertThat(resultado.getString(1)).startsWith("n");
+					}
+				}
+			}
+		}
+
+		aguardar(() -> tracer.registros.size() == 4);
+		SqlTrace insert = tracer.registros.get(1);
+		assertThat(insert.sql()).isEqualTo("INSERT INTO t VALUES (?, ?)");
+		assertThat(insert.binds()).isEqualTo(2);
+		assertThat(insert.rows()).isEqualTo(1);
+		assertThat(insert.slow()).isFalse();
+
+		SqlTrace lote = tracer.registros.get(2);
+		assertThat(lote.batch()).isEqualTo(3);
+		assertThat(lote.binds()).isEqualTo(6);
+		assertThat(lote.rows()).isEqualTo(3);
+
+		SqlTrace select = tracer.registros.get(3);
+		assertThat(select.sql()).isEqualTo("SELECT nome FROM t WHERE id > ?");
+		assertThat(select.binds()).isEqualTo(1);
+		assertThat(select.rows()).isEqualTo(3);
+		assertThat(select.durationMicros()).isNotNegative();
+	}
+
+	@Test
+	@DisplayName("Deve ignorar comandos não amostrados, exceto os acima do limite de lentidão")
+	void deveRegistrarSomenteLentosForaDaAmostra() throws Exception {
+		tracer = new ColetorSqlTracer(0.0, 0);
+		DataSource dataSource = new TracingDataSource(h2("sql-trace-lentos"), tracer);
+		try (Connection conexao = dataSource.getConnection(); Statement comando = conexao.createStatement()) {
+			comando.execute("SELECT 1");
+		}
+
+		aguardar(() -> tracer.registros.size() == 1);
+		assertThat(tracer.registros.get(0).slow()).isTrue();
+
+		ColetorSqlTracer semAmostra = new ColetorSqlTracer(0.0, 10_000);
+		try (Connection conexao = new TracingDataSource(h2("sql-trace-lentos"), semAmostra).getConnection();
+			 Statement comando = conexao.createStatement()) {
+			comando.execute("SELECT 1");
+		} finally {
+			semAmostra.encerrar();
+		}
+		assertThat(semAmostra.registros).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve envolver o DataSource da aplicação quando o rastreamento está ligado")
+	void deveEnvolverDataSourceDaAplicacao() {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DesafioApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:sql-trace;DB_CLOSE_DELAY=-1",
+						"--cupom.sql-trace.enabled=true",
+						"--cupom.sql-trace.sample-rate=1.0",
+						"--cupom.expiration.enabled=false",
+						"--logging.level.root=WARN")) {
+			assertThat(contexto.getBean(DataSource.class)).isInstanceOf(TracingDataSource.class);
+
+			contexto.getBean(CupomService.class).create(new CupomRequestDTO("SQL001", "Rastreado", new BigDecimal("10.00"),
+					LocalDate.now().plusDays(30), true));
+		}
+	}
+
+	private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+		long limite = System.nanoTime() + ESPERA.toNanos();
+		while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+			Thread.sleep(10);
+		}
+		assertThat(condicao.getAsBoolean()).isTrue();
+	}
+
+	private static DataSource h2(String nome) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+		return dataSource;
+	}
+
+	private static final class ColetorSqlTracer extends SqlTracer {
+
+		private final List<SqlTrace> registros = new CopyOnWriteArrayList<>();
+
+		private ColetorSqlTracer(double taxaAmostragem, long limiteLentoMs) {
+			super(taxaAmostragem, limiteLentoMs, 1_024);
+		}
+
+		@Override
+		void escrever(SqlTrace trace) {
+			registros.add(trace);
+		}
+	}
+}